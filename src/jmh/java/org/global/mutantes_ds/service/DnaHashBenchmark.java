@@ -0,0 +1,36 @@
+package org.global.mutantes_ds.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// MutantService.calculateDnaHash (hash de las filas) por tamaño de matriz y algoritmo.
+// La posición de las secuencias no cambia el costo del hash: se usa un ADN humano.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DnaHashBenchmark {
+
+    @Param({"6", "64", "256", "1000"})
+    public int size;
+
+    @Param({"SHA256", "MURMUR3_128"})
+    public HashAlgorithm algorithm;
+
+    private MutantService service;
+    private String[] dna;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // calculateDnaHash solo usa el hasher, medido en mutant.hash como el bean de Spring
+        service = new MutantService(null, null, null,
+                new DnaHasher(algorithm, new MutantMetrics(new SimpleMeterRegistry())), null, null, null);
+        dna = DnaMatrices.of(size, DnaMatrices.Density.NONE);
+    }
+
+    @Benchmark
+    public DnaHash calculateDnaHash() {
+        return service.calculateDnaHash(dna);
+    }
+}
@@ -0,0 +1,56 @@
+package org.global.mutantes_ds.service;
+
+// Matrices de ADN para los benchmarks
+public final class DnaMatrices {
+
+    // Dónde aparecen las dos secuencias que hacen mutante al ADN
+    public enum Density {
+        EARLY,  // en las primeras filas: el recorrido corta enseguida
+        LATE,   // en las últimas filas: se recorre casi toda la matriz
+        NONE    // humano: se recorre la matriz completa
+    }
+
+    private DnaMatrices() {
+    }
+
+    static String[] of(int n, Density density) {
+
+        String[] dna = human(n);
+
+        switch (density) {
+            case EARLY -> {
+                dna[0] = withRun(dna[0]);
+                dna[1] = withRun(dna[1]);
+            }
+            case LATE -> {
+                dna[n - 2] = withRun(dna[n - 2]);
+                dna[n - 1] = withRun(dna[n - 1]);
+            }
+            case NONE -> {
+            }
+        }
+
+        return dna;
+    }
+
+    // (2 * fila + columna) % 4 no repite la misma base en ninguna dirección
+    private static String[] human(int n) {
+
+        String[] dna = new String[n];
+
+        for (int i = 0; i < n; i++) {
+            StringBuilder row = new StringBuilder(n);
+            for (int j = 0; j < n; j++) {
+                row.append("ACGT".charAt((2 * i + j) % 4));
+            }
+            dna[i] = row.toString();
+        }
+
+        return dna;
+    }
+
+    // Secuencia horizontal en las columnas 0..3 (la columna 4 nunca es T, no se extiende)
+    private static String withRun(String row) {
+        return "TTTT" + row.substring(4);
+    }
+}
@@ -0,0 +1,45 @@
+package org.global.mutantes_ds.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// MutantDetector.isMutant por tamaño de matriz, posición de las secuencias y motor
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MutantDetectorBenchmark {
+
+    @Param({"6", "64", "256", "1000"})
+    public int size;
+
+    @Param({"EARLY", "LATE", "NONE"})
+    public DnaMatrices.Density density;
+
+    @Param({"SCALAR", "BITPACKED", "VECTOR"})
+    public DetectionEngine engine;
+
+    private MutantDetector detector;
+    private String[] dna;
+    private BitPackedDnaMatrix matrix;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        detector = new MutantDetector(engine);
+        dna = DnaMatrices.of(size, density);
+        matrix = BitPackedDnaMatrix.encode(dna);
+    }
+
+    // Camino de String[] (validación + armado de la matriz del motor + búsqueda)
+    @Benchmark
+    public boolean isMutant() {
+        return detector.isMutant(dna);
+    }
+
+    // Camino de POST /mutant: la matriz ya llega empaquetada desde el deserializer
+    // (siempre bit-packed, el motor configurado no cambia el resultado)
+    @Benchmark
+    public boolean isMutantPacked() {
+        return detector.isMutant(matrix);
+    }
+}
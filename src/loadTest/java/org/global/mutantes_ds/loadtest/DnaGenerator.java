@@ -0,0 +1,157 @@
+package org.global.mutantes_ds.loadtest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// ADN aleatorios (distintos entre sí) con tamaño según la distribución configurada
+final class DnaGenerator {
+
+    private static final char[] BASES = {'A', 'C', 'G', 'T'};
+
+    private final int[] sizes;
+    private final int[] cumulativeWeights;
+    private final double mutantRatio;
+
+    DnaGenerator(Map<Integer, Integer> sizeWeights, double mutantRatio) {
+
+        this.sizes = new int[sizeWeights.size()];
+        this.cumulativeWeights = new int[sizeWeights.size()];
+        this.mutantRatio = mutantRatio;
+
+        int i = 0;
+        int total = 0;
+
+        for (Map.Entry<Integer, Integer> entry : sizeWeights.entrySet()) {
+            total += entry.getValue();
+            sizes[i] = entry.getKey();
+            cumulativeWeights[i] = total;
+            i++;
+        }
+    }
+
+    String[] next() {
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+
+        int size = sizes[0];
+        for (int i = 0; i < sizes.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                size = sizes[i];
+                break;
+            }
+        }
+
+        return random.nextDouble() < mutantRatio ? mutant(size) : human(size);
+    }
+
+    // Cada celda evita completar 4 iguales con sus vecinas ya generadas (←, ↑, ↖, ↗)
+    private static String[] human(int n) {
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        char[][] m = new char[n][n];
+
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+
+                int offset = random.nextInt(4);
+                char chosen = BASES[offset];
+
+                for (int k = 0; k < 4; k++) {
+                    char candidate = BASES[(offset + k) & 3];
+                    if (!completesRun(m, i, j, candidate)) {
+                        chosen = candidate;
+                        break;
+                    }
+                }
+
+                m[i][j] = chosen;
+            }
+        }
+
+        return toRows(m);
+    }
+
+    // Humano con dos secuencias horizontales en filas al azar
+    private static String[] mutant(int n) {
+
+        String[] dna = human(n);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        for (int k = 0; k < 2; k++) {
+            int row = random.nextInt(n);
+            int col = random.nextInt(n - 3);
+            dna[row] = dna[row].substring(0, col) + "TTTT" + dna[row].substring(col + 4);
+        }
+
+        return dna;
+    }
+
+    private static boolean completesRun(char[][] m, int i, int j, char base) {
+        return run(m, i, j, 0, -1, base)
+                || run(m, i, j, -1, 0, base)
+                || run(m, i, j, -1, -1, base)
+                || run(m, i, j, -1, 1, base);
+    }
+
+    private static boolean run(char[][] m, int i, int j, int dRow, int dCol, char base) {
+
+        for (int k = 1; k < 4; k++) {
+
+            int r = i + k * dRow;
+            int c = j + k * dCol;
+
+            if (r < 0 || c < 0 || c >= m.length || m[r][c] != base)
+                return false;
+        }
+
+        return true;
+    }
+
+    private static String[] toRows(char[][] m) {
+
+        String[] rows = new String[m.length];
+
+        for (int i = 0; i < m.length; i++) {
+            rows[i] = new String(m[i]);
+        }
+
+        return rows;
+    }
+
+    // Mismo hash que MutantService.calculateDnaHash con mutant.hash.algorithm=SHA256 (para DELETE /mutant/{hash})
+    static String hash(String[] dna) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+
+            // Huella canónica: N (4 bytes big-endian) y luego las filas
+            int n = dna.length;
+            digest.update(new byte[]{(byte) (n >>> 24), (byte) (n >>> 16), (byte) (n >>> 8), (byte) n});
+
+            for (String row : dna) {
+                digest.update(row.getBytes(StandardCharsets.US_ASCII));
+            }
+
+            return HexFormat.of().formatHex(digest.digest());
+
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String toJson(String[] dna) {
+
+        StringBuilder json = new StringBuilder(dna.length * (dna.length + 3) + 16).append("{\"dna\":[");
+
+        for (int i = 0; i < dna.length; i++) {
+            if (i > 0) json.append(',');
+            json.append('"').append(dna[i]).append('"');
+        }
+
+        return json.append("]}").toString();
+    }
+}
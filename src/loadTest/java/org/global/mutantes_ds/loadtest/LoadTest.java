@@ -0,0 +1,356 @@
+package org.global.mutantes_ds.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Generador de carga de lazo cerrado contra la aplicación en ejecución:
+// "concurrency" clientes (virtual threads) repiten POST /mutant, GET /stats y DELETE /mutant/{hash}
+// según los pesos configurados y registran la latencia en histogramas HDR.
+// Mientras mide, consulta cada segundo los hilos vivos de la aplicación (/actuator/metrics/jvm.threads.live).
+// Con loadTest.baseline=<summary.json de otra corrida> imprime la comparación de throughput, latencia e hilos
+// (por ejemplo, spring.threads.virtual.enabled=false contra true).
+// Uso: ./gradlew bootRun --args='--rate-limiter.enabled=false' y en otra terminal ./gradlew loadTest
+public final class LoadTest {
+
+    enum Operation { POST_MUTANT, GET_STATS, DELETE_MUTANT }
+
+    // ADN ya enviados, reutilizados para las repeticiones y los DELETE
+    private static final int SENT_POOL_SIZE = 10_000;
+
+    private static final long THREAD_SAMPLE_MILLIS = 1_000;
+    private static final Pattern METRIC_VALUE = Pattern.compile("\"value\"\\s*:\\s*([0-9.Ee+-]+)");
+
+    private final LoadTestConfig config;
+    private final DnaGenerator generator;
+    private final HttpClient client;
+
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, Map<Integer, LongAdder>> statuses = new EnumMap<>(Operation.class);
+    private final LongAdder errors = new LongAdder();
+
+    // Hilos vivos de la aplicación muestreados durante la medición
+    private final List<Double> liveThreads = new ArrayList<>();
+
+    private final AtomicReferenceArray<String[]> sent = new AtomicReferenceArray<>(SENT_POOL_SIZE);
+    private final AtomicLong sentCount = new AtomicLong();
+
+    private LoadTest(LoadTestConfig config) {
+
+        this.config = config;
+        this.generator = new DnaGenerator(config.sizeWeights(), config.mutantRatio());
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        for (Operation operation : Operation.values()) {
+            // Microsegundos, hasta 1 minuto, 3 dígitos significativos
+            latencies.put(operation, new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3));
+            statuses.put(operation, new ConcurrentHashMap<>());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        System.out.println("Load test: " + config);
+
+        LoadTest test = new LoadTest(config);
+        test.run();
+        test.report();
+    }
+
+    private void run() throws InterruptedException {
+
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(config.warmupSeconds());
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(config.durationSeconds());
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            workers.submit(() -> sampleThreads(measureFrom, end));
+
+            for (int i = 0; i < config.concurrency(); i++) {
+                workers.submit(() -> worker(measureFrom, end));
+            }
+        }
+    }
+
+    private void sampleThreads(long measureFrom, long end) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(Math.max(0, measureFrom - System.nanoTime()));
+
+            while (System.nanoTime() - end < 0) {
+
+                Double live = metric("jvm.threads.live");
+
+                // Sin actuator (o sin la métrica) no hay nada que muestrear
+                if (live == null)
+                    return;
+
+                synchronized (liveThreads) {
+                    liveThreads.add(live);
+                }
+
+                TimeUnit.MILLISECONDS.sleep(THREAD_SAMPLE_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Valor de una métrica de Micrometer de la aplicación, o null si no está disponible
+    private Double metric(String name) throws InterruptedException {
+        try {
+            HttpResponse<String> response = client.send(
+                    HttpRequest.newBuilder(uri("/actuator/metrics/" + name)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+
+            Matcher value = METRIC_VALUE.matcher(response.body());
+
+            return response.statusCode() == 200 && value.find() ? Double.parseDouble(value.group(1)) : null;
+
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void worker(long measureFrom, long end) {
+
+        while (true) {
+
+            long begin = System.nanoTime();
+
+            if (begin - end >= 0)
+                return;
+
+            Operation operation = pickOperation();
+
+            try {
+                int status = execute(operation);
+                long elapsed = System.nanoTime() - begin;
+
+                // Lo que empezó durante el warmup no se mide
+                if (begin - measureFrom >= 0) {
+                    latencies.get(operation).recordValue(
+                            Math.min(TimeUnit.NANOSECONDS.toMicros(elapsed), TimeUnit.MINUTES.toMicros(1)));
+                    statuses.get(operation).computeIfAbsent(status, s -> new LongAdder()).increment();
+                }
+
+            } catch (IOException e) {
+                errors.increment();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private Operation pickOperation() {
+
+        int total = config.postWeight() + config.statsWeight() + config.deleteWeight();
+        int pick = ThreadLocalRandom.current().nextInt(total);
+
+        if (pick < config.postWeight())
+            return Operation.POST_MUTANT;
+
+        if (pick < config.postWeight() + config.statsWeight())
+            return Operation.GET_STATS;
+
+        return sentCount.get() == 0 ? Operation.POST_MUTANT : Operation.DELETE_MUTANT;
+    }
+
+    private int execute(Operation operation) throws IOException, InterruptedException {
+
+        HttpRequest request = switch (operation) {
+
+            case POST_MUTANT -> HttpRequest.newBuilder(uri("/mutant"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(DnaGenerator.toJson(nextDna())))
+                    .build();
+
+            case GET_STATS -> HttpRequest.newBuilder(uri("/stats")).GET().build();
+
+            case DELETE_MUTANT -> HttpRequest.newBuilder(uri("/mutant/" + DnaGenerator.hash(sentDna())))
+                    .DELETE()
+                    .build();
+        };
+
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    // Con probabilidad repeatRatio repite un ADN ya enviado (camino de deduplicación)
+    private String[] nextDna() {
+
+        if (sentCount.get() > 0 && ThreadLocalRandom.current().nextDouble() < config.repeatRatio())
+            return sentDna();
+
+        String[] dna = generator.next();
+
+        sent.set((int) (sentCount.getAndIncrement() % SENT_POOL_SIZE), dna);
+
+        return dna;
+    }
+
+    private String[] sentDna() {
+
+        while (true) {
+            String[] dna = sent.get(ThreadLocalRandom.current().nextInt(
+                    (int) Math.min(sentCount.get(), SENT_POOL_SIZE)));
+            if (dna != null)
+                return dna;
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create(config.baseUrl() + path);
+    }
+
+    private void report() throws IOException, InterruptedException {
+
+        double seconds = config.durationSeconds();
+        long totalCount = 0;
+        List<String> json = new ArrayList<>();
+
+        System.out.println();
+        System.out.printf(Locale.ROOT, "%-14s %10s %10s %9s %9s %9s %9s %9s  %s%n",
+                "operation", "count", "ops/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "status");
+
+        for (Operation operation : Operation.values()) {
+
+            Histogram histogram = latencies.get(operation);
+            long count = histogram.getTotalCount();
+            totalCount += count;
+
+            Map<Integer, Long> byStatus = new TreeMap<>();
+            statuses.get(operation).forEach((status, adder) -> byStatus.put(status, adder.sum()));
+
+            System.out.printf(Locale.ROOT, "%-14s %10d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f  %s%n",
+                    operation, count, count / seconds,
+                    millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                    histogram.getMaxValue() / 1000.0, byStatus);
+
+            json.add(String.format(Locale.ROOT,
+                    "\"%s\":{\"count\":%d,\"throughput\":%.2f,\"p50Ms\":%.3f,\"p90Ms\":%.3f,"
+                            + "\"p99Ms\":%.3f,\"p999Ms\":%.3f,\"maxMs\":%.3f,\"status\":%s}",
+                    operation, count, count / seconds,
+                    millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                    histogram.getMaxValue() / 1000.0, statusJson(byStatus)));
+        }
+
+        System.out.printf(Locale.ROOT, "%ntotal: %d requests, %.1f req/s, %d errores de conexión%n",
+                totalCount, totalCount / seconds, errors.sum());
+
+        // Hilos de la aplicación: promedio y máximo de lo muestreado, y el pico desde que arrancó
+        double threadsAvg;
+        double threadsMax;
+        synchronized (liveThreads) {
+            threadsAvg = liveThreads.stream().mapToDouble(Double::doubleValue).average().orElse(-1);
+            threadsMax = liveThreads.stream().mapToDouble(Double::doubleValue).max().orElse(-1);
+        }
+        Double peak = metric("jvm.threads.peak");
+        double threadsPeak = peak == null ? -1 : peak;
+
+        if (threadsMax < 0) {
+            System.out.println("hilos: sin /actuator/metrics/jvm.threads.live");
+        } else {
+            System.out.printf(Locale.ROOT, "hilos de la aplicación: promedio %.0f, máximo %.0f, pico %.0f%n",
+                    threadsAvg, threadsMax, threadsPeak);
+        }
+
+        String summary = String.format(Locale.ROOT,
+                "{\"durationSeconds\":%d,\"concurrency\":%d,\"throughput\":%.2f,\"connectionErrors\":%d,"
+                        + "\"threads\":{\"liveAvg\":%.1f,\"liveMax\":%.0f,\"peak\":%.0f},\"operations\":{%s}}%n",
+                config.durationSeconds(), config.concurrency(), totalCount / seconds, errors.sum(),
+                threadsAvg, threadsMax, threadsPeak, String.join(",", json));
+
+        if (!config.baseline().isBlank())
+            compare(Files.readString(Path.of(config.baseline())), summary);
+
+        Path output = Path.of(config.output());
+        if (output.getParent() != null) Files.createDirectories(output.getParent());
+
+        Files.writeString(output, summary);
+
+        System.out.println("Resumen: " + output.toAbsolutePath());
+    }
+
+    // Baseline contra esta corrida: throughput total, latencias de POST /mutant e hilos de la aplicación
+    private static void compare(String baseline, String current) {
+
+        System.out.println();
+        System.out.printf(Locale.ROOT, "%-22s %12s %12s %9s%n", "comparación", "baseline", "actual", "cambio");
+
+        compareRow("throughput req/s", number(baseline, "throughput", 0), number(current, "throughput", 0));
+
+        int baselinePost = baseline.indexOf("\"" + Operation.POST_MUTANT + "\"");
+        int currentPost = current.indexOf("\"" + Operation.POST_MUTANT + "\"");
+
+        for (String key : List.of("p50Ms", "p99Ms", "p999Ms")) {
+            compareRow("POST /mutant " + key, number(baseline, key, baselinePost), number(current, key, currentPost));
+        }
+
+        compareRow("hilos promedio", number(baseline, "liveAvg", 0), number(current, "liveAvg", 0));
+        compareRow("hilos máximo", number(baseline, "liveMax", 0), number(current, "liveMax", 0));
+    }
+
+    private static void compareRow(String name, double baseline, double current) {
+
+        // -1: la corrida no tiene el dato (sin actuator, o un resumen anterior a la métrica)
+        if (Double.isNaN(baseline) || Double.isNaN(current) || baseline < 0 || current < 0) {
+            System.out.printf(Locale.ROOT, "%-22s %12s %12s %9s%n", name, "n/d", "n/d", "");
+            return;
+        }
+
+        System.out.printf(Locale.ROOT, "%-22s %12.2f %12.2f %+8.1f%%%n",
+                name, baseline, current, baseline == 0 ? 0 : (current - baseline) / baseline * 100);
+    }
+
+    // Primer valor numérico de "key" a partir de from (los resúmenes los escribe este mismo programa)
+    private static double number(String json, String key, int from) {
+
+        if (from < 0)
+            return Double.NaN;
+
+        Matcher matcher = Pattern.compile("\"" + key + "\"\\s*:\\s*([0-9.Ee+-]+)").matcher(json);
+
+        return matcher.find(from) ? Double.parseDouble(matcher.group(1)) : Double.NaN;
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static String statusJson(Map<Integer, Long> byStatus) {
+
+        List<String> entries = new ArrayList<>();
+        byStatus.forEach((status, count) -> entries.add("\"" + status + "\":" + count));
+
+        return "{" + String.join(",", entries) + "}";
+    }
+}
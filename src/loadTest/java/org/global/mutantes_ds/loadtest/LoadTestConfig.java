@@ -0,0 +1,56 @@
+package org.global.mutantes_ds.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Parámetros del load test, leídos de system properties "loadTest.*"
+// (./gradlew loadTest -PloadTest.duration=60 -PloadTest.sizes=6:90,1000:10 ...)
+record LoadTestConfig(
+        String baseUrl,
+        int durationSeconds,
+        int warmupSeconds,
+        int concurrency,
+        int postWeight,
+        int statsWeight,
+        int deleteWeight,
+        double repeatRatio,
+        double mutantRatio,
+        Map<Integer, Integer> sizeWeights,
+        String output,
+        String baseline
+) {
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                property("baseUrl", "http://localhost:8080"),
+                Integer.parseInt(property("duration", "30")),
+                Integer.parseInt(property("warmup", "5")),
+                Integer.parseInt(property("concurrency", "64")),
+                Integer.parseInt(property("post", "70")),
+                Integer.parseInt(property("stats", "25")),
+                Integer.parseInt(property("delete", "5")),
+                Double.parseDouble(property("repeatRatio", "0.3")),
+                Double.parseDouble(property("mutantRatio", "0.4")),
+                parseWeights(property("sizes", "6:80,64:15,256:4,1000:1")),
+                property("output", "build/results/loadTest/summary.json"),
+                property("baseline", "")
+        );
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty("loadTest." + name, defaultValue);
+    }
+
+    // "6:80,64:15" → {6=80, 64=15}
+    private static Map<Integer, Integer> parseWeights(String value) {
+
+        Map<Integer, Integer> weights = new LinkedHashMap<>();
+
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            weights.put(Integer.parseInt(parts[0]), parts.length > 1 ? Integer.parseInt(parts[1]) : 1);
+        }
+
+        return weights;
+    }
+}
@@ -5,7 +5,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.scheduling.annotation.EnableAsync;
 
-@EnableAsync // Habilita la ejecución asíncrona de métodos anotados con @Async
+@EnableAsync // Habilita @Async; con virtual threads activos el executor usa un virtual thread por tarea
 @EnableCaching // Habilita el uso de caché en toda la aplicación
 @SpringBootApplication
 public class MutantesDsApplication {
@@ -0,0 +1,99 @@
+package org.global.mutantes_ds.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Rate limiter GCRA (Generic Cell Rate Algorithm), equivalente a un token bucket de
+// capacidad "limit" que se recarga de a un token cada window / limit.
+// Por cliente se guarda un único long: el TAT (theoretical arrival time, en nanos), que se
+// actualiza con CAS sin locks. Un TAT en el pasado equivale a un bucket lleno, así que esas
+// entradas se pueden eliminar sin cambiar el comportamiento (ver evictIdle).
+// Backend "memory": el límite es por instancia.
+public final class GcraRateLimiter implements RateLimiterBackend {
+
+    private final long emissionIntervalNanos;
+    private final long windowNanos;
+    private final int maxClients;
+    private final LongSupplier clock;
+
+    private final Map<String, AtomicLong> states = new ConcurrentHashMap<>();
+
+    // Estado compartido por los clientes nuevos mientras la tabla está llena:
+    // ante muchas IPs distintas la memoria no crece y esas IPs comparten un único límite
+    private final AtomicLong overflow;
+
+    public GcraRateLimiter(int limit, long windowMillis, int maxClients) {
+        this(limit, windowMillis, maxClients, System::nanoTime);
+    }
+
+    GcraRateLimiter(int limit, long windowMillis, int maxClients, LongSupplier clock) {
+
+        if (limit <= 0 || windowMillis <= 0 || maxClients <= 0)
+            throw new IllegalArgumentException("limit, window y max-clients deben ser positivos");
+
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.emissionIntervalNanos = windowNanos / limit;
+        this.maxClients = maxClients;
+        this.clock = clock;
+        this.overflow = new AtomicLong(clock.getAsLong());
+    }
+
+    @Override
+    public long tryAcquire(String key) {
+
+        long now = clock.getAsLong();
+        AtomicLong state = stateOf(key, now);
+
+        while (true) {
+
+            long tat = state.get();
+            long newTat = Math.max(tat, now) + emissionIntervalNanos;
+
+            // El bucket no tiene tokens: la request excedería la ráfaga permitida
+            if (newTat - now > windowNanos)
+                return newTat - windowNanos - now;
+
+            if (state.compareAndSet(tat, newTat))
+                return 0;
+        }
+    }
+
+    private AtomicLong stateOf(String key, long now) {
+
+        AtomicLong state = states.get(key);
+
+        if (state != null)
+            return state;
+
+        if (states.size() >= maxClients)
+            return overflow;
+
+        return states.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    // Elimina los clientes con el bucket lleno (TAT vencido).
+    // Si una request concurrente actualiza el estado justo antes de eliminarlo, ese cliente
+    // recupera como máximo un token: no hace falta bloquear el camino de las requests.
+    @Override
+    public int evictIdle() {
+
+        long now = clock.getAsLong();
+        int evicted = 0;
+
+        for (var it = states.values().iterator(); it.hasNext(); ) {
+            if (it.next().get() - now <= 0) {
+                it.remove();
+                evicted++;
+            }
+        }
+
+        return evicted;
+    }
+
+    public int size() {
+        return states.size();
+    }
+}
@@ -0,0 +1,176 @@
+package org.global.mutantes_ds.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+// Backend "jdbc": el mismo GCRA que GcraRateLimiter, con el TAT de cada cliente en la tabla
+// rate_limit_buckets compartida por todas las réplicas.
+// Para no ir a la base en cada request, cada instancia reserva hasta lease-size tokens de una vez
+// (avanza el TAT compartido varios intervalos) y los consume localmente durante lease-ttl-ms.
+// Los tokens reservados que no se usan a tiempo se pierden: el límite global nunca se supera.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "rate-limiter.backend", havingValue = "jdbc")
+public class JdbcRateLimiterBackend implements RateLimiterBackend {
+
+    private static final String SELECT_TAT =
+            "SELECT tat FROM rate_limit_buckets WHERE client_key = ?";
+
+    // CAS sobre la fila: solo gana quien leyó el TAT vigente
+    private static final String UPDATE_TAT =
+            "UPDATE rate_limit_buckets SET tat = ? WHERE client_key = ? AND tat = ?";
+
+    private static final String INSERT_IF_ABSENT = """
+            MERGE INTO rate_limit_buckets t
+            USING (VALUES (CAST(? AS VARCHAR(64)), CAST(? AS BIGINT))) AS s(client_key, tat)
+            ON t.client_key = s.client_key
+            WHEN NOT MATCHED THEN
+                INSERT (client_key, tat) VALUES (s.client_key, s.tat)
+            """;
+
+    private static final String DELETE_IDLE =
+            "DELETE FROM rate_limit_buckets WHERE tat <= ?";
+
+    // Reintentos del CAS cuando otra réplica actualizó la misma fila
+    private static final int MAX_ATTEMPTS = 8;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long emissionIntervalMicros;
+    private final long windowMicros;
+    private final int leaseSize;
+    private final long leaseTtlMicros;
+    private final LongSupplier clockMicros;
+
+    // Tokens ya reservados en la tabla y todavía no usados por esta instancia
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+
+    public JdbcRateLimiterBackend(
+            JdbcTemplate jdbcTemplate,
+            @Value("${rate-limiter.limit:10}") int limit,
+            @Value("${rate-limiter.window-ms:60000}") long windowMillis,
+            @Value("${rate-limiter.jdbc.lease-size:5}") int leaseSize,
+            @Value("${rate-limiter.jdbc.lease-ttl-ms:1000}") long leaseTtlMillis
+    ) {
+        this(jdbcTemplate, limit, windowMillis, leaseSize, leaseTtlMillis,
+                () -> TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis()));
+    }
+
+    JdbcRateLimiterBackend(JdbcTemplate jdbcTemplate, int limit, long windowMillis,
+                           int leaseSize, long leaseTtlMillis, LongSupplier clockMicros) {
+
+        if (limit <= 0 || windowMillis <= 0 || leaseSize <= 0)
+            throw new IllegalArgumentException("limit, window y lease-size deben ser positivos");
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.windowMicros = TimeUnit.MILLISECONDS.toMicros(windowMillis);
+        this.emissionIntervalMicros = windowMicros / limit;
+        this.leaseSize = leaseSize;
+        this.leaseTtlMicros = TimeUnit.MILLISECONDS.toMicros(leaseTtlMillis);
+        this.clockMicros = clockMicros;
+    }
+
+    @Override
+    public long tryAcquire(String key) {
+
+        long now = clockMicros.getAsLong();
+        Lease lease = leases.get(key);
+
+        if (lease != null && lease.tryTake(now))
+            return 0;
+
+        long reserved = reserve(key, now);
+
+        // Sin tokens: reserved es la espera (negativa) hasta el próximo token
+        if (reserved <= 0)
+            return TimeUnit.MICROSECONDS.toNanos(-reserved);
+
+        // Uno se usa ahora; el resto queda para las próximas requests de este cliente
+        if (reserved > 1) {
+            leases.put(key, new Lease((int) reserved - 1, now + leaseTtlMicros));
+        } else {
+            leases.remove(key);
+        }
+
+        return 0;
+    }
+
+    // Reserva hasta lease-size tokens en la tabla.
+    // Retorna la cantidad reservada o, si no hay ninguno, menos los micros de espera.
+    private long reserve(String key, long now) {
+
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+
+            List<Long> rows = jdbcTemplate.queryForList(SELECT_TAT, Long.class, key);
+            Long tat = rows.isEmpty() ? null : rows.get(0);
+
+            long base = tat == null ? now : Math.max(tat, now);
+            long available = (windowMicros - (base - now)) / emissionIntervalMicros;
+
+            if (available <= 0)
+                return -Math.max(1, base + emissionIntervalMicros - windowMicros - now);
+
+            long granted = Math.min(leaseSize, available);
+            long newTat = base + granted * emissionIntervalMicros;
+
+            int updated = tat == null
+                    ? jdbcTemplate.update(INSERT_IF_ABSENT, key, newTat)
+                    : jdbcTemplate.update(UPDATE_TAT, newTat, key, tat);
+
+            if (updated == 1)
+                return granted;
+        }
+
+        // Contención sostenida sobre la misma fila: se rechaza por un intervalo
+        log.warn("Rate limiter: no se pudo actualizar el estado de {} tras {} intentos", key, MAX_ATTEMPTS);
+        return -emissionIntervalMicros;
+    }
+
+    // Elimina las reservas locales vencidas y las filas con el bucket lleno (TAT vencido)
+    @Override
+    public int evictIdle() {
+
+        long now = clockMicros.getAsLong();
+
+        leases.values().removeIf(lease -> lease.expiresAt - now <= 0);
+
+        return jdbcTemplate.update(DELETE_IDLE, now);
+    }
+
+    private static final class Lease {
+
+        private final AtomicInteger remaining;
+        private final long expiresAt;
+
+        private Lease(int tokens, long expiresAt) {
+            this.remaining = new AtomicInteger(tokens);
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean tryTake(long now) {
+
+            if (expiresAt - now <= 0)
+                return false;
+
+            while (true) {
+
+                int tokens = remaining.get();
+
+                if (tokens <= 0)
+                    return false;
+
+                if (remaining.compareAndSet(tokens, tokens - 1))
+                    return true;
+            }
+        }
+    }
+}
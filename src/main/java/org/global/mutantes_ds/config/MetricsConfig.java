@@ -0,0 +1,52 @@
+package org.global.mutantes_ds.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.global.mutantes_ds.service.DnaRecordWriteBehind;
+import org.global.mutantes_ds.service.VerdictCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Métricas de componentes con contadores propios, leídas por Micrometer al exportar
+// (sin costo extra en el camino de las requests)
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder verdictCacheMetrics(VerdictCache verdictCache) {
+        return registry -> {
+
+            FunctionCounter.builder("mutant.verdict.cache.hits", verdictCache, VerdictCache::hits)
+                    .description("ADN respondidos desde la cache de veredictos")
+                    .register(registry);
+
+            FunctionCounter.builder("mutant.verdict.cache.misses", verdictCache, VerdictCache::misses)
+                    .description("ADN que no estaban en la cache de veredictos")
+                    .register(registry);
+
+            FunctionCounter.builder("mutant.verdict.cache.evictions", verdictCache, VerdictCache::evictions)
+                    .register(registry);
+
+            Gauge.builder("mutant.verdict.cache.size", verdictCache, VerdictCache::size)
+                    .register(registry);
+
+            Gauge.builder("mutant.verdict.cache.hit.ratio", verdictCache, MetricsConfig::hitRatio)
+                    .description("Proporción acumulada de aciertos de la cache de veredictos")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder writeBehindMetrics(DnaRecordWriteBehind writeBehind) {
+        return registry -> Gauge.builder("mutant.write.behind.queue.size", writeBehind, DnaRecordWriteBehind::queueSize)
+                .description("DnaRecord encolados pendientes de persistir")
+                .register(registry);
+    }
+
+    private static double hitRatio(VerdictCache cache) {
+        long hits = cache.hits();
+        long total = hits + cache.misses();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
@@ -1,33 +1,90 @@
 package org.global.mutantes_ds.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpFilter;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.time.Instant;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+@Slf4j
 @Component
 public class RateLimitFilter extends HttpFilter {
 
-    // Máximo de requests por minuto
-    private static final int LIMIT = 10;
-    private static final long WINDOW_MILLIS = 60_000;
+    // Permite desactivar el rate limiter en tests:
+    private final boolean rateLimiterEnabled;
+
+    // Máximo de requests por ventana y por IP
+    private final int limit;
+    private final long windowMillis;
+    private final long evictionIntervalMillis;
+
+    // Backend configurado (rate-limiter.backend); por defecto GCRA en memoria,
+    // un long por IP actualizado con CAS
+    private final RateLimiterBackend limiter;
+
+    // Requests rechazadas con 429 (null si no hay MeterRegistry, por ejemplo en tests de controller)
+    private final Counter rejections;
+
+    private ScheduledExecutorService evictor;
+
+    public RateLimitFilter(
+            ObjectProvider<RateLimiterBackend> backend,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${rate-limiter.enabled:true}") boolean rateLimiterEnabled,
+            @Value("${rate-limiter.limit:10}") int limit,
+            @Value("${rate-limiter.window-ms:60000}") long windowMillis,
+            @Value("${rate-limiter.max-clients:100000}") int maxClients,
+            @Value("${rate-limiter.eviction-interval-ms:60000}") long evictionIntervalMillis
+    ) {
+        this.rateLimiterEnabled = rateLimiterEnabled;
+        this.limit = limit;
+        this.windowMillis = windowMillis;
+        this.evictionIntervalMillis = evictionIntervalMillis;
+        this.limiter = backend.getIfAvailable(() -> new GcraRateLimiter(limit, windowMillis, maxClients));
+
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        this.rejections = registry == null ? null : Counter.builder("rate.limiter.rejections")
+                .description("Requests rechazadas por el rate limiter")
+                .register(registry);
+    }
 
-    // Almacena timestamps por IP
-    private final Map<String, List<Long>> requestTimes = new ConcurrentHashMap<>();
+    // Limpieza periódica de IPs inactivas (bucket lleno) en un hilo propio
+    @PostConstruct
+    void startEviction() {
 
-    // Permite desactivar el rate limiter en tests:
-    @Value("${rate-limiter.enabled:true}")
-    private boolean rateLimiterEnabled;
+        if (!rateLimiterEnabled)
+            return;
+
+        log.info("Rate limiter: {} requests cada {} ms por IP (backend {})",
+                limit, windowMillis, limiter.getClass().getSimpleName());
+
+        evictor = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("rate-limit-evictor").daemon().factory());
+
+        evictor.scheduleWithFixedDelay(() -> {
+            int evicted = limiter.evictIdle();
+            log.debug("Rate limiter: {} IPs inactivas eliminadas", evicted);
+        }, evictionIntervalMillis, evictionIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stopEviction() {
+        if (evictor != null)
+            evictor.shutdownNow();
+    }
 
     @Override
     protected void doFilter(
@@ -44,34 +101,29 @@ public class RateLimitFilter extends HttpFilter {
 
         String path = request.getRequestURI();
 
-        // Excluir rutas internas de desarrollo (no se rate-limitan)
+        // Excluir rutas internas de desarrollo y monitoreo (no se rate-limitan)
         if (path.startsWith("/h2-console") ||
                 path.startsWith("/swagger-ui") ||
-                path.startsWith("/v3/api-docs")) {
+                path.startsWith("/v3/api-docs") ||
+                path.startsWith("/actuator")) {
 
             chain.doFilter(request, response);
             return;
         }
 
-        String ip = request.getRemoteAddr();
-        long now = Instant.now().toEpochMilli();
+        long waitNanos = limiter.tryAcquire(request.getRemoteAddr());
 
-        requestTimes.putIfAbsent(ip, new ArrayList<>());
-        List<Long> timestamps = requestTimes.get(ip);
-
-        // Limpiar timestamps fuera de la ventana
-        timestamps.removeIf(t -> t < now - WINDOW_MILLIS);
-
-        // Si se excede el límite → 429
-        if (timestamps.size() >= LIMIT) {
+        // Si se excede el límite → 429 indicando cuándo reintentar
+        if (waitNanos > 0) {
+            if (rejections != null) rejections.increment();
             response.setStatus(429);
-            response.getWriter().write("Rate limit exceeded. Max 10 requests per minute.");
+            response.setHeader("Retry-After", String.valueOf(
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999))));
+            response.getWriter().write("Rate limit exceeded. Max " + limit
+                    + " requests per " + TimeUnit.MILLISECONDS.toSeconds(windowMillis) + " seconds.");
             return;
         }
 
-        // Registrar esta request
-        timestamps.add(now);
-
         chain.doFilter(request, response);
     }
 }
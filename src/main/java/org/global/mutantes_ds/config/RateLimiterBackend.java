@@ -0,0 +1,13 @@
+package org.global.mutantes_ds.config;
+
+// Almacenamiento del estado del rate limiter usado por RateLimitFilter.
+// "memory" (GcraRateLimiter) limita por instancia; "jdbc" (JdbcRateLimiterBackend) comparte
+// el límite entre todas las réplicas que usan la misma base.
+public interface RateLimiterBackend {
+
+    // 0 si la request está permitida; si no, nanos hasta que el cliente vuelva a tener un token
+    long tryAcquire(String key);
+
+    // Elimina el estado de los clientes inactivos. Retorna cuántos se eliminaron
+    int evictIdle();
+}
@@ -0,0 +1,220 @@
+package org.global.mutantes_ds.config;
+
+import io.airlift.compress.zstd.ZstdInputStream;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.global.mutantes_ds.exception.PayloadTooLargeException;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+// Descomprime bodies con Content-Encoding gzip o zstd a medida que se leen, sin bufferearlos.
+// Corre antes de RequestSizeLimitFilter: la request resultante no tiene Content-Length ni Content-Encoding,
+// así que el presupuesto del endpoint (derivado del N máximo) se aplica a los bytes descomprimidos
+// y una bomba de descompresión se corta en el primer byte que sobra.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class RequestDecompressionFilter extends HttpFilter {
+
+    private static final int BUFFER_BYTES = 8192;
+
+    private final RequestSizeLimitFilter sizeLimit;
+
+    public RequestDecompressionFilter(RequestSizeLimitFilter sizeLimit) {
+        this.sizeLimit = sizeLimit;
+    }
+
+    enum Codec {
+
+        GZIP {
+            @Override
+            InputStream open(InputStream in) throws IOException {
+                return new GZIPInputStream(in, BUFFER_BYTES);
+            }
+        },
+
+        ZSTD {
+            @Override
+            InputStream open(InputStream in) throws IOException {
+                return new ZstdInputStream(in);
+            }
+        };
+
+        abstract InputStream open(InputStream in) throws IOException;
+
+        // null si la codificación no está soportada (incluye listas como "gzip, zstd")
+        static Codec of(String encoding) {
+            return switch (encoding.trim().toLowerCase(Locale.ROOT)) {
+                case "gzip", "x-gzip" -> GZIP;
+                case "zstd" -> ZSTD;
+                default -> null;
+            };
+        }
+    }
+
+    @Override
+    protected void doFilter(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain chain
+    ) throws IOException, ServletException {
+
+        String encoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+
+        if (encoding == null || encoding.isBlank() || "identity".equalsIgnoreCase(encoding.trim())) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        // Solo los endpoints con presupuesto de body aceptan bodies comprimidos
+        long budget = sizeLimit.budgetFor(request);
+        Codec codec = Codec.of(encoding);
+
+        // 415 con Accept-Encoding indicando qué se acepta (RFC 7694)
+        if (codec == null || budget < 0) {
+            response.setHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, zstd");
+            RequestSizeLimitFilter.writeError(response, 415, "UNSUPPORTED_MEDIA_TYPE", codec == null
+                    ? "Content-Encoding no soportado: solo gzip o zstd"
+                    : "Este endpoint no recibe bodies comprimidos");
+            return;
+        }
+
+        // El body comprimido tampoco puede superar el presupuesto (ni por Content-Length ni leyéndolo)
+        if (request.getContentLengthLong() > budget) {
+            RequestSizeLimitFilter.reject(response, new PayloadTooLargeException(budget));
+            return;
+        }
+
+        chain.doFilter(new DecompressedRequest(request, codec, budget), response);
+    }
+
+    // Request con el body descomprimido; sin Content-Encoding y con largo desconocido
+    static final class DecompressedRequest extends HttpServletRequestWrapper {
+
+        private final Codec codec;
+        private final long compressedLimit;
+        private DecompressedInputStream stream;
+
+        DecompressedRequest(HttpServletRequest request, Codec codec, long compressedLimit) {
+            super(request);
+            this.codec = codec;
+            this.compressedLimit = compressedLimit;
+        }
+
+        // El decoder se crea recién cuando alguien lee el body
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (stream == null) {
+                ServletInputStream compressed = super.getInputStream();
+                InputStream limited = new RequestSizeLimitFilter.LimitedInputStream(compressed, compressedLimit);
+                stream = new DecompressedInputStream(codec.open(limited), compressed);
+            }
+            return stream;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return hidden(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return hidden(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            return Collections.enumeration(Collections.list(super.getHeaderNames()).stream()
+                    .filter(name -> !hidden(name))
+                    .toList());
+        }
+
+        private static boolean hidden(String name) {
+            return HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name)
+                    || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+        }
+    }
+
+    static final class DecompressedInputStream extends ServletInputStream {
+
+        private final InputStream in;
+        private final ServletInputStream compressed;
+        private boolean finished;
+
+        DecompressedInputStream(InputStream in, ServletInputStream compressed) {
+            this.in = in;
+            this.compressed = compressed;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b < 0)
+                finished = true;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = in.read(buffer, offset, length);
+            if (n < 0)
+                finished = true;
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return compressed.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+            compressed.setReadListener(listener);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package org.global.mutantes_ds.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.global.mutantes_ds.dto.DnaPayloadBinaryConverter;
+import org.global.mutantes_ds.exception.PayloadTooLargeException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+// Corta los bodies demasiado grandes antes de que Jackson los lea:
+// por Content-Length sin leer nada, y si no viene (chunked) o miente, al pasar el presupuesto mientras se lee.
+// Se responde 413 en ambos casos.
+// Con Content-Encoding, RequestDecompressionFilter corre antes y el presupuesto se aplica a los bytes descomprimidos.
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RequestSizeLimitFilter extends HttpFilter {
+
+    // Por fila: comillas, coma y algo de indentación de un JSON formateado
+    static final int ROW_OVERHEAD_BYTES = 16;
+
+    // {"dna": [...]} y campos extra que el parser ignora
+    static final int ENVELOPE_BYTES = 4096;
+
+    // Presupuesto en bytes por path (los demás endpoints no tienen body)
+    private final Map<String, Long> budgets;
+
+    // /mutant en application/x-dna-2bit: 2 bits por base, ~4 veces menos que el JSON
+    private final long mutantBinaryBytes;
+
+    public RequestSizeLimitFilter(
+            @Value("${mutant.dna.max-size:1000}") int maxDnaSize,
+            @Value("${mutant.request-limit.mutant:0}") DataSize mutantLimit,
+            @Value("${mutant.request-limit.batch:32MB}") DataSize batchLimit
+    ) {
+        // 0 = derivado del N máximo
+        long mutantBytes = mutantLimit.toBytes() > 0 ? mutantLimit.toBytes() : dnaJsonBytes(maxDnaSize);
+
+        this.budgets = Map.of(
+                "/mutant", mutantBytes,
+                "/mutant/batch", batchLimit.toBytes()
+        );
+
+        // Un body binario más grande que el del N máximo nunca es válido
+        this.mutantBinaryBytes = Math.min(mutantBytes, dnaBinaryBytes(maxDnaSize));
+
+        log.info("Límite de body: /mutant {} bytes ({} en binario), /mutant/batch {} bytes",
+                mutantBytes, mutantBinaryBytes, batchLimit.toBytes());
+    }
+
+    // Presupuesto del endpoint, o -1 si no tiene (sin body).
+    // El path se resuelve como lo ve Spring MVC: sin context path, decodificado y sin parámetros ";..."
+    // (POST /mutant;x=1 llega a checkMutant y tiene que tener el mismo presupuesto)
+    long budgetFor(HttpServletRequest request) {
+
+        String path = UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+
+        if ("/mutant".equals(path) && isDna2bit(request.getContentType()))
+            return mutantBinaryBytes;
+
+        return budgetFor(path);
+    }
+
+    long budgetFor(String path) {
+        return budgets.getOrDefault(path, -1L);
+    }
+
+    // Bytes de un {"dna": [...]} con N filas de N bases
+    static long dnaJsonBytes(int maxDnaSize) {
+        return (long) maxDnaSize * (maxDnaSize + ROW_OVERHEAD_BYTES) + ENVELOPE_BYTES;
+    }
+
+    // Bytes de un application/x-dna-2bit: N en varint y N filas de ceil(N / 4) bytes
+    static long dnaBinaryBytes(int maxDnaSize) {
+        return (long) (maxDnaSize + 3) / 4 * maxDnaSize + DnaPayloadBinaryConverter.MAX_VARINT_BYTES;
+    }
+
+    // Un Content-Type inválido lo rechaza Spring MVC con 415; mientras tanto rige el presupuesto del JSON
+    private static boolean isDna2bit(String contentType) {
+
+        if (contentType == null)
+            return false;
+
+        try {
+            return DnaPayloadBinaryConverter.DNA_2BIT.equalsTypeAndSubtype(MediaType.parseMediaType(contentType));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    @Override
+    protected void doFilter(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain chain
+    ) throws IOException, ServletException {
+
+        long budget = budgetFor(request);
+
+        if (budget < 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        // Content-Length declarado mayor al presupuesto → 413 sin leer el body
+        if (request.getContentLengthLong() > budget) {
+            reject(response, new PayloadTooLargeException(budget));
+            return;
+        }
+
+        chain.doFilter(new LimitedRequest(request, budget), response);
+    }
+
+    // Connection: close para que el contenedor no siga leyendo el resto del body
+    static void reject(HttpServletResponse response, PayloadTooLargeException ex) throws IOException {
+        response.setHeader(HttpHeaders.CONNECTION, "close");
+        writeError(response, 413, "PAYLOAD_TOO_LARGE", ex.getMessage());
+    }
+
+    // Mismo formato que ErrorResponse: los filtros responden antes de llegar a Spring MVC
+    static void writeError(HttpServletResponse response, int status, String error, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("{\"error\":\"" + error + "\",\"message\":\"" + message + "\"}");
+    }
+
+    // Request cuyo body deja de leerse al pasar el presupuesto
+    static final class LimitedRequest extends HttpServletRequestWrapper {
+
+        private final long limit;
+        private LimitedInputStream stream;
+
+        LimitedRequest(HttpServletRequest request, long limit) {
+            super(request);
+            this.limit = limit;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (stream == null)
+                stream = new LimitedInputStream(super.getInputStream(), limit);
+            return stream;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+
+    // Cuenta los bytes leídos y lanza PayloadTooLargeException en el primero que sobra
+    static final class LimitedInputStream extends ServletInputStream {
+
+        private final ServletInputStream in;
+        private final long limit;
+        private long read;
+
+        LimitedInputStream(ServletInputStream in, long limit) {
+            this.in = in;
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b >= 0)
+                count(1);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            // Nunca se pide más de un byte por encima del presupuesto
+            int n = in.read(buffer, offset, (int) Math.min(length, limit - read + 1));
+            if (n > 0)
+                count(n);
+            return n;
+        }
+
+        private void count(int n) throws PayloadTooLargeException {
+            read += n;
+            if (read > limit)
+                throw new PayloadTooLargeException(limit);
+        }
+
+        @Override
+        public boolean isFinished() {
+            return in.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return in.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+            in.setReadListener(listener);
+        }
+    }
+}
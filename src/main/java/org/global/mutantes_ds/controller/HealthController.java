@@ -1,5 +1,7 @@
 package org.global.mutantes_ds.controller;
 
+import lombok.RequiredArgsConstructor;
+import org.global.mutantes_ds.service.VerdictCache;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -8,15 +10,23 @@ import java.time.LocalDateTime;
 import java.util.Map;
 
 @RestController
+@RequiredArgsConstructor
 public class HealthController {
 
+    private final VerdictCache verdictCache;
+
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> health() {
 
-        // Respuesta simple con estado UP y timestamp actual
+        // Respuesta simple con estado UP, timestamp actual y contadores de la cache de veredictos
         Map<String, Object> body = Map.of(
                 "status", "UP",
-                "timestamp", LocalDateTime.now().toString()
+                "timestamp", LocalDateTime.now().toString(),
+                "verdictCache", Map.of(
+                        "hits", verdictCache.hits(),
+                        "misses", verdictCache.misses(),
+                        "size", verdictCache.size()
+                )
         );
 
         return ResponseEntity.ok(body);
@@ -1,14 +1,19 @@
 package org.global.mutantes_ds.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.global.mutantes_ds.dto.DnaPayload;
+import org.global.mutantes_ds.dto.DnaPayloadBinaryConverter;
 import org.global.mutantes_ds.dto.DnaRequest;
+import org.global.mutantes_ds.dto.DnaVerdictResponse;
 import org.global.mutantes_ds.dto.StatsResponse;
+import org.global.mutantes_ds.service.DnaHash;
+import org.global.mutantes_ds.service.MutantBatchService;
 import org.global.mutantes_ds.service.MutantService;
 import org.global.mutantes_ds.service.StatsService;
 import org.springframework.http.HttpStatus;
@@ -16,7 +21,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
-import java.util.concurrent.CompletableFuture;
+import java.util.List;
 
 @RestController
 @RequestMapping
@@ -25,6 +30,7 @@ import java.util.concurrent.CompletableFuture;
 public class MutantController {
 
     private final MutantService mutantService;
+    private final MutantBatchService mutantBatchService;
     private final StatsService statsService;
 
     // -------------------------------------------------------------
@@ -33,31 +39,30 @@ public class MutantController {
     @PostMapping("/mutant")
     @Operation(
             summary = "Determina si un ADN pertenece a un mutante",
-            description = "Recibe un array NxN de bases nitrogenadas y aplica el algoritmo MutantDetector.",
+            description = "Recibe un array NxN de bases nitrogenadas y aplica el algoritmo MutantDetector. "
+                    + "También acepta application/x-dna-2bit: N como varint y N filas de bases a 2 bits.",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Es mutante"),
                     @ApiResponse(responseCode = "403", description = "No es mutante"),
                     @ApiResponse(responseCode = "400", description = "Request inválido",
+                            content = @Content(schema = @Schema(hidden = true))),
+                    @ApiResponse(responseCode = "413", description = "Body mayor al permitido por el N máximo",
                             content = @Content(schema = @Schema(hidden = true)))
             }
     )
-    public ResponseEntity<Void> checkMutant(@Valid @RequestBody DnaRequest request) {
-
-        String[] dna = request.getDna();
-
-        // Validación básica del array recibido
-        if (dna == null || dna.length == 0) {
-            return ResponseEntity.badRequest().build();
-        }
-
-        // Validación de tamaño máximo permitido (1000x1000)
-        // Evita procesar matrices excesivamente grandes
-        if (dna.length > 1000 || dna[0].length() > 1000) {
-            return ResponseEntity.badRequest().build();
-        }
+    public ResponseEntity<Void> checkMutant(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    content = {
+                            @Content(schema = @Schema(implementation = DnaRequest.class)),
+                            @Content(mediaType = DnaPayloadBinaryConverter.DNA_2BIT_VALUE,
+                                    schema = @Schema(type = "string", format = "binary"))
+                    })
+            @RequestBody DnaPayload request
+    ) {
 
-        CompletableFuture<Boolean> future = mutantService.analyzeDna(dna);
-        boolean isMutant = future.join(); // obtiene el resultado del procesamiento asíncrono
+        // Forma NxN, bases válidas y tamaño máximo (mutant.dna.max-size) ya se validaron
+        // mientras se leía el body (DnaPayloadDeserializer o DnaPayloadBinaryConverter)
+        boolean isMutant = mutantService.analyzeDna(request);
 
         // 200 → mutante
         // 403 → humano
@@ -66,6 +71,35 @@ public class MutantController {
                 : ResponseEntity.status(HttpStatus.FORBIDDEN).build();
     }
 
+    // -------------------------------------------------------------
+    // POST /mutant/batch → veredicto de cada ADN del lote
+    // -------------------------------------------------------------
+    @PostMapping("/mutant/batch")
+    @Operation(
+            summary = "Clasifica un lote de ADN en una sola request",
+            description = "Recibe un array de objetos {\"dna\": [...]} y devuelve, en el mismo orden, "
+                    + "el hash y el veredicto de cada uno. Hashes repetidos dentro del lote se analizan una sola vez.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Veredictos del lote",
+                            content = @Content(array = @ArraySchema(
+                                    schema = @Schema(implementation = DnaVerdictResponse.class)))),
+                    @ApiResponse(responseCode = "400", description = "Lote vacío, demasiado grande o con algún ADN inválido",
+                            content = @Content(schema = @Schema(hidden = true))),
+                    @ApiResponse(responseCode = "413", description = "Body mayor a mutant.request-limit.batch",
+                            content = @Content(schema = @Schema(hidden = true)))
+            }
+    )
+    public ResponseEntity<List<DnaVerdictResponse>> checkMutants(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = DnaRequest.class))))
+            @RequestBody List<DnaPayload> requests
+    ) {
+
+        // Cada elemento ya fue validado y hasheado por DnaPayloadDeserializer:
+        // un solo ADN inválido rechaza el lote completo con 400
+        return ResponseEntity.ok(mutantBatchService.analyzeBatch(requests));
+    }
+
     // -------------------------------------------------------------
     // GET /stats → retorna estadísticas
     // -------------------------------------------------------------
@@ -110,7 +144,8 @@ public class MutantController {
     public ResponseEntity<Void> deleteMutant(@PathVariable String hash) {
 
         try {
-            mutantService.deleteByHash(hash);
+            // El hex de 64 caracteres solo existe en la URL: un hash mal formado tampoco existe
+            mutantService.deleteByHash(DnaHash.fromHex(hash));
             return ResponseEntity.noContent().build(); // 204
         } catch (IllegalArgumentException ex) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build(); // 404
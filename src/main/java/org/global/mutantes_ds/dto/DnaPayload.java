@@ -0,0 +1,21 @@
+package org.global.mutantes_ds.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.global.mutantes_ds.service.BitPackedDnaMatrix;
+import org.global.mutantes_ds.service.DnaHash;
+
+// ADN de un POST /mutant ya parseado, validado y hasheado en una sola pasada
+// por DnaPayloadDeserializer. El service nunca ve el String[] del JSON.
+@Getter
+@AllArgsConstructor
+@JsonDeserialize(using = DnaPayloadDeserializer.class)
+public class DnaPayload {
+
+    // Matriz NxN empaquetada a 2 bits por base
+    private final BitPackedDnaMatrix matrix;
+
+    // Huella canónica de N y las filas (mismo valor que MutantService.calculateDnaHash)
+    private final DnaHash dnaHash;
+}
@@ -0,0 +1,157 @@
+package org.global.mutantes_ds.dto;
+
+import org.global.mutantes_ds.exception.InvalidDnaException;
+import org.global.mutantes_ds.service.BitPackedDnaMatrix;
+import org.global.mutantes_ds.service.DnaHasher;
+import org.global.mutantes_ds.service.HashAlgorithm;
+import org.global.mutantes_ds.validation.DnaViolation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+// POST /mutant con Content-Type application/x-dna-2bit: N como varint (LEB128 sin signo) y luego
+// N filas de ceil(N / 4) bytes, 4 bases por byte con la primera en los bits bajos (A=0, C=1, G=2, T=3).
+// Cada fila se copia a la matriz empaquetada sin decodificar base por base, y el hash se calcula
+// sobre las filas en ASCII: mismo DnaHash que el mismo ADN enviado como JSON.
+@Component
+public class DnaPayloadBinaryConverter extends AbstractHttpMessageConverter<DnaPayload> {
+
+    public static final String DNA_2BIT_VALUE = "application/x-dna-2bit";
+    public static final MediaType DNA_2BIT = MediaType.parseMediaType(DNA_2BIT_VALUE);
+
+    // Un int en LEB128 ocupa como máximo 5 bytes
+    public static final int MAX_VARINT_BYTES = 5;
+
+    private final DnaHasher hasher;
+
+    // N máximo permitido (NxN), el mismo que aplica el parser del JSON
+    private final int maxSize;
+
+    // Sin DnaHasher en el contexto (por ejemplo, tests de controller) se usa SHA-256
+    @Autowired
+    public DnaPayloadBinaryConverter(
+            ObjectProvider<DnaHasher> hasher,
+            @Value("${mutant.dna.max-size:1000}") int maxSize
+    ) {
+        this(hasher.getIfAvailable(() -> new DnaHasher(HashAlgorithm.SHA256)), maxSize);
+    }
+
+    DnaPayloadBinaryConverter(DnaHasher hasher, int maxSize) {
+        super(DNA_2BIT);
+        this.hasher = hasher;
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return DnaPayload.class == clazz;
+    }
+
+    // Solo lectura: las respuestas siguen siendo JSON
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected DnaPayload readInternal(Class<? extends DnaPayload> clazz, HttpInputMessage inputMessage)
+            throws IOException {
+
+        InputStream in = inputMessage.getBody();
+
+        int n = readSize(in, inputMessage);
+        int rowBytes = (n + 3) / 4;
+        int padding = rowBytes * 4 - n;
+
+        BitPackedDnaMatrix matrix = BitPackedDnaMatrix.ofSize(n);
+        byte[] packed = new byte[rowBytes];
+        byte[] ascii = new byte[n];
+
+        // Huella canónica: N primero, luego las filas a medida que llegan
+        DnaHasher.Session hash = hasher.newSession(n);
+
+        for (int row = 0; row < n; row++) {
+
+            // Body cortado: la fila que falta rompe la forma NxN
+            if (in.readNBytes(packed, 0, rowBytes) != rowBytes)
+                throw invalid(DnaViolation.Kind.NOT_SQUARE, row, -1, null, inputMessage);
+
+            // Bits de relleno distintos de cero: bases de más al final de la fila
+            if (padding > 0) {
+
+                int extra = (packed[rowBytes - 1] & 0xFF) >>> ((4 - padding) << 1);
+
+                if (extra != 0)
+                    throw invalid(DnaViolation.Kind.INVALID_BASE, row, n + Integer.numberOfTrailingZeros(extra) / 2,
+                            "Bits de relleno distintos de cero en la fila " + row, inputMessage);
+            }
+
+            matrix.setPackedRow(row, packed, 0);
+            matrix.copyRow(row, ascii);
+            hash.update(ascii, 0, n);
+        }
+
+        // Bytes de más después de la última fila
+        if (in.read() != -1)
+            throw invalid(DnaViolation.Kind.NOT_SQUARE, n, -1, null, inputMessage);
+
+        return new DnaPayload(matrix, hash.finish());
+    }
+
+    // N en varint; un N mayor al máximo se rechaza antes de leer las filas
+    private int readSize(InputStream in, HttpInputMessage inputMessage) throws IOException {
+
+        long n = 0;
+
+        for (int i = 0; i < MAX_VARINT_BYTES; i++) {
+
+            int b = in.read();
+
+            if (b < 0)
+                throw invalid(DnaViolation.Kind.EMPTY, -1, -1, null, inputMessage);
+
+            n |= (long) (b & 0x7F) << (7 * i);
+
+            if (n > maxSize)
+                throw invalid(DnaViolation.Kind.TOO_LARGE, -1, -1,
+                        "El tamaño del ADN debe estar entre 1 y " + maxSize, inputMessage);
+
+            if ((b & 0x80) == 0) {
+
+                if (n == 0)
+                    throw invalid(DnaViolation.Kind.EMPTY, -1, -1, null, inputMessage);
+
+                return (int) n;
+            }
+        }
+
+        throw invalid(DnaViolation.Kind.TOO_LARGE, -1, -1,
+                "El tamaño del ADN debe estar entre 1 y " + maxSize, inputMessage);
+    }
+
+    // Misma causa que el parser del JSON: GlobalExceptionHandler responde 400 con el código y la posición
+    private static HttpMessageNotReadableException invalid(DnaViolation.Kind kind, int row, int column,
+                                                           String message, HttpInputMessage inputMessage) {
+
+        DnaViolation violation = new DnaViolation(kind, row, column);
+        String text = message != null ? message : violation.message();
+
+        return new HttpMessageNotReadableException(text, new InvalidDnaException(violation, text), inputMessage);
+    }
+
+    // canWrite es false: Spring MVC nunca llega acá
+    @Override
+    protected void writeInternal(DnaPayload payload, HttpOutputMessage outputMessage) {
+        throw new HttpMessageNotWritableException("application/x-dna-2bit es solo de lectura");
+    }
+}
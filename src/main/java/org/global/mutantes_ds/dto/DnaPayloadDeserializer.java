@@ -0,0 +1,155 @@
+package org.global.mutantes_ds.dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import org.global.mutantes_ds.exception.InvalidDnaException;
+import org.global.mutantes_ds.service.BitPackedDnaMatrix;
+import org.global.mutantes_ds.service.DnaHasher;
+import org.global.mutantes_ds.service.HashAlgorithm;
+import org.global.mutantes_ds.validation.DnaValidation;
+import org.global.mutantes_ds.validation.DnaViolation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.io.IOException;
+
+// Lee {"dna": [...]} token por token. En una sola pasada por fila:
+// valida bases y forma NxN, actualiza el hash y completa la matriz empaquetada.
+// Las filas se leen del buffer del parser (getTextCharacters) sin crear un String por fila.
+// El primer error corta el parseo con un InvalidDnaException (tipo, fila y columna): un ADN
+// más grande que mutant.dna.max-size se rechaza en la primera fila, sin leer el resto del body.
+public class DnaPayloadDeserializer extends StdDeserializer<DnaPayload> {
+
+    private static final String DNA_FIELD = "dna";
+
+    // Sin contexto de Spring (por ejemplo, un ObjectMapper creado a mano) se usa SHA-256
+    private static final DnaHasher DEFAULT_HASHER = new DnaHasher(HashAlgorithm.SHA256);
+
+    private DnaHasher hasher = DEFAULT_HASHER;
+
+    // N máximo permitido (NxN)
+    private int maxSize = DnaValidation.DEFAULT_MAX_SIZE;
+
+    public DnaPayloadDeserializer() {
+        super(DnaPayload.class);
+    }
+
+    // Jackson crea el deserializer a través de Spring (SpringHandlerInstantiator):
+    // así usa el mismo algoritmo configurado que MutantService
+    @Autowired(required = false)
+    public void setHasher(DnaHasher hasher) {
+        this.hasher = hasher;
+    }
+
+    @Value("${mutant.dna.max-size:1000}")
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public DnaPayload deserialize(JsonParser parser, DeserializationContext ctxt) throws IOException {
+
+        if (parser.currentToken() != JsonToken.START_OBJECT)
+            return ctxt.reportInputMismatch(this, "Se esperaba un objeto con el campo 'dna'");
+
+        DnaPayload payload = null;
+
+        for (String field = parser.nextFieldName(); field != null; field = parser.nextFieldName()) {
+
+            parser.nextToken();
+
+            if (DNA_FIELD.equals(field)) {
+                payload = readDna(parser, ctxt);
+            } else {
+                // Campos desconocidos se ignoran
+                parser.skipChildren();
+            }
+        }
+
+        if (payload == null)
+            throw violation(parser, DnaViolation.Kind.EMPTY, -1, -1, "El campo 'dna' es obligatorio");
+
+        return payload;
+    }
+
+    private DnaPayload readDna(JsonParser parser, DeserializationContext ctxt) throws IOException {
+
+        if (parser.currentToken() != JsonToken.START_ARRAY)
+            return ctxt.reportInputMismatch(this, "El campo 'dna' debe ser un array de strings");
+
+        DnaHasher.Session hash = null;
+        BitPackedDnaMatrix matrix = null;
+        byte[] rowBytes = null;
+        int n = 0;
+        int row = 0;
+
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+
+            // Una fila null rompe la forma NxN igual que en DnaValidation
+            if (parser.currentToken() == JsonToken.VALUE_NULL)
+                throw violation(parser, DnaViolation.Kind.NOT_SQUARE, row, -1);
+
+            if (parser.currentToken() != JsonToken.VALUE_STRING)
+                return ctxt.reportInputMismatch(this, "La fila %d no es un string", row);
+
+            char[] chars = parser.getTextCharacters();
+            int offset = parser.getTextOffset();
+            int length = parser.getTextLength();
+
+            // La primera fila define N
+            if (matrix == null) {
+
+                if (length == 0)
+                    throw violation(parser, DnaViolation.Kind.EMPTY, -1, -1);
+
+                if (length > maxSize)
+                    throw violation(parser, DnaViolation.Kind.TOO_LARGE, -1, -1,
+                            "El tamaño del ADN debe estar entre 1 y " + maxSize);
+
+                n = length;
+                matrix = BitPackedDnaMatrix.ofSize(n);
+                rowBytes = new byte[n];
+
+                // Huella canónica: N primero, luego las filas a medida que llegan
+                hash = hasher.newSession(n);
+            }
+
+            // Una fila de más se rechaza sin leer las siguientes
+            if (row >= n || length != n)
+                throw violation(parser, DnaViolation.Kind.NOT_SQUARE, row, -1);
+
+            int invalid = matrix.encodeRow(row, chars, offset);
+
+            if (invalid >= 0)
+                throw violation(parser, DnaViolation.Kind.INVALID_BASE, row, invalid);
+
+            // Las bases ya son A, T, C, G: 1 byte por char
+            for (int col = 0; col < n; col++) {
+                rowBytes[col] = (byte) chars[offset + col];
+            }
+
+            hash.update(rowBytes, 0, n);
+            row++;
+        }
+
+        if (matrix == null)
+            throw violation(parser, DnaViolation.Kind.EMPTY, -1, -1);
+
+        // Faltan filas: la primera que falta es la que rompe la forma
+        if (row != n)
+            throw violation(parser, DnaViolation.Kind.NOT_SQUARE, row, -1);
+
+        return new DnaPayload(matrix, hash.finish());
+    }
+
+    private static InvalidDnaException violation(JsonParser parser, DnaViolation.Kind kind, int row, int column) {
+        return new InvalidDnaException(parser, new DnaViolation(kind, row, column));
+    }
+
+    private static InvalidDnaException violation(JsonParser parser, DnaViolation.Kind kind, int row, int column,
+                                                 String message) {
+        return new InvalidDnaException(parser, new DnaViolation(kind, row, column), message);
+    }
+}
@@ -0,0 +1,18 @@
+package org.global.mutantes_ds.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@Schema(description = "Veredicto de un ADN dentro de un POST /mutant/batch")
+public class DnaVerdictResponse {
+
+    @Schema(description = "Hash SHA-256 del ADN (mismo valor que acepta DELETE /mutant/{hash})",
+            example = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08")
+    private String hash;
+
+    @Schema(description = "true si es mutante, false si es humano", example = "true")
+    private boolean mutant;
+}
@@ -1,11 +1,21 @@
 package org.global.mutantes_ds.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
 @Data
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class ErrorResponse {
     private String error;
     private String message;
+
+    // Posición del primer error del ADN (solo en INVALID_BASE y NOT_SQUARE)
+    private Integer row;
+    private Integer column;
+
+    public ErrorResponse(String error, String message) {
+        this(error, message, null, null);
+    }
 }
@@ -0,0 +1,20 @@
+package org.global.mutantes_ds.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.global.mutantes_ds.service.DnaHash;
+
+// DnaHash ↔ VARBINARY(32): la mitad que el hex de 64 caracteres, en la columna y en su índice único
+@Converter
+public class DnaHashConverter implements AttributeConverter<DnaHash, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(DnaHash hash) {
+        return hash == null ? null : hash.toBytes();
+    }
+
+    @Override
+    public DnaHash convertToEntityAttribute(byte[] bytes) {
+        return bytes == null ? null : DnaHash.of(bytes);
+    }
+}
@@ -2,11 +2,18 @@ package org.global.mutantes_ds.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.global.mutantes_ds.service.DnaHasher;
+import org.global.mutantes_ds.service.DnaHash;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "dna_records")
+@Table(
+        name = "dna_records",
+        // Las correcciones de borde de /stats por fecha filtran por created_at
+        indexes = @Index(name = "idx_dna_records_created_at", columnList = "created_at")
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -18,9 +25,17 @@ public class DnaRecord {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    // Hash SHA-256 del ADN. Debe ser único.
-    @Column(name = "dna_hash", nullable = false, unique = true, length = 64)
-    private String dnaHash;
+    // Clave binaria del ADN (32 bytes). Debe ser única.
+    @Convert(converter = DnaHashConverter.class)
+    @Column(name = "dna_hash", nullable = false, unique = true, length = DnaHash.BYTES)
+    private DnaHash dnaHash;
+
+    // Formato de la huella (ver DnaHasher). Las filas anteriores a esta columna quedan en 0
+    // (legacy) y se re-escriben con la huella actual la próxima vez que llega el mismo ADN.
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(name = "fingerprint_version", nullable = false)
+    private int fingerprintVersion = DnaHasher.FINGERPRINT_VERSION;
 
     // True = mutante, False = humano.
     @Column(name = "is_mutant", nullable = false)
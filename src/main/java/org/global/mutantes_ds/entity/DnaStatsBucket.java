@@ -0,0 +1,29 @@
+package org.global.mutantes_ds.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Rollup por minuto de los ADN analizados.
+// Permite responder /stats por rango de fechas sumando buckets en lugar de recorrer dna_records.
+@Entity
+@Table(name = "dna_stats_rollup")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DnaStatsBucket {
+
+    // Inicio del minuto (created_at truncado a minutos)
+    @Id
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "mutants", nullable = false)
+    private long mutants;
+
+    @Column(name = "humans", nullable = false)
+    private long humans;
+}
@@ -0,0 +1,25 @@
+package org.global.mutantes_ds.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Estado GCRA compartido por cliente para el backend "jdbc" del rate limiter.
+// Se escribe con JDBC directo (JdbcRateLimiterBackend); la entidad solo define la tabla.
+@Entity
+@Table(name = "rate_limit_buckets")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RateLimitBucket {
+
+    // IP del cliente
+    @Id
+    @Column(name = "client_key", length = 64, nullable = false)
+    private String clientKey;
+
+    // Theoretical arrival time en microsegundos desde epoch (reloj de pared, común a las réplicas)
+    @Column(name = "tat", nullable = false)
+    private long tat;
+}
@@ -1,14 +1,85 @@
 package org.global.mutantes_ds.exception;
 
+import com.fasterxml.jackson.core.exc.StreamConstraintsException;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import org.global.mutantes_ds.dto.ErrorResponse;
+import org.global.mutantes_ds.validation.DnaViolation;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    // JSON mal formado o ADN inválido detectado durante el parseo → 400
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<ErrorResponse> handleNotReadable(HttpMessageNotReadableException ex) {
+
+        // Body cortado por RequestSizeLimitFilter mientras se leía → 413.
+        // Dentro de /mutant/batch Jackson lo envuelve en un JsonMappingException: se busca en toda la cadena
+        PayloadTooLargeException tooLarge = findCause(ex, PayloadTooLargeException.class);
+
+        if (tooLarge != null)
+            return new ResponseEntity<>(
+                    new ErrorResponse("PAYLOAD_TOO_LARGE", tooLarge.getMessage()), HttpStatusCode.valueOf(413));
+
+        // Un solo valor más grande que los límites de Jackson (StreamReadConstraints, 20M caracteres por string)
+        // dentro de un body que todavía entra en el presupuesto: en /mutant/batch una bomba de descompresión
+        // con un único string gigante corta acá antes de llegar a los 32MB → también 413
+        StreamConstraintsException constraints = findCause(ex, StreamConstraintsException.class);
+
+        if (constraints != null)
+            return new ResponseEntity<>(
+                    new ErrorResponse("PAYLOAD_TOO_LARGE", constraints.getOriginalMessage()),
+                    HttpStatusCode.valueOf(413));
+
+        // ADN rechazado por el parser: el código indica qué falló (EMPTY, NOT_SQUARE, TOO_LARGE, INVALID_BASE)
+        if (ex.getCause() instanceof InvalidDnaException invalid)
+            return new ResponseEntity<>(toErrorResponse(invalid), HttpStatus.BAD_REQUEST);
+
+        String message = ex.getCause() instanceof JsonMappingException mapping
+                ? mapping.getOriginalMessage()
+                : "El cuerpo de la request no es un JSON válido";
+
+        ErrorResponse error = new ErrorResponse("BAD_REQUEST", message);
+
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    private static <T extends Throwable> T findCause(Throwable ex, Class<T> type) {
+
+        for (Throwable cause = ex.getCause(); cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause))
+                return type.cast(cause);
+        }
+
+        return null;
+    }
+
+    private static ErrorResponse toErrorResponse(InvalidDnaException ex) {
+
+        DnaViolation violation = ex.getViolation();
+
+        return new ErrorResponse(
+                violation.kind().name(),
+                ex.getOriginalMessage(),
+                violation.row() >= 0 ? violation.row() : null,
+                violation.column() >= 0 ? violation.column() : null
+        );
+    }
+
+    // Lote de /mutant/batch vacío o con más ADN de los permitidos → 400
+    @ExceptionHandler(InvalidDnaBatchException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidBatch(InvalidDnaBatchException ex) {
+
+        ErrorResponse error = new ErrorResponse("BAD_REQUEST", ex.getMessage());
+
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ErrorResponse> handleRuntimeException(RuntimeException ex) {
 
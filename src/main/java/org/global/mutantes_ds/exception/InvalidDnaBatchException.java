@@ -0,0 +1,8 @@
+package org.global.mutantes_ds.exception;
+
+public class InvalidDnaBatchException extends RuntimeException {
+
+    public InvalidDnaBatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,31 @@
+package org.global.mutantes_ds.exception;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import org.global.mutantes_ds.dto.DnaPayload;
+import org.global.mutantes_ds.validation.DnaViolation;
+
+// ADN rechazado mientras se parseaba el body. Es un JsonMappingException: Jackson lo propaga
+// tal cual (también dentro de /mutant/batch) y Spring lo envuelve en HttpMessageNotReadableException.
+public class InvalidDnaException extends MismatchedInputException {
+
+    private final transient DnaViolation violation;
+
+    public InvalidDnaException(JsonParser parser, DnaViolation violation) {
+        this(parser, violation, violation.message());
+    }
+
+    public InvalidDnaException(JsonParser parser, DnaViolation violation, String message) {
+        super(parser, message, DnaPayload.class);
+        this.violation = violation;
+    }
+
+    // ADN rechazado fuera de Jackson (formato binario application/x-dna-2bit)
+    public InvalidDnaException(DnaViolation violation, String message) {
+        this(null, violation, message);
+    }
+
+    public DnaViolation getViolation() {
+        return violation;
+    }
+}
@@ -0,0 +1,19 @@
+package org.global.mutantes_ds.exception;
+
+import java.io.IOException;
+
+// Body que supera el presupuesto de bytes del endpoint mientras se lee. Es un IOException para cortar
+// la lectura de Jackson; Spring lo envuelve en HttpMessageNotReadableException y se responde 413.
+public class PayloadTooLargeException extends IOException {
+
+    private final long limit;
+
+    public PayloadTooLargeException(long limit) {
+        super("El body supera el máximo de " + limit + " bytes");
+        this.limit = limit;
+    }
+
+    public long getLimit() {
+        return limit;
+    }
+}
@@ -0,0 +1,62 @@
+package org.global.mutantes_ds.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.global.mutantes_ds.entity.DnaRecord;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+// Inserciones por lote sobre dna_records con JDBC directo.
+// DnaRecord usa GenerationType.IDENTITY, por lo que Hibernate no puede agrupar los INSERT.
+@Repository
+@RequiredArgsConstructor
+public class DnaRecordBatchRepository {
+
+    // MERGE estándar (H2, PostgreSQL 15+): inserta solo si el hash todavía no existe
+    private static final String INSERT_IF_ABSENT = """
+            MERGE INTO dna_records t
+            USING (VALUES (CAST(? AS VARBINARY(32)), CAST(? AS INTEGER), CAST(? AS BOOLEAN), CAST(? AS TIMESTAMP)))
+                AS s(dna_hash, fingerprint_version, is_mutant, created_at)
+            ON t.dna_hash = s.dna_hash
+            WHEN NOT MATCHED THEN
+                INSERT (dna_hash, fingerprint_version, is_mutant, created_at)
+                VALUES (s.dna_hash, s.fingerprint_version, s.is_mutant, s.created_at)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Envía todo el lote en un único batch JDBC.
+    // Retorna, por registro, si fue insertado (false = el hash ya existía).
+    public boolean[] insertIfAbsent(List<DnaRecord> records) {
+
+        int[] counts = jdbcTemplate.batchUpdate(INSERT_IF_ABSENT, new BatchPreparedStatementSetter() {
+
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                DnaRecord record = records.get(i);
+                ps.setBytes(1, record.getDnaHash().toBytes());
+                ps.setInt(2, record.getFingerprintVersion());
+                ps.setBoolean(3, record.isMutant());
+                ps.setTimestamp(4, Timestamp.valueOf(record.getCreatedAt()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return records.size();
+            }
+        });
+
+        boolean[] inserted = new boolean[counts.length];
+
+        for (int i = 0; i < counts.length; i++) {
+            inserted[i] = counts[i] != 0;
+        }
+
+        return inserted;
+    }
+}
@@ -1,14 +1,48 @@
 package org.global.mutantes_ds.repository;
 
 import org.global.mutantes_ds.entity.DnaRecord;
+import org.global.mutantes_ds.service.DnaHash;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface DnaRecordRepository extends JpaRepository<DnaRecord, Long> {
 
-    Optional<DnaRecord> findByDnaHash(String dnaHash);
+    // Totales de un minuto de created_at
+    interface MinuteTotals {
+        LocalDateTime getBucket();
+
+        long getMutants();
+
+        long getHumans();
+    }
+
+    Optional<DnaRecord> findByDnaHash(DnaHash dnaHash);
+
+    // Un solo SELECT ... WHERE dna_hash IN (...) para todo un lote
+    List<DnaRecord> findByDnaHashIn(Collection<DnaHash> dnaHashes);
+
+    // Registros con una huella de formato anterior (ver LegacyFingerprints)
+    Optional<DnaRecord> findByDnaHashAndFingerprintVersion(DnaHash dnaHash, int fingerprintVersion);
+
+    List<DnaRecord> findByDnaHashInAndFingerprintVersion(Collection<DnaHash> dnaHashes, int fingerprintVersion);
+
+    long countByFingerprintVersion(int fingerprintVersion);
+
+    // Re-escribe la clave solo si el registro sigue con la versión esperada (0 = otra request ya lo migró)
+    @Modifying
+    @Query("""
+            update DnaRecord r set r.dnaHash = :hash, r.fingerprintVersion = :version
+            where r.id = :id and r.fingerprintVersion = :expected
+            """)
+    int rekey(@Param("id") Long id, @Param("hash") DnaHash hash,
+              @Param("version") int version, @Param("expected") int expected);
 
     long countByIsMutant(boolean isMutant);
 
@@ -16,4 +50,19 @@ public interface DnaRecordRepository extends JpaRepository<DnaRecord, Long> {
                                             LocalDateTime start,
                                             LocalDateTime end);
 
+    // Rango semiabierto [start, end): usado para los bordes de un rango de buckets
+    long countByIsMutantAndCreatedAtGreaterThanEqualAndCreatedAtLessThan(boolean isMutant,
+                                                                         LocalDateTime start,
+                                                                         LocalDateTime end);
+
+    // Un GROUP BY por minuto: base para reconstruir dna_stats_rollup
+    @Query(nativeQuery = true, value = """
+            SELECT DATE_TRUNC('MINUTE', created_at) AS bucket,
+                   SUM(CASE WHEN is_mutant THEN 1 ELSE 0 END) AS mutants,
+                   SUM(CASE WHEN is_mutant THEN 0 ELSE 1 END) AS humans
+            FROM dna_records
+            GROUP BY DATE_TRUNC('MINUTE', created_at)
+            """)
+    List<MinuteTotals> countByMinute();
+
 }
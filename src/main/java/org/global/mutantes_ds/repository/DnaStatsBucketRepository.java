@@ -0,0 +1,45 @@
+package org.global.mutantes_ds.repository;
+
+import org.global.mutantes_ds.entity.DnaStatsBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface DnaStatsBucketRepository extends JpaRepository<DnaStatsBucket, LocalDateTime> {
+
+    // Totales de un rango de buckets
+    interface BucketTotals {
+        long getMutants();
+
+        long getHumans();
+    }
+
+    // Suma (o resta) sobre el bucket en una sola sentencia; lo crea si no existe.
+    // Lo llaman la reconstrucción al arrancar y el flush de DnaStatsTracker (un hilo, cambios ya agrupados por minuto)
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            MERGE INTO dna_stats_rollup t
+            USING (VALUES (CAST(:bucket AS TIMESTAMP))) AS s(bucket_start)
+            ON t.bucket_start = s.bucket_start
+            WHEN MATCHED THEN
+                UPDATE SET mutants = t.mutants + :mutants, humans = t.humans + :humans
+            WHEN NOT MATCHED THEN
+                INSERT (bucket_start, mutants, humans) VALUES (s.bucket_start, :mutants, :humans)
+            """)
+    int addToBucket(@Param("bucket") LocalDateTime bucket,
+                    @Param("mutants") long mutants,
+                    @Param("humans") long humans);
+
+    // Buckets con bucket_start en [from, to)
+    @Query("""
+            select coalesce(sum(b.mutants), 0) as mutants, coalesce(sum(b.humans), 0) as humans
+            from DnaStatsBucket b
+            where b.bucketStart >= :from and b.bucketStart < :to
+            """)
+    BucketTotals sumBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
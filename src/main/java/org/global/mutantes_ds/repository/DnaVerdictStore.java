@@ -0,0 +1,41 @@
+package org.global.mutantes_ds.repository;
+
+import org.global.mutantes_ds.entity.DnaRecord;
+import org.global.mutantes_ds.service.DnaHash;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Optional;
+
+// Almacenamiento de veredictos por hash de ADN. mutant.store.backend elige la implementación:
+// jpa = tabla dna_records (Spring Data + JDBC, por defecto), embedded = log en segmentos mapeados con índice fuera del heap.
+// Los DnaRecord que retorna son valores: modificarlos no cambia lo guardado.
+public interface DnaVerdictStore {
+
+    Optional<DnaRecord> find(DnaHash hash);
+
+    // Registros existentes de los hashes dados (los que no existen no aparecen)
+    List<DnaRecord> findAll(Collection<DnaHash> hashes);
+
+    // Retorna true si se insertó (false = el hash ya existía)
+    boolean insertIfAbsent(DnaRecord record);
+
+    // Retorna, por registro, si fue insertado
+    boolean[] insertIfAbsent(List<DnaRecord> records);
+
+    // Registro eliminado, o vacío si el hash no existía
+    Optional<DnaRecord> delete(DnaHash hash);
+
+    long count(boolean isMutant);
+
+    // created_at en [start, end]
+    long countBetween(boolean isMutant, LocalDateTime start, LocalDateTime end);
+
+    // created_at en [start, end)
+    long countInRange(boolean isMutant, LocalDateTime start, LocalDateTime end);
+
+    // Totales {mutantes, humanos} por minuto de created_at, para reconstruir el rollup de /stats
+    NavigableMap<LocalDateTime, long[]> countByMinute();
+}
@@ -0,0 +1,817 @@
+package org.global.mutantes_ds.repository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.global.mutantes_ds.entity.DnaRecord;
+import org.global.mutantes_ds.service.DnaHash;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Backend "embedded": log de registros de 48 bytes en segmentos mapeados en memoria (VerdictSegment),
+// solo con appends, y un índice hash → ubicación fuera del heap (OffHeapHashIndex).
+// Sin ORM ni SQL: un find es un probe en el índice más la lectura del registro en el mapeo,
+// y un insert es copiar 48 bytes al segmento activo.
+//
+// Lecturas sin bloqueo: lectura optimista del StampedLock, que se repite con el lock de lectura
+// solo si hubo una escritura en el medio. Las escrituras son de un solo hilo (lock de escritura).
+//
+// Un delete agrega una lápida (tombstone) y el registro original queda en su segmento.
+// Cuando los registros muertos (reemplazados, borrados y lápidas) de un segmento cerrado superan
+// compaction-threshold, un hilo aparte lo compacta: copia sus vivos a un archivo nuevo sin tomar el lock,
+// mueve las ubicaciones del índice en tramos cortos con el lock de escritura y reemplaza el archivo
+// original (mismo número de secuencia, así el orden del log no cambia). Los writers solo avisan.
+// Al arrancar se recorren los segmentos en orden para reconstruir el índice; un registro a medio
+// escribir en el último segmento (corte durante una escritura) se descarta.
+//
+// Los conteos por fecha (bordes de /stats) recorren solo los bloques de registros cuyo rango de
+// created_at se superpone con el pedido, cada bloque en una lectura optimista: no frenan a los writers.
+//
+// El índice tiene un tamaño máximo (OffHeapHashIndex.MAX_CAPACITY): al llenarse los inserts fallan
+// antes de escribir en el log, y si al arrancar no entran todos los registros se omiten los que sobran.
+@Slf4j
+@Repository
+@ConditionalOnProperty(name = "mutant.store.backend", havingValue = "embedded")
+public class EmbeddedDnaVerdictStore implements DnaVerdictStore {
+
+    static final int RECORD_BYTES = VerdictSegment.RECORD_BYTES;
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("verdicts-(\\d{6})\\.seg");
+    private static final String COMPACTING_SUFFIX = ".compacting";
+
+    // Registros por tramo de la compactación: cuánto puede demorar a los writers cada toma del lock
+    private static final int COMPACTION_CHUNK = 4_096;
+    private static final long CLOSE_TIMEOUT_SECONDS = 30;
+
+    // Conteos por fecha que se repiten sin lock antes de hacerse con el lock de lectura
+    private static final int OPTIMISTIC_SCANS = 3;
+    private static final long[] NONE = new long[0];
+
+    private final Path directory;
+    private final int segmentRecords;
+    private final double compactionThreshold;
+    private final boolean fsync;
+
+    private final StampedLock lock = new StampedLock();
+    private final OffHeapHashIndex index;
+    private final AtomicLong mutants = new AtomicLong();
+    private final AtomicLong humans = new AtomicLong();
+
+    // Segmentos por id (null = compactado). Se reemplaza el array entero al agregar uno
+    private volatile VerdictSegment[] segments = new VerdictSegment[8];
+    private final AtomicInteger nextId = new AtomicInteger(1);
+    private VerdictSegment active;
+
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("verdict-compactor").daemon().factory());
+    private final AtomicBoolean compactionScheduled = new AtomicBoolean();
+    private volatile boolean closing;
+
+    // Impar mientras una compactación mueve ubicaciones del índice: un registro puede estar vivo
+    // en el segmento original o en el nuevo según el momento en que se mire
+    private volatile int relocations;
+
+    // Registros que no entraron en el índice al arrancar; compactar los perdería
+    private long unindexed;
+
+    @Autowired
+    public EmbeddedDnaVerdictStore(
+            @Value("${mutant.store.embedded.dir:data/verdicts}") String directory,
+            @Value("${mutant.store.embedded.segment-size:64MB}") DataSize segmentSize,
+            @Value("${mutant.store.embedded.compaction-threshold:0.5}") double compactionThreshold,
+            @Value("${mutant.store.embedded.fsync:false}") boolean fsync
+    ) {
+        this(directory, (int) Math.min(Integer.MAX_VALUE / RECORD_BYTES, segmentSize.toBytes() / RECORD_BYTES),
+                compactionThreshold, fsync);
+    }
+
+    EmbeddedDnaVerdictStore(String directory, int segmentRecords, double compactionThreshold, boolean fsync) {
+        this(directory, segmentRecords, compactionThreshold, fsync, OffHeapHashIndex.MAX_CAPACITY);
+    }
+
+    EmbeddedDnaVerdictStore(String directory, int segmentRecords, double compactionThreshold, boolean fsync,
+                            int indexCapacity) {
+
+        if (segmentRecords <= 0 || compactionThreshold <= 0 || compactionThreshold > 1)
+            throw new IllegalArgumentException("segment-size debe ser positivo y compaction-threshold estar en (0, 1]");
+
+        this.directory = Path.of(directory);
+        this.segmentRecords = segmentRecords;
+        this.compactionThreshold = compactionThreshold;
+        this.fsync = fsync;
+        this.index = new OffHeapHashIndex(1 << 16, indexCapacity);
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+
+        long stamp = lock.writeLock();
+
+        try {
+            Files.createDirectories(directory);
+
+            List<Integer> sequences;
+            try (Stream<Path> files = Files.list(directory)) {
+                sequences = files.map(file -> SEGMENT_NAME.matcher(file.getFileName().toString()))
+                        .filter(Matcher::matches)
+                        .map(matcher -> Integer.parseInt(matcher.group(1)))
+                        .sorted()
+                        .toList();
+            }
+
+            // Compactación cortada antes de reemplazar el original: el original sigue completo
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.filter(file -> file.toString().endsWith(COMPACTING_SUFFIX)).toList()) {
+                    Files.delete(file);
+                }
+            }
+
+            for (int sequence : sequences) {
+                replay(register(VerdictSegment.open(segmentPath(sequence), nextId.getAndIncrement(), sequence,
+                        segmentRecords)));
+            }
+
+            if (active == null || active.full())
+                roll();
+
+            if (unindexed > 0) {
+                log.error("Store embebido {}: el índice está lleno, {} registros del log quedan sin indexar "
+                        + "y la compactación se desactiva hasta reiniciar con lugar", directory, unindexed);
+            }
+
+            // Umbral superado antes del reinicio
+            for (VerdictSegment segment : segments) {
+                compactionDue(segment);
+            }
+
+            log.info("Store embebido {}: {} hashes ({} mutantes, {} humanos) en {} segmentos",
+                    directory, index.size(), mutants.get(), humans.get(), liveSegments());
+
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Una compactación en curso se abandona entre tramos: el archivo original sigue completo
+    @PreDestroy
+    public void close() throws IOException {
+
+        closing = true;
+        compactor.shutdown();
+
+        try {
+            if (!compactor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS))
+                log.warn("La compactación del store embebido no terminó en {}s", CLOSE_TIMEOUT_SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        long stamp = lock.writeLock();
+
+        try {
+            for (VerdictSegment segment : segments) {
+                if (segment != null) {
+                    segment.force();
+                    segment.close();
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Optional<DnaRecord> find(DnaHash hash) {
+        return Optional.ofNullable(read(() -> lookup(hash)));
+    }
+
+    @Override
+    public List<DnaRecord> findAll(Collection<DnaHash> hashes) {
+        return read(() -> {
+            List<DnaRecord> records = new ArrayList<>();
+
+            for (DnaHash hash : hashes) {
+                DnaRecord record = lookup(hash);
+                if (record != null)
+                    records.add(record);
+            }
+
+            return records;
+        });
+    }
+
+    @Override
+    public boolean insertIfAbsent(DnaRecord record) {
+        return insertIfAbsent(List.of(record))[0];
+    }
+
+    @Override
+    public boolean[] insertIfAbsent(List<DnaRecord> records) {
+
+        boolean[] inserted = new boolean[records.size()];
+        long stamp = lock.writeLock();
+
+        try {
+            // Se rechaza antes de escribir: un registro en el log sin lugar en el índice volvería
+            // a fallar en cada arranque
+            if (!index.hasRoomFor(records.size()))
+                throw new DataAccessResourceFailureException(
+                        "El índice del store embebido está lleno (" + index.size() + " hashes)");
+
+            VerdictSegment first = active;
+
+            for (int i = 0; i < records.size(); i++) {
+
+                DnaRecord record = records.get(i);
+                DnaHash hash = record.getDnaHash();
+
+                // Ya guardado, o repetido dentro del mismo lote
+                if (index.get(hash.h0(), location -> matches(location, hash)) >= 0)
+                    continue;
+
+                long location = append(hash, toMicros(record.getCreatedAt()),
+                        record.isMutant() ? VerdictSegment.MUTANT : 0, (byte) record.getFingerprintVersion());
+
+                index.put(hash.h0(), location, existing -> false);
+                counter(record.isMutant()).incrementAndGet();
+                inserted[i] = true;
+            }
+
+            if (fsync)
+                forceFrom(first);
+
+            // Al cerrar un segmento con muertos el umbral puede pasarse sin un delete
+            compactionDue(first);
+
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+
+        return inserted;
+    }
+
+    @Override
+    public Optional<DnaRecord> delete(DnaHash hash) {
+
+        long stamp = lock.writeLock();
+
+        try {
+            long location = index.remove(hash.h0(), existing -> matches(existing, hash));
+
+            if (location < 0)
+                return Optional.empty();
+
+            DnaRecord record = toRecord(location);
+            VerdictSegment segment = segment(location);
+            VerdictSegment first = active;
+
+            long tombstone = append(hash, toMicros(record.getCreatedAt()), VerdictSegment.TOMBSTONE,
+                    (byte) record.getFingerprintVersion());
+
+            counter(record.isMutant()).decrementAndGet();
+            segment.dead++;
+            segment(tombstone).dead++;
+
+            if (fsync)
+                forceFrom(first);
+
+            compactionDue(segment);
+            compactionDue(first);
+
+            return Optional.of(record);
+
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public long count(boolean isMutant) {
+        return counter(isMutant).get();
+    }
+
+    // /stats por rango solo lo usa para los bordes (fracciones de minuto): pocos bloques
+    @Override
+    public long countBetween(boolean isMutant, LocalDateTime start, LocalDateTime end) {
+        return countCreated(isMutant, toMicros(start), toMicros(end) + 1);
+    }
+
+    @Override
+    public long countInRange(boolean isMutant, LocalDateTime start, LocalDateTime end) {
+        return countCreated(isMutant, toMicros(start), toMicros(end));
+    }
+
+    @Override
+    public NavigableMap<LocalDateTime, long[]> countByMinute() {
+
+        NavigableMap<LocalDateTime, long[]> totals = new TreeMap<>();
+
+        forEachLive(Long.MIN_VALUE, Long.MAX_VALUE, entry -> {
+            LocalDateTime minute = toDateTime(entry >> 1).truncatedTo(ChronoUnit.MINUTES);
+            totals.computeIfAbsent(minute, m -> new long[2])[(entry & 1) == 1 ? 0 : 1]++;
+        });
+
+        return totals;
+    }
+
+    // Hashes vivos en el índice
+    public int size() {
+        return read(index::size);
+    }
+
+    // Segmentos en disco (activo incluido)
+    int segmentCount() {
+        return read(this::liveSegments);
+    }
+
+    // Espera a que terminen las compactaciones pedidas hasta ahora
+    void awaitCompaction() {
+        try {
+            compactor.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // Lectura optimista; si una escritura la cruzó (validate falla, o leyó un estado a medio
+    // modificar y algo explotó) se repite con el lock de lectura
+    private <T> T read(Supplier<T> reader) {
+
+        long stamp = lock.tryOptimisticRead();
+
+        if (stamp != 0) {
+            try {
+                T result = reader.get();
+                if (lock.validate(stamp))
+                    return result;
+            } catch (RuntimeException inconsistent) {
+                if (lock.validate(stamp))
+                    throw inconsistent;
+            }
+        }
+
+        stamp = lock.readLock();
+
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private int liveSegments() {
+        return (int) Arrays.stream(segments).filter(Objects::nonNull).count();
+    }
+
+    private DnaRecord lookup(DnaHash hash) {
+        long location = index.get(hash.h0(), existing -> matches(existing, hash));
+        return location < 0 ? null : toRecord(location);
+    }
+
+    // Created_at en [from, to) microsegundos
+    private long countCreated(boolean isMutant, long from, long to) {
+
+        long[] count = new long[1];
+
+        forEachLive(from, to, entry -> {
+            if (((entry & 1) == 1) == isMutant)
+                count[0]++;
+        });
+
+        return count[0];
+    }
+
+    // Pasa a action created_at << 1 | mutante de cada registro vivo con created_at en [from, to).
+    // Sin lock: bloque por bloque con lecturas optimistas, y se repite si una compactación movió
+    // ubicaciones en el medio (el mismo registro se habría contado dos veces, o ninguna).
+    // Si sigue cruzándose con compactaciones, se recorre con el lock de lectura.
+    private void forEachLive(long from, long to, LongConsumer action) {
+
+        for (int attempt = 0; attempt < OPTIMISTIC_SCANS; attempt++) {
+
+            int layout = relocations;
+
+            if ((layout & 1) == 1)
+                continue;
+
+            List<long[]> blocks = new ArrayList<>();
+
+            for (VerdictSegment segment : segments) {
+                if (segment != null) {
+                    for (int block = 0; block < segment.blocks(); block++) {
+                        int current = block;
+                        blocks.add(read(() -> liveCreatedAt(segment, current, from, to)));
+                    }
+                }
+            }
+
+            if (relocations == layout) {
+                blocks.forEach(entries -> Arrays.stream(entries).forEach(action));
+                return;
+            }
+        }
+
+        long stamp = lock.readLock();
+
+        try {
+            for (VerdictSegment segment : segments) {
+                if (segment != null) {
+                    for (int block = 0; block < segment.blocks(); block++) {
+                        Arrays.stream(liveCreatedAt(segment, block, from, to)).forEach(action);
+                    }
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private long[] liveCreatedAt(VerdictSegment segment, int block, long from, long to) {
+
+        if (!segment.overlaps(block, from, to))
+            return NONE;
+
+        int start = block * VerdictSegment.BLOCK_RECORDS;
+        int end = Math.min(segment.records, start + VerdictSegment.BLOCK_RECORDS);
+        long[] entries = new long[end - start];
+        int count = 0;
+
+        for (int record = start; record < end; record++) {
+
+            long createdAt = segment.createdAtMicros(record);
+            long location = location(segment, record);
+
+            if (createdAt >= from && createdAt < to && !segment.tombstone(record)
+                    && index.get(segment.h0(record), existing -> existing == location) >= 0)
+                entries[count++] = createdAt << 1 | (segment.mutant(record) ? 1 : 0);
+        }
+
+        return Arrays.copyOf(entries, count);
+    }
+
+    // Aplica los registros válidos del segmento al índice, en orden
+    private void replay(VerdictSegment segment) {
+
+        int record = 0;
+
+        while (record < segment.capacity && segment.valid(record)) {
+
+            segment.recover(record);
+            long location = location(segment, record);
+            DnaHash hash = segment.hash(record);
+
+            // Índice lleno: el registro queda en el log y el store arranca igual
+            if (!segment.tombstone(record) && index.full()
+                    && index.get(hash.h0(), existing -> matches(existing, hash)) < 0) {
+                unindexed++;
+                record++;
+                continue;
+            }
+
+            long previous = segment.tombstone(record)
+                    ? index.remove(hash.h0(), existing -> matches(existing, hash))
+                    : index.put(hash.h0(), location, existing -> matches(existing, hash));
+
+            if (previous >= 0) {
+                segment(previous).dead++;
+                counter(segment(previous).mutant((int) previous)).decrementAndGet();
+            }
+
+            if (segment.tombstone(record)) {
+                segment.dead++;
+                segment.tombstones++;
+            } else
+                counter(segment.mutant(record)).incrementAndGet();
+
+            record++;
+        }
+
+        // Lo que sigue a la parte válida se pisa con los próximos appends: un registro a medio
+        // escribir se borra para que no quede detrás de registros nuevos
+        if (record < segment.capacity && !segment.blankFrom(record)) {
+            log.warn("Segmento {}: se descarta un registro incompleto en la posición {}", segment.path, record);
+            segment.clearFrom(record);
+        }
+
+        active = segment;
+    }
+
+    private long append(DnaHash hash, long createdAtMicros, byte flags, byte version) {
+
+        if (active.full())
+            roll();
+
+        int record = active.append(hash.h0(), hash.h1(), hash.h2(), hash.h3(), createdAtMicros, flags, version);
+        return location(active, record);
+    }
+
+    private void roll() {
+
+        int sequence = active == null ? 1 : active.sequence + 1;
+
+        try {
+            active = register(VerdictSegment.open(segmentPath(sequence), nextId.getAndIncrement(), sequence,
+                    segmentRecords));
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("No se pudo crear el segmento " + segmentPath(sequence), e);
+        }
+    }
+
+    private VerdictSegment register(VerdictSegment segment) {
+
+        VerdictSegment[] current = segments;
+
+        if (segment.id >= current.length)
+            current = Arrays.copyOf(current, Math.max(segment.id + 1, current.length * 2));
+        else
+            current = current.clone();
+
+        current[segment.id] = segment;
+        segments = current;
+
+        return segment;
+    }
+
+    private void unregister(VerdictSegment segment) {
+        VerdictSegment[] current = segments.clone();
+        current[segment.id] = null;
+        segments = current;
+    }
+
+    // Baja a disco lo escrito desde el segmento first (un lote puede haber pasado a segmentos nuevos)
+    private void forceFrom(VerdictSegment first) {
+        for (int id = first.id; id <= active.id; id++) {
+            if (segments[id] != null)
+                segments[id].force();
+        }
+    }
+
+    // Avisa al compactador si el segmento cerrado pasó el umbral (el activo no se compacta).
+    // Se llama con el lock de escritura tomado
+    private void compactionDue(VerdictSegment segment) {
+
+        if (segment == null || segment == active || segment.records == 0 || unindexed > 0 || closing)
+            return;
+
+        if (segment.dead >= segment.records * compactionThreshold && compactionScheduled.compareAndSet(false, true))
+            compactor.execute(this::compactDueSegments);
+    }
+
+    // Hilo del compactador: un segmento por vez, el de mayor proporción de registros recuperables
+    private void compactDueSegments() {
+
+        compactionScheduled.set(false);
+
+        try {
+            VerdictSegment victim;
+
+            while (!closing && (victim = nextVictim()) != null) {
+                compact(victim);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Falló la compactación del store embebido {}", directory, e);
+        }
+    }
+
+    private VerdictSegment nextVictim() {
+
+        long stamp = lock.readLock();
+
+        try {
+            int oldest = oldestSequence();
+            VerdictSegment victim = null;
+            double best = 0;
+
+            for (VerdictSegment segment : segments) {
+
+                if (segment == null || segment == active || segment.records == 0)
+                    continue;
+
+                double ratio = (double) reclaimable(segment, oldest) / segment.records;
+
+                if (ratio > 0 && ratio >= compactionThreshold && ratio > best) {
+                    victim = segment;
+                    best = ratio;
+                }
+            }
+
+            return victim;
+
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Las lápidas anulan registros de segmentos anteriores: solo se descartan en el más viejo
+    private static int reclaimable(VerdictSegment segment, int oldest) {
+        return segment.sequence == oldest ? segment.dead : segment.dead - segment.tombstones;
+    }
+
+    private int oldestSequence() {
+        return Arrays.stream(segments).filter(Objects::nonNull).mapToInt(segment -> segment.sequence).min().orElse(0);
+    }
+
+    // Copia los vivos del segmento cerrado a un archivo nuevo y lo reemplaza.
+    // El segmento no cambia (está cerrado), así que se lee sin lock; el índice se consulta y se
+    // actualiza por tramos. Un registro que muere entre la copia y el cambio de ubicación queda
+    // como muerto en el segmento nuevo.
+    private void compact(VerdictSegment victim) throws IOException {
+
+        boolean oldest = read(() -> victim.sequence == oldestSequence());
+        int total = victim.records;
+        int[] kept = new int[total];
+        int count = 0;
+
+        for (int from = 0; from < total; from += COMPACTION_CHUNK) {
+
+            if (closing)
+                return;
+
+            int start = from;
+            int end = Math.min(total, from + COMPACTION_CHUNK);
+            boolean[] live = read(() -> liveRecords(victim, start, end, oldest));
+
+            for (int i = 0; i < live.length; i++) {
+                if (live[i])
+                    kept[count++] = start + i;
+            }
+        }
+
+        VerdictSegment merged = count == 0 ? null : copy(victim, kept, count);
+
+        // El archivo a medio copiar se borra al arrancar
+        if (closing) {
+            if (merged != null)
+                merged.close();
+            return;
+        }
+
+        if (merged != null)
+            relocate(victim, merged, kept);
+
+        long stamp = lock.writeLock();
+
+        try {
+            unregister(victim);
+
+            if (merged != null)
+                relocations++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+
+        // El original sigue mapeado para las lecturas optimistas que todavía lo estén usando
+        if (merged != null) {
+            merged.moveTo(victim.path);
+            victim.close();
+        } else {
+            victim.delete();
+        }
+
+        log.info("Compactación del segmento {}: {} de {} registros copiados", victim.path, count, total);
+    }
+
+    private boolean[] liveRecords(VerdictSegment segment, int from, int to, boolean oldest) {
+
+        boolean[] live = new boolean[to - from];
+
+        for (int record = from; record < to; record++) {
+
+            long location = location(segment, record);
+
+            live[record - from] = segment.tombstone(record)
+                    ? !oldest
+                    : index.get(segment.h0(record), existing -> existing == location) >= 0;
+        }
+
+        return live;
+    }
+
+    // Lo copiado tiene que estar en disco antes de reemplazar al original, con o sin fsync
+    private VerdictSegment copy(VerdictSegment victim, int[] kept, int count) throws IOException {
+
+        Path path = Path.of(victim.path + COMPACTING_SUFFIX);
+        Files.deleteIfExists(path);
+
+        VerdictSegment merged = VerdictSegment.open(path, nextId.getAndIncrement(), victim.sequence, count);
+
+        for (int i = 0; i < count && !closing; i++) {
+            merged.copy(victim, kept[i]);
+        }
+
+        merged.dead = merged.tombstones;
+        merged.force();
+
+        return merged;
+    }
+
+    // Registra el segmento nuevo y le pasa las ubicaciones del índice, un tramo por toma del lock
+    private void relocate(VerdictSegment victim, VerdictSegment merged, int[] kept) {
+
+        long stamp = lock.writeLock();
+
+        try {
+            register(merged);
+            relocations++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+
+        for (int from = 0; from < merged.records; from += COMPACTION_CHUNK) {
+
+            stamp = lock.writeLock();
+
+            try {
+                for (int record = from; record < Math.min(merged.records, from + COMPACTION_CHUNK); record++) {
+
+                    if (merged.tombstone(record))
+                        continue;
+
+                    if (!index.replace(merged.h0(record), location(victim, kept[record]), location(merged, record)))
+                        merged.dead++;
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    private boolean matches(long location, DnaHash hash) {
+        VerdictSegment segment = segment(location);
+        return segment != null && segment.matches((int) location, hash);
+    }
+
+    private VerdictSegment segment(long location) {
+        VerdictSegment[] current = segments;
+        int id = (int) (location >>> 32);
+        return id < current.length ? current[id] : null;
+    }
+
+    private static long location(VerdictSegment segment, int record) {
+        return (long) segment.id << 32 | record;
+    }
+
+    private Path segmentPath(int sequence) {
+        return directory.resolve("verdicts-%06d.seg".formatted(sequence));
+    }
+
+    private AtomicLong counter(boolean isMutant) {
+        return isMutant ? mutants : humans;
+    }
+
+    private DnaRecord toRecord(long location) {
+
+        VerdictSegment segment = segment(location);
+        int record = (int) location;
+
+        return DnaRecord.builder()
+                .dnaHash(segment.hash(record))
+                .isMutant(segment.mutant(record))
+                .createdAt(toDateTime(segment.createdAtMicros(record)))
+                .fingerprintVersion(segment.version(record))
+                .build();
+    }
+
+    static long toMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + dateTime.getNano() / 1_000;
+    }
+
+    static LocalDateTime toDateTime(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+}
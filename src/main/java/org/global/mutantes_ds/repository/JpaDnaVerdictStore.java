@@ -0,0 +1,83 @@
+package org.global.mutantes_ds.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.global.mutantes_ds.entity.DnaRecord;
+import org.global.mutantes_ds.service.DnaHash;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+
+// Backend "jpa" (por defecto): dna_records con Spring Data para lecturas y borrados,
+// y MERGE por JDBC (DnaRecordBatchRepository) para las inserciones.
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "mutant.store.backend", havingValue = "jpa", matchIfMissing = true)
+public class JpaDnaVerdictStore implements DnaVerdictStore {
+
+    private final DnaRecordRepository dnaRecordRepository;
+    private final DnaRecordBatchRepository batchRepository;
+
+    @Override
+    public Optional<DnaRecord> find(DnaHash hash) {
+        return dnaRecordRepository.findByDnaHash(hash);
+    }
+
+    @Override
+    public List<DnaRecord> findAll(Collection<DnaHash> hashes) {
+        return dnaRecordRepository.findByDnaHashIn(hashes);
+    }
+
+    // MERGE en vez de save(): un hash guardado por otra request no rompe la transacción
+    @Override
+    public boolean insertIfAbsent(DnaRecord record) {
+        return batchRepository.insertIfAbsent(List.of(record))[0];
+    }
+
+    @Override
+    public boolean[] insertIfAbsent(List<DnaRecord> records) {
+        return batchRepository.insertIfAbsent(records);
+    }
+
+    @Override
+    public Optional<DnaRecord> delete(DnaHash hash) {
+
+        Optional<DnaRecord> record = dnaRecordRepository.findByDnaHash(hash);
+        record.ifPresent(dnaRecordRepository::delete);
+
+        return record;
+    }
+
+    @Override
+    public long count(boolean isMutant) {
+        return dnaRecordRepository.countByIsMutant(isMutant);
+    }
+
+    @Override
+    public long countBetween(boolean isMutant, LocalDateTime start, LocalDateTime end) {
+        return dnaRecordRepository.countByIsMutantAndCreatedAtBetween(isMutant, start, end);
+    }
+
+    @Override
+    public long countInRange(boolean isMutant, LocalDateTime start, LocalDateTime end) {
+        return dnaRecordRepository
+                .countByIsMutantAndCreatedAtGreaterThanEqualAndCreatedAtLessThan(isMutant, start, end);
+    }
+
+    @Override
+    public NavigableMap<LocalDateTime, long[]> countByMinute() {
+
+        NavigableMap<LocalDateTime, long[]> totals = new TreeMap<>();
+
+        for (DnaRecordRepository.MinuteTotals minute : dnaRecordRepository.countByMinute()) {
+            totals.put(minute.getBucket(), new long[]{minute.getMutants(), minute.getHumans()});
+        }
+
+        return totals;
+    }
+}
@@ -0,0 +1,233 @@
+package org.global.mutantes_ds.repository;
+
+import java.nio.ByteBuffer;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+
+// Índice hash → ubicación en el log, con direccionamiento abierto (linear probing) fuera del heap.
+// Cada slot ocupa 16 bytes de un ByteBuffer directo: h0 del hash y la ubicación + 1 (0 = slot vacío),
+// ~23 bytes por hash con la carga máxima contra ~100 de un HashMap con objetos.
+// Solo guarda h0: quien consulta confirma la clave completa leyendo el registro en el log (isKey).
+// Los borrados corren hacia atrás las entradas siguientes del cluster, así que no hay lápidas en la tabla.
+// Con la tabla en su tamaño máximo no crece más: hasRoomFor rechaza inserts nuevos al llegar a la carga
+// normal, y put acepta hasta HARD_LOAD para que el recorrido del log al arrancar no falle por los
+// registros que después anula una lápida.
+// No es thread-safe: EmbeddedDnaVerdictStore lo protege con un StampedLock. Las lecturas optimistas
+// toman la tabla una sola vez, así que nunca salen de sus límites aunque haya un resize en curso.
+final class OffHeapHashIndex {
+
+    private static final int SLOT_BYTES = 16;
+    // 1 GiB de tabla (~47M hashes): los offsets de un ByteBuffer son int
+    static final int MAX_CAPACITY = 1 << 26;
+    private static final double MAX_LOAD = 0.7;
+    private static final double HARD_LOAD = 0.9;
+
+    private final int maxCapacity;
+
+    private ByteBuffer table;
+    private int size;
+    private int resizeAt;
+
+    OffHeapHashIndex(int initialCapacity) {
+        this(initialCapacity, MAX_CAPACITY);
+    }
+
+    OffHeapHashIndex(int initialCapacity, int maxCapacity) {
+        this.maxCapacity = Math.min(MAX_CAPACITY, Math.max(16, Integer.highestOneBit(maxCapacity)));
+        allocate(Math.min(this.maxCapacity, Math.max(16, Integer.highestOneBit(Math.max(1, initialCapacity) - 1) << 1)));
+    }
+
+    // Si entran additional hashes nuevos sin pasar la carga normal de la tabla más grande posible
+    boolean hasRoomFor(int additional) {
+        return (long) size + additional <= (long) (maxCapacity * MAX_LOAD);
+    }
+
+    // Sin lugar ni siquiera por encima de la carga normal: put de un hash nuevo fallaría
+    boolean full() {
+        return size >= (int) (maxCapacity * HARD_LOAD);
+    }
+
+    // Ubicación del hash, o -1 si no está
+    long get(long h0, LongPredicate isKey) {
+
+        ByteBuffer t = table;
+        int mask = t.capacity() / SLOT_BYTES - 1;
+
+        // Acotado por la capacidad: una lectura optimista inconsistente no puede quedar en un loop
+        for (int slot = slotOf(h0, mask), probes = 0; probes <= mask; slot = (slot + 1) & mask, probes++) {
+
+            long location = t.getLong(slot * SLOT_BYTES + 8) - 1;
+
+            if (location < 0)
+                return -1;
+
+            if (t.getLong(slot * SLOT_BYTES) == h0 && isKey.test(location))
+                return location;
+        }
+
+        return -1;
+    }
+
+    // Agrega o reemplaza. Retorna la ubicación anterior, o -1 si el hash no estaba
+    long put(long h0, long location, LongPredicate isKey) {
+
+        if (size >= resizeAt && table.capacity() / SLOT_BYTES < maxCapacity)
+            allocate(table.capacity() / SLOT_BYTES * 2);
+
+        int mask = mask();
+
+        for (int slot = slotOf(h0, mask); ; slot = (slot + 1) & mask) {
+
+            long existing = locationAt(slot);
+
+            if (existing < 0) {
+
+                if (full())
+                    throw new IllegalStateException("El índice de veredictos está lleno (" + size + " hashes)");
+
+                write(slot, h0, location);
+                size++;
+                return -1;
+            }
+
+            if (table.getLong(slot * SLOT_BYTES) == h0 && isKey.test(existing)) {
+                write(slot, h0, location);
+                return existing;
+            }
+        }
+    }
+
+    // Mueve el hash de from a to (compactación). false si ya no estaba en from
+    boolean replace(long h0, long from, long to) {
+
+        int mask = mask();
+
+        for (int slot = slotOf(h0, mask); ; slot = (slot + 1) & mask) {
+
+            long existing = locationAt(slot);
+
+            if (existing < 0)
+                return false;
+
+            if (existing == from && table.getLong(slot * SLOT_BYTES) == h0) {
+                write(slot, h0, to);
+                return true;
+            }
+        }
+    }
+
+    // Quita el hash. Retorna su ubicación, o -1 si no estaba
+    long remove(long h0, LongPredicate isKey) {
+
+        int mask = mask();
+        int hole = -1;
+        long removed = -1;
+
+        for (int slot = slotOf(h0, mask); ; slot = (slot + 1) & mask) {
+
+            long existing = locationAt(slot);
+
+            if (existing < 0)
+                return -1;
+
+            if (table.getLong(slot * SLOT_BYTES) == h0 && isKey.test(existing)) {
+                hole = slot;
+                removed = existing;
+                break;
+            }
+        }
+
+        // Backward shift: cada entrada que quedaría inalcanzable por el hueco pasa a ocuparlo
+        for (int slot = (hole + 1) & mask; ; slot = (slot + 1) & mask) {
+
+            long location = locationAt(slot);
+
+            if (location < 0)
+                break;
+
+            long key = table.getLong(slot * SLOT_BYTES);
+            int home = slotOf(key, mask);
+
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                write(hole, key, location);
+                hole = slot;
+            }
+        }
+
+        write(hole, 0, -1);
+        size--;
+
+        return removed;
+    }
+
+    void forEach(LongConsumer action) {
+
+        int slots = table.capacity() / SLOT_BYTES;
+
+        for (int slot = 0; slot < slots; slot++) {
+            long location = locationAt(slot);
+            if (location >= 0)
+                action.accept(location);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void allocate(int capacity) {
+
+        ByteBuffer previous = table;
+
+        table = ByteBuffer.allocateDirect(capacity * SLOT_BYTES);
+        resizeAt = (int) (capacity * MAX_LOAD);
+
+        if (previous == null)
+            return;
+
+        // Rehash: las claves son únicas, alcanza con el primer slot vacío
+        int mask = capacity - 1;
+
+        for (int offset = 0; offset < previous.capacity(); offset += SLOT_BYTES) {
+
+            long encoded = previous.getLong(offset + 8);
+
+            if (encoded == 0)
+                continue;
+
+            long key = previous.getLong(offset);
+            int slot = slotOf(key, mask);
+
+            while (locationAt(slot) >= 0) {
+                slot = (slot + 1) & mask;
+            }
+
+            write(slot, key, encoded - 1);
+        }
+    }
+
+    private int mask() {
+        return table.capacity() / SLOT_BYTES - 1;
+    }
+
+    private long locationAt(int slot) {
+        return table.getLong(slot * SLOT_BYTES + 8) - 1;
+    }
+
+    private void write(int slot, long h0, long location) {
+        table.putLong(slot * SLOT_BYTES, h0);
+        table.putLong(slot * SLOT_BYTES + 8, location + 1);
+    }
+
+    // h0 ya es la salida de un hash; se vuelve a mezclar (finalizador de Murmur3) para que
+    // el slot dependa de los 64 bits y no solo de los bajos
+    private static int slotOf(long h0, int mask) {
+        long h = h0;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+}
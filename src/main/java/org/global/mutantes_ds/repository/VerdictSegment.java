@@ -0,0 +1,250 @@
+package org.global.mutantes_ds.repository;
+
+import org.global.mutantes_ds.service.DnaHash;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+// Segmento del log de veredictos: archivo de tamaño fijo mapeado en memoria (mmap), solo con appends.
+// Se crea con su tamaño final (el kernel lo completa con ceros), así que el fin de la parte escrita
+// es el primer registro con CRC inválido. id es la posición en memoria (parte alta de las ubicaciones
+// del índice) y sequence el orden en el log (nombre del archivo): un segmento compactado conserva
+// el sequence del original con un id nuevo. Escribir un registro es copiar 48 bytes al mapeo;
+// el kernel los baja a disco, o force() cuando se pide fsync.
+//
+// Formato de cada registro (48 bytes, big-endian):
+//   [0, 32)  hash       [32, 40) created_at en microsegundos (UTC)   [40] flags   [41] fingerprint_version
+//   [42, 44) reservado  [44, 48) CRC32C de los bytes [0, 44)
+//
+// Las escrituras y el recorrido inicial los hace un solo hilo (bajo el lock del store, o el compactador
+// sobre un segmento que todavía no está registrado); las lecturas de registros ya escritos pueden ser
+// concurrentes (get absolutos sobre el mapeo).
+final class VerdictSegment {
+
+    static final int RECORD_BYTES = 48;
+
+    static final byte MUTANT = 1;
+    static final byte TOMBSTONE = 2;
+
+    // Registros por bloque del resumen de created_at
+    static final int BLOCK_RECORDS = 4_096;
+
+    private static final int CREATED_AT_OFFSET = DnaHash.BYTES;
+    private static final int FLAGS_OFFSET = CREATED_AT_OFFSET + Long.BYTES;
+    private static final int VERSION_OFFSET = FLAGS_OFFSET + 1;
+    private static final int CRC_OFFSET = 44;
+
+    final int id;
+    final int sequence;
+    final int capacity;
+
+    // Cambia cuando el segmento compactado reemplaza al archivo original
+    Path path;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final CRC32C crc = new CRC32C();
+
+    // created_at mínimo y máximo de cada bloque de registros: los conteos por fecha saltean los bloques
+    // que no se superponen con el rango (los registros llegan casi en orden de created_at)
+    private final long[] blockMin;
+    private final long[] blockMax;
+
+    // Registros escritos (y válidos)
+    int records;
+
+    // Registros que ya no aportan nada: reemplazados, borrados o lápidas
+    int dead;
+
+    // Lápidas (incluidas en dead)
+    int tombstones;
+
+    private VerdictSegment(int id, int sequence, Path path, FileChannel channel, int capacity) throws IOException {
+        this.id = id;
+        this.sequence = sequence;
+        this.path = path;
+        this.channel = channel;
+        this.capacity = capacity;
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * RECORD_BYTES);
+
+        int blocks = (capacity + BLOCK_RECORDS - 1) / BLOCK_RECORDS;
+        this.blockMin = new long[blocks];
+        this.blockMax = new long[blocks];
+        Arrays.fill(blockMin, Long.MAX_VALUE);
+        Arrays.fill(blockMax, Long.MIN_VALUE);
+    }
+
+    // Un archivo existente conserva su tamaño (se cambió segment-size, o es un segmento compactado)
+    static VerdictSegment open(Path path, int id, int sequence, int capacity) throws IOException {
+
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        try {
+            int existing = (int) Math.min(Integer.MAX_VALUE / RECORD_BYTES, channel.size() / RECORD_BYTES);
+            return new VerdictSegment(id, sequence, path, channel, existing > 0 ? existing : capacity);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    boolean full() {
+        return records == capacity;
+    }
+
+    // Retorna el índice del registro escrito
+    int append(long h0, long h1, long h2, long h3, long createdAtMicros, byte flags, byte version) {
+
+        int index = records;
+        int offset = index * RECORD_BYTES;
+
+        buffer.putLong(offset, h0)
+                .putLong(offset + 8, h1)
+                .putLong(offset + 16, h2)
+                .putLong(offset + 24, h3)
+                .putLong(offset + CREATED_AT_OFFSET, createdAtMicros)
+                .put(offset + FLAGS_OFFSET, flags)
+                .put(offset + VERSION_OFFSET, version)
+                .putShort(offset + VERSION_OFFSET + 1, (short) 0)
+                .putInt(offset + CRC_OFFSET, checksum(offset));
+
+        records++;
+        summarize(index, createdAtMicros);
+
+        if ((flags & TOMBSTONE) != 0)
+            tombstones++;
+
+        return index;
+    }
+
+    // Registro válido encontrado al recorrer el segmento existente
+    void recover(int index) {
+        records = index + 1;
+        summarize(index, createdAtMicros(index));
+    }
+
+    int blocks() {
+        return (records + BLOCK_RECORDS - 1) / BLOCK_RECORDS;
+    }
+
+    // Si el bloque puede tener registros con created_at en [from, to)
+    boolean overlaps(int block, long from, long to) {
+        return blockMin[block] < to && blockMax[block] >= from;
+    }
+
+    private void summarize(int index, long createdAtMicros) {
+        int block = index / BLOCK_RECORDS;
+        blockMin[block] = Math.min(blockMin[block], createdAtMicros);
+        blockMax[block] = Math.max(blockMax[block], createdAtMicros);
+    }
+
+    // Copia un registro de otro segmento (compactación)
+    int copy(VerdictSegment source, int index) {
+        return append(source.h0(index), source.h1(index), source.h2(index), source.h3(index),
+                source.createdAtMicros(index), source.flags(index), source.version(index));
+    }
+
+    boolean valid(int index) {
+        int offset = index * RECORD_BYTES;
+        return checksum(offset) == buffer.getInt(offset + CRC_OFFSET);
+    }
+
+    // Sin nada escrito desde index (un registro a medio escribir no lo está)
+    boolean blankFrom(int index) {
+
+        for (int offset = index * RECORD_BYTES; offset < capacity * RECORD_BYTES; offset += Long.BYTES) {
+            if (buffer.getLong(offset) != 0)
+                return false;
+        }
+
+        return true;
+    }
+
+    void clearFrom(int index) {
+        for (int offset = index * RECORD_BYTES; offset < capacity * RECORD_BYTES; offset += Long.BYTES) {
+            buffer.putLong(offset, 0);
+        }
+    }
+
+    boolean matches(int index, DnaHash hash) {
+        int offset = index * RECORD_BYTES;
+        return buffer.getLong(offset) == hash.h0()
+                && buffer.getLong(offset + 8) == hash.h1()
+                && buffer.getLong(offset + 16) == hash.h2()
+                && buffer.getLong(offset + 24) == hash.h3();
+    }
+
+    DnaHash hash(int index) {
+        return new DnaHash(h0(index), h1(index), h2(index), h3(index));
+    }
+
+    long h0(int index) {
+        return buffer.getLong(index * RECORD_BYTES);
+    }
+
+    long createdAtMicros(int index) {
+        return buffer.getLong(index * RECORD_BYTES + CREATED_AT_OFFSET);
+    }
+
+    byte flags(int index) {
+        return buffer.get(index * RECORD_BYTES + FLAGS_OFFSET);
+    }
+
+    boolean mutant(int index) {
+        return (flags(index) & MUTANT) != 0;
+    }
+
+    boolean tombstone(int index) {
+        return (flags(index) & TOMBSTONE) != 0;
+    }
+
+    byte version(int index) {
+        return buffer.get(index * RECORD_BYTES + VERSION_OFFSET);
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    void close() throws IOException {
+        channel.close();
+    }
+
+    // Reemplaza atómicamente al archivo target (el segmento que se compactó, todavía mapeado por el original)
+    void moveTo(Path target) throws IOException {
+        Files.move(path, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        path = target;
+    }
+
+    // El mapeo sigue vigente hasta que el GC libera el buffer; en Linux borrar el archivo no lo afecta
+    void delete() throws IOException {
+        channel.close();
+        Files.deleteIfExists(path);
+    }
+
+    private long h1(int index) {
+        return buffer.getLong(index * RECORD_BYTES + 8);
+    }
+
+    private long h2(int index) {
+        return buffer.getLong(index * RECORD_BYTES + 16);
+    }
+
+    private long h3(int index) {
+        return buffer.getLong(index * RECORD_BYTES + 24);
+    }
+
+    private int checksum(int offset) {
+        crc.reset();
+        crc.update(buffer.slice(offset, CRC_OFFSET));
+        return (int) crc.getValue();
+    }
+}
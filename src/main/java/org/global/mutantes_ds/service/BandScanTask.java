@@ -0,0 +1,55 @@
+package org.global.mutantes_ds.service;
+
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntUnaryOperator;
+
+// Tarea fork/join que recorre la banda horizontal de filas [fromRow, toRow).
+// Las filas de la banda leen hasta 3 filas por debajo (↓, ↘) y por encima (↗): ese halo
+// se lee directo de la matriz compartida (solo lectura), sin copiar las bandas.
+// Todas las tareas comparten un contador atómico y dejan de trabajar apenas supera 1.
+final class BandScanTask extends RecursiveAction {
+
+    private final IntUnaryOperator rowCounter;
+    private final int fromRow;
+    private final int toRow;
+    private final int bandRows;
+    private final AtomicInteger sequences;
+
+    BandScanTask(IntUnaryOperator rowCounter, int fromRow, int toRow,
+                 int bandRows, AtomicInteger sequences) {
+        this.rowCounter = rowCounter;
+        this.fromRow = fromRow;
+        this.toRow = toRow;
+        this.bandRows = bandRows;
+        this.sequences = sequences;
+    }
+
+    @Override
+    protected void compute() {
+
+        // Otra banda ya encontró suficientes secuencias
+        if (sequences.get() > 1)
+            return;
+
+        if (toRow - fromRow > bandRows) {
+            int middle = (fromRow + toRow) >>> 1;
+            invokeAll(
+                    new BandScanTask(rowCounter, fromRow, middle, bandRows, sequences),
+                    new BandScanTask(rowCounter, middle, toRow, bandRows, sequences)
+            );
+            return;
+        }
+
+        for (int row = fromRow; row < toRow; row++) {
+
+            if (sequences.get() > 1)
+                return;
+
+            int found = rowCounter.applyAsInt(row);
+
+            if (found > 0)
+                sequences.addAndGet(found);
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package org.global.mutantes_ds.service;
+
+import org.global.mutantes_ds.validation.DnaValidation;
+
+import java.nio.charset.StandardCharsets;
+
+// Matriz NxN de ADN empaquetada a 2 bits por base (A=00, C=01, G=10, T=11).
+// Cada fila ocupa ceil(N / 32) words de 64 bits; la base de la columna c queda en los
+// bits 2*(c % 32) y 2*(c % 32) + 1 de la word c / 32.
+// Las secuencias de 4 se buscan comparando words completas (32 bases por operación).
+public final class BitPackedDnaMatrix {
+
+    private static final int SEQUENCE = 4;
+    private static final int BASES_PER_WORD = 32;
+
+    // Bit bajo de cada par de bits: una posición por base
+    private static final long LOW_BITS = 0x5555555555555555L;
+
+    // Base ASCII de cada código de 2 bits
+    private static final byte[] ASCII = {'A', 'C', 'G', 'T'};
+
+    private final int n;
+    private final int wordsPerRow;
+    private final long[] words;
+
+    private BitPackedDnaMatrix(int n) {
+        this.n = n;
+        this.wordsPerRow = (n + BASES_PER_WORD - 1) / BASES_PER_WORD;
+        this.words = new long[n * wordsPerRow];
+    }
+
+    // Codifica y valida en una sola pasada, leyendo cada fila sin copiarla.
+    // Retorna null si el ADN no es una matriz NxN de bases A, T, C, G.
+    public static BitPackedDnaMatrix encode(String[] dna) {
+
+        if (dna == null || dna.length == 0)
+            return null;
+
+        int n = dna.length;
+        BitPackedDnaMatrix matrix = new BitPackedDnaMatrix(n);
+
+        for (int row = 0; row < n; row++) {
+
+            String bases = dna[row];
+
+            if (bases == null || bases.length() != n)
+                return null;
+
+            int offset = row * matrix.wordsPerRow;
+            long word = 0;
+
+            for (int col = 0; col < n; col++) {
+
+                int code = DnaValidation.code(bases.charAt(col));
+
+                if (code < 0)
+                    return null;
+
+                word |= (long) code << ((col & (BASES_PER_WORD - 1)) << 1);
+
+                if ((col & (BASES_PER_WORD - 1)) == BASES_PER_WORD - 1) {
+                    matrix.words[offset + col / BASES_PER_WORD] = word;
+                    word = 0;
+                }
+            }
+
+            if (n % BASES_PER_WORD != 0)
+                matrix.words[offset + n / BASES_PER_WORD] = word;
+        }
+
+        return matrix;
+    }
+
+    // Matriz NxN vacía para completar fila por fila (por ejemplo, mientras se parsea el JSON)
+    public static BitPackedDnaMatrix ofSize(int n) {
+        return new BitPackedDnaMatrix(n);
+    }
+
+    // Codifica la fila a partir de chars[offset .. offset + N) sin copiarla.
+    // Retorna la columna de la primera base inválida, o -1 si la fila es válida.
+    public int encodeRow(int row, char[] chars, int offset) {
+
+        int rowOffset = row * wordsPerRow;
+        long word = 0;
+
+        for (int col = 0; col < n; col++) {
+
+            int code = DnaValidation.code(chars[offset + col]);
+
+            if (code < 0)
+                return col;
+
+            word |= (long) code << ((col & (BASES_PER_WORD - 1)) << 1);
+
+            if ((col & (BASES_PER_WORD - 1)) == BASES_PER_WORD - 1) {
+                words[rowOffset + col / BASES_PER_WORD] = word;
+                word = 0;
+            }
+        }
+
+        if (n % BASES_PER_WORD != 0)
+            words[rowOffset + n / BASES_PER_WORD] = word;
+
+        return -1;
+    }
+
+    // Copia una fila ya empaquetada: ceil(N / 4) bytes desde packed[offset], 4 bases por byte con la
+    // primera en los bits bajos. Es el mismo orden que las words: cada 8 bytes son una word little-endian.
+    // Los bits de relleno después de la columna N - 1 deben venir en cero.
+    public void setPackedRow(int row, byte[] packed, int offset) {
+
+        int rowOffset = row * wordsPerRow;
+        int rowBytes = (n + 3) / 4;
+
+        for (int w = 0; w < wordsPerRow; w++) {
+
+            int start = w * Long.BYTES;
+            int end = Math.min(start + Long.BYTES, rowBytes);
+            long word = 0;
+
+            for (int b = start; b < end; b++) {
+                word |= (packed[offset + b] & 0xFFL) << ((b - start) << 3);
+            }
+
+            words[rowOffset + w] = word;
+        }
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public char baseAt(int row, int col) {
+        long word = words[row * wordsPerRow + col / BASES_PER_WORD];
+        int code = (int) (word >>> ((col % BASES_PER_WORD) << 1)) & 0b11;
+        return "ACGT".charAt(code);
+    }
+
+    // Escribe la fila como bytes ASCII (A, C, G, T) en out[0 .. N)
+    public void copyRow(int row, byte[] out) {
+
+        int rowOffset = row * wordsPerRow;
+
+        for (int col = 0; col < n; col++) {
+            long word = words[rowOffset + col / BASES_PER_WORD];
+            out[col] = ASCII[(int) (word >>> ((col % BASES_PER_WORD) << 1)) & 0b11];
+        }
+    }
+
+    // Inversa de encode: el ADN como texto, una fila por String
+    public String[] decode() {
+
+        String[] dna = new String[n];
+        byte[] row = new byte[n];
+
+        for (int r = 0; r < n; r++) {
+            copyRow(r, row);
+            dna[r] = new String(row, StandardCharsets.US_ASCII);
+        }
+
+        return dna;
+    }
+
+    // Cuenta las secuencias de 4 bases iguales (→, ↓, ↘, ↗) con el mismo criterio que
+    // el recorrido escalar: cada posición inicial válida cuenta como una secuencia.
+    // Corta apenas la cuenta supera el límite, igual que el "sequences > 1" del detector.
+    public int countSequences(int limit) {
+
+        int sequences = 0;
+
+        for (int row = 0; row < n && sequences <= limit; row++) {
+            sequences += countRowSequences(row);
+        }
+
+        return sequences;
+    }
+
+    // Secuencias que empiezan en la fila dada. Lee hasta 3 filas por debajo (↓, ↘)
+    // y por encima (↗), por lo que distintas filas pueden contarse en paralelo.
+    public int countRowSequences(int row) {
+
+        int offset = row * wordsPerRow;
+        int sequences = 0;
+
+        for (int w = 0; w < wordsPerRow; w++) {
+
+            long base = words[offset + w];
+            long starts = startMask(w);
+
+            // →
+            sequences += Long.bitCount(
+                    equal(base, shifted(offset, w, 1))
+                            & equal(base, shifted(offset, w, 2))
+                            & equal(base, shifted(offset, w, 3))
+                            & starts);
+
+            if (row <= n - SEQUENCE) {
+
+                // ↓
+                sequences += Long.bitCount(
+                        equal(base, words[offset + wordsPerRow + w])
+                                & equal(base, words[offset + 2 * wordsPerRow + w])
+                                & equal(base, words[offset + 3 * wordsPerRow + w])
+                                & columnMask(w));
+
+                // ↘
+                sequences += Long.bitCount(
+                        equal(base, shifted(offset + wordsPerRow, w, 1))
+                                & equal(base, shifted(offset + 2 * wordsPerRow, w, 2))
+                                & equal(base, shifted(offset + 3 * wordsPerRow, w, 3))
+                                & starts);
+            }
+
+            // ↗
+            if (row >= SEQUENCE - 1) {
+                sequences += Long.bitCount(
+                        equal(base, shifted(offset - wordsPerRow, w, 1))
+                                & equal(base, shifted(offset - 2 * wordsPerRow, w, 2))
+                                & equal(base, shifted(offset - 3 * wordsPerRow, w, 3))
+                                & starts);
+            }
+        }
+
+        return sequences;
+    }
+
+    // Word w de la fila que empieza en rowOffset, desplazada k bases hacia la izquierda
+    // (la posición c del resultado contiene la base c + k de la fila).
+    private long shifted(int rowOffset, int w, int k) {
+
+        long value = words[rowOffset + w] >>> (k << 1);
+
+        if (w + 1 < wordsPerRow)
+            value |= words[rowOffset + w + 1] << (64 - (k << 1));
+
+        return value;
+    }
+
+    // Bit bajo encendido en cada posición donde ambas words tienen la misma base
+    private static long equal(long a, long b) {
+        long same = ~(a ^ b);
+        return same & (same >>> 1) & LOW_BITS;
+    }
+
+    // Posiciones de la word w donde puede empezar una secuencia horizontal o diagonal
+    private long startMask(int w) {
+        return lowBits(n - (SEQUENCE - 1) - w * BASES_PER_WORD);
+    }
+
+    // Posiciones de la word w que corresponden a columnas reales (no relleno)
+    private long columnMask(int w) {
+        return lowBits(n - w * BASES_PER_WORD);
+    }
+
+    private static long lowBits(int count) {
+        if (count <= 0)
+            return 0;
+        if (count >= BASES_PER_WORD)
+            return LOW_BITS;
+        return LOW_BITS & ((1L << (count << 1)) - 1);
+    }
+}
@@ -0,0 +1,15 @@
+package org.global.mutantes_ds.service;
+
+// Motores disponibles en MutantDetector.
+// Se elige con la property mutant.detector.engine para poder compararlos en producción.
+public enum DetectionEngine {
+
+    // Matriz char[][] + check(...) celda por celda (implementación original)
+    SCALAR,
+
+    // Matriz empaquetada a 2 bits por base en words de 64 bits (BitPackedDnaMatrix)
+    BITPACKED,
+
+    // Vector API (jdk.incubator.vector); si el módulo no está presente se usa SCALAR
+    VECTOR
+}
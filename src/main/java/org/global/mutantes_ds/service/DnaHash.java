@@ -0,0 +1,41 @@
+package org.global.mutantes_ds.service;
+
+import java.nio.ByteBuffer;
+import java.util.HexFormat;
+
+// Clave de deduplicación de un ADN en binario (32 bytes como 4 longs, ver DnaHasher).
+// Es la clave en memoria y en dna_records.dna_hash (VARBINARY(32), ver DnaHashConverter);
+// la forma hex de 64 caracteres solo se usa en el borde REST (DELETE /mutant/{hash} y respuestas).
+public record DnaHash(long h0, long h1, long h2, long h3) {
+
+    public static final int BYTES = 32;
+
+    public static DnaHash of(byte[] digest) {
+
+        if (digest.length != BYTES)
+            throw new IllegalArgumentException("El hash debe tener " + BYTES + " bytes");
+
+        ByteBuffer buffer = ByteBuffer.wrap(digest);
+        return new DnaHash(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+    }
+
+    // Lanza IllegalArgumentException si no es un hex válido de 64 caracteres
+    public static DnaHash fromHex(String hex) {
+        return of(HexFormat.of().parseHex(hex));
+    }
+
+    public byte[] toBytes() {
+        return ByteBuffer.allocate(BYTES)
+                .putLong(h0).putLong(h1).putLong(h2).putLong(h3)
+                .array();
+    }
+
+    public String toHex() {
+        return HexFormat.of().formatHex(toBytes());
+    }
+
+    @Override
+    public String toString() {
+        return toHex();
+    }
+}
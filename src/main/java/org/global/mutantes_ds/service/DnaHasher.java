@@ -0,0 +1,192 @@
+package org.global.mutantes_ds.service;
+
+import org.global.mutantes_ds.exception.DnaHashCalculationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// Calcula la clave binaria (DnaHash) de un ADN fila por fila.
+// Huella canónica: N como int de 4 bytes (big-endian) y luego las N filas. Con N fijo el corte
+// entre filas queda determinado, así que dos matrices distintas nunca comparten la entrada del hash
+// (sin el prefijo, ["AAAAAAAA", ...] y ["AAAA", "AAAA", ...] podían concatenar igual).
+// Los MessageDigest de SHA-256 se reutilizan desde un pool acotado: con virtual threads un
+// ThreadLocal crearía un digest por request, y getInstance() en cada llamada busca el provider.
+// El bean de Spring mide cada sesión en mutant.hash: los parsers de /mutant hashean fila por fila
+// mientras leen el body, así que solo se suma el tiempo dentro de update() y finish().
+@Component
+public class DnaHasher {
+
+    // dna_records.fingerprint_version: 0 = filas concatenadas sin prefijo (registros anteriores)
+    public static final int LEGACY_FINGERPRINT = 0;
+    public static final int FINGERPRINT_VERSION = 1;
+
+    private final HashAlgorithm algorithm;
+    private final BlockingQueue<MessageDigest> digests;
+
+    // null: sesiones sin medir (hashers armados a mano, como el default de los parsers)
+    private final MutantMetrics metrics;
+
+    public DnaHasher(HashAlgorithm algorithm) {
+        this(algorithm, null);
+    }
+
+    @Autowired
+    public DnaHasher(@Value("${mutant.hash.algorithm:SHA256}") HashAlgorithm algorithm, MutantMetrics metrics) {
+        this.algorithm = algorithm;
+        this.digests = new ArrayBlockingQueue<>(Runtime.getRuntime().availableProcessors() * 2);
+        this.metrics = metrics;
+    }
+
+    public HashAlgorithm algorithm() {
+        return algorithm;
+    }
+
+    // Hash incremental de una matriz NxN: escribe el prefijo y espera update() por fila y finish() al final
+    public Session newSession(int n) {
+
+        Session session = metrics == null ? rawSession() : new TimedSession(rawSession(), metrics);
+        byte[] prefix = {(byte) (n >>> 24), (byte) (n >>> 16), (byte) (n >>> 8), (byte) n};
+        session.update(prefix, 0, prefix.length);
+
+        return session;
+    }
+
+    public DnaHash hash(String[] dna) {
+        return hashRows(newSession(dna.length), dna);
+    }
+
+    // Huella anterior (sin N) de un registro guardado antes de fingerprint_version.
+    // Solo se usa para encontrar y re-escribir esos registros (ver LegacyFingerprints)
+    public DnaHash legacyHash(String[] dna) {
+        return hashRows(rawSession(), dna);
+    }
+
+    public DnaHash legacyHash(BitPackedDnaMatrix matrix) {
+
+        Session session = rawSession();
+        byte[] row = new byte[matrix.size()];
+
+        for (int r = 0; r < matrix.size(); r++) {
+            matrix.copyRow(r, row);
+            session.update(row, 0, row.length);
+        }
+
+        return session.finish();
+    }
+
+    public interface Session {
+
+        void update(byte[] bytes, int offset, int length);
+
+        // Retorna la clave. La sesión no se puede usar después
+        DnaHash finish();
+    }
+
+    private static DnaHash hashRows(Session session, String[] dna) {
+
+        for (String row : dna) {
+            if (row != null) {
+                // Las bases válidas son ASCII: mismo resultado con cualquier charset por defecto
+                byte[] bytes = row.getBytes(StandardCharsets.US_ASCII);
+                session.update(bytes, 0, bytes.length);
+            }
+        }
+
+        return session.finish();
+    }
+
+    private Session rawSession() {
+        return algorithm == HashAlgorithm.MURMUR3_128 ? new MurmurSession() : new Sha256Session(borrow());
+    }
+
+    private MessageDigest borrow() {
+
+        MessageDigest digest = digests.poll();
+
+        if (digest != null)
+            return digest;
+
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new DnaHashCalculationException("Error al calcular hash del ADN", e);
+        }
+    }
+
+    // digest() ya deja el MessageDigest reseteado. Si el pool está lleno se descarta;
+    // una sesión abandonada (ADN inválido a mitad del parseo) simplemente no lo devuelve
+    private void release(MessageDigest digest) {
+        digests.offer(digest);
+    }
+
+    private final class Sha256Session implements Session {
+
+        private final MessageDigest digest;
+
+        private Sha256Session(MessageDigest digest) {
+            this.digest = digest;
+        }
+
+        @Override
+        public void update(byte[] bytes, int offset, int length) {
+            digest.update(bytes, offset, length);
+        }
+
+        @Override
+        public DnaHash finish() {
+            DnaHash hash = DnaHash.of(digest.digest());
+            release(digest);
+            return hash;
+        }
+    }
+
+    // Acumula solo el tiempo de hash: entre fila y fila el parser sigue leyendo el body
+    private static final class TimedSession implements Session {
+
+        private final Session session;
+        private final MutantMetrics metrics;
+        private long nanos;
+
+        private TimedSession(Session session, MutantMetrics metrics) {
+            this.session = session;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public void update(byte[] bytes, int offset, int length) {
+            long start = System.nanoTime();
+            session.update(bytes, offset, length);
+            nanos += System.nanoTime() - start;
+        }
+
+        @Override
+        public DnaHash finish() {
+            long start = System.nanoTime();
+            DnaHash hash = session.finish();
+            metrics.recordHash(nanos + System.nanoTime() - start);
+            return hash;
+        }
+    }
+
+    private static final class MurmurSession implements Session {
+
+        private final Murmur3Hash128 murmur = new Murmur3Hash128();
+
+        @Override
+        public void update(byte[] bytes, int offset, int length) {
+            murmur.update(bytes, offset, length);
+        }
+
+        @Override
+        public DnaHash finish() {
+            long[] hash = murmur.finish();
+            return new DnaHash(hash[0], hash[1], 0, 0);
+        }
+    }
+}
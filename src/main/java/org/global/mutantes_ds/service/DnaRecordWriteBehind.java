@@ -0,0 +1,320 @@
+package org.global.mutantes_ds.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.global.mutantes_ds.entity.DnaRecord;
+import org.global.mutantes_ds.repository.DnaVerdictStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Persistencia write-behind de DnaRecord.
+// Los veredictos nuevos se encolan (cola acotada) y un hilo dedicado los guarda en lotes:
+// espera hasta linger-ms o hasta juntar batch-size registros y hace una única inserción en el store
+// (un batch JDBC con el backend jpa, un solo append con el embebido).
+// Si el lote falla se reintenta registro por registro; lo que sigue sin guardarse vuelve al próximo lote
+// con backoff exponencial y su hash queda en pending (el veredicto ya respondido no se pierde).
+// Al apagar la aplicación se vacía la cola antes de cerrar.
+@Slf4j
+@Component
+public class DnaRecordWriteBehind {
+
+    private final DnaVerdictStore verdictStore;
+    private final TransactionTemplate transactionTemplate;
+    private final DnaStatsTracker statsTracker;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final BlockingQueue<DnaRecord> queue;
+
+    // Backoff entre reintentos de registros que no se pudieron guardar
+    static final long RETRY_BACKOFF_MIN_MS = 50;
+    static final long RETRY_BACKOFF_MAX_MS = 5_000;
+
+    // Tiempo máximo que stop() espera al hilo antes de vaciar la cola él mismo
+    private static final long STOP_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(30);
+
+    // Tiempo máximo que awaitPersisted espera un veredicto pendiente (cubre un reintento con el backoff máximo)
+    static final long AWAIT_PERSISTED_TIMEOUT_MS = 2 * RETRY_BACKOFF_MAX_MS;
+
+    // enqueue toma el read lock para chequear running y encolar; stop() el write lock para apagar.
+    // Así ningún registro entra a la cola después de que stop() empezó a esperar el vaciado.
+    private final ReadWriteLock runningLock = new ReentrantReadWriteLock();
+
+    // Registros de lotes fallidos que se reintentan en el próximo lote (solo los toca el hilo del flusher,
+    // y stop() después del join)
+    private final List<DnaRecord> retry = new ArrayList<>();
+
+    // Veredictos encolados que todavía no llegaron a la base (hash → es mutante)
+    private final Map<DnaHash, Boolean> pending = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public DnaRecordWriteBehind(
+            DnaVerdictStore verdictStore,
+            PlatformTransactionManager transactionManager,
+            DnaStatsTracker statsTracker,
+            @Value("${mutant.persistence.write-behind.enabled:false}") boolean enabled,
+            @Value("${mutant.persistence.write-behind.batch-size:500}") int batchSize,
+            @Value("${mutant.persistence.write-behind.linger-ms:20}") long lingerMs,
+            @Value("${mutant.persistence.write-behind.queue-capacity:10000}") int queueCapacity
+    ) {
+        this.verdictStore = verdictStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.statsTracker = statsTracker;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    void start() {
+
+        if (!enabled)
+            return;
+
+        running = true;
+        flusher = Thread.ofPlatform()
+                .name("dna-write-behind")
+                .daemon()
+                .start(this::flushLoop);
+
+        log.info("Write-behind de DnaRecord activo (batch-size={}, linger={}ms)",
+                batchSize, TimeUnit.NANOSECONDS.toMillis(lingerNanos));
+    }
+
+    // Deja de aceptar lotes nuevos y espera a que se persista lo que quedó en la cola.
+    // Si el hilo no terminó a tiempo (o murió), lo que quede se guarda desde acá.
+    @PreDestroy
+    void stop() throws InterruptedException {
+
+        if (flusher == null)
+            return;
+
+        runningLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            runningLock.writeLock().unlock();
+        }
+
+        flusher.join(STOP_TIMEOUT_MS);
+
+        if (flusher.isAlive()) {
+            log.warn("Write-behind sin terminar después de {}ms, vaciando la cola al apagar", STOP_TIMEOUT_MS);
+            flusher.interrupt();
+            flusher.join(STOP_TIMEOUT_MS);
+        }
+
+        List<DnaRecord> remaining = new ArrayList<>();
+
+        // Trabado en la base: los reintentos siguen siendo suyos, solo se vacía la cola
+        if (flusher.isAlive()) {
+            log.error("Write-behind trabado al apagar con {} registros por reintentar", retry.size());
+        } else {
+            remaining.addAll(retry);
+            retry.clear();
+        }
+
+        queue.drainTo(remaining);
+
+        if (remaining.isEmpty())
+            return;
+
+        List<DnaRecord> lost = flush(remaining);
+
+        if (!lost.isEmpty())
+            log.error("Apagado con {} registros de ADN sin persistir", lost.size());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Veredicto de un hash encolado pero todavía no persistido
+    public Optional<Boolean> pendingVerdict(DnaHash hash) {
+        return Optional.ofNullable(pending.get(hash));
+    }
+
+    // Encola el registro. Si la cola está llena bloquea (backpressure sobre las requests).
+    public void enqueue(DnaRecord record) {
+
+        // El mismo hash ya está en camino a la base
+        if (pending.putIfAbsent(record.getDnaHash(), record.isMutant()) != null)
+            return;
+
+        runningLock.readLock().lock();
+        try {
+            if (running) {
+                // El flusher sigue drenando mientras se tenga el read lock: un put bloqueado termina
+                queue.put(record);
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.remove(record.getDnaHash());
+            throw new IllegalStateException("Interrumpido mientras se encolaba el ADN", e);
+        } finally {
+            runningLock.readLock().unlock();
+        }
+
+        // Apagándose (o deshabilitado): se guarda directamente y un error llega al caller
+        try {
+            persist(List.of(record));
+        } finally {
+            pending.remove(record.getDnaHash());
+        }
+    }
+
+    // Espera a que el veredicto pendiente del hash llegue a la base. Un DELETE tiene que correr después:
+    // si no, el flusher volvería a escribir el registro recién eliminado
+    public void awaitPersisted(DnaHash hash) {
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(AWAIT_PERSISTED_TIMEOUT_MS);
+
+        while (pending.containsKey(hash)) {
+
+            if (System.nanoTime() - deadline > 0)
+                throw new IllegalStateException("El ADN todavía no se pudo persistir");
+
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrumpido mientras se esperaba la persistencia del ADN", e);
+            }
+        }
+    }
+
+    public int queueSize() {
+        return queue.size();
+    }
+
+    private void flushLoop() {
+
+        List<DnaRecord> batch = new ArrayList<>(batchSize);
+        long backoffMs = 0;
+
+        while (running || !queue.isEmpty() || (!retry.isEmpty() && backoffMs < RETRY_BACKOFF_MAX_MS)) {
+            try {
+                // Primero lo que falló en el lote anterior, después esperar registros nuevos
+                batch.addAll(retry);
+                retry.clear();
+
+                if (batch.isEmpty()) {
+
+                    DnaRecord first = queue.poll(lingerNanos, TimeUnit.NANOSECONDS);
+
+                    if (first == null)
+                        continue;
+
+                    batch.add(first);
+                }
+
+                // Junta más registros hasta completar el lote o agotar el linger
+                long deadline = System.nanoTime() + lingerNanos;
+
+                while (batch.size() < batchSize) {
+
+                    queue.drainTo(batch, batchSize - batch.size());
+
+                    long remaining = deadline - System.nanoTime();
+
+                    if (batch.size() >= batchSize || remaining <= 0)
+                        break;
+
+                    DnaRecord next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+
+                    if (next == null)
+                        break;
+
+                    batch.add(next);
+                }
+
+                // El store recibe su propia lista: batch se reutiliza para el próximo lote
+                retry.addAll(flush(List.copyOf(batch)));
+                batch.clear();
+
+                if (retry.isEmpty()) {
+                    backoffMs = 0;
+                    continue;
+                }
+
+                // Base caída o con errores: esperar antes de reintentar, sin soltar los registros
+                backoffMs = backoffMs == 0 ? RETRY_BACKOFF_MIN_MS : Math.min(backoffMs * 2, RETRY_BACKOFF_MAX_MS);
+                log.warn("{} registros de ADN sin persistir, reintento en {}ms", retry.size(), backoffMs);
+                Thread.sleep(backoffMs);
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                retry.addAll(batch);
+                log.warn("Write-behind interrumpido con {} registros en cola y {} por reintentar",
+                        queue.size(), retry.size());
+                return;
+            }
+        }
+    }
+
+    // Guarda el lote; si falla, registro por registro. Retorna los que no se pudieron guardar,
+    // que siguen en pending.
+    private List<DnaRecord> flush(List<DnaRecord> batch) {
+        try {
+            int count = persist(batch);
+            batch.forEach(record -> pending.remove(record.getDnaHash()));
+
+            log.debug("Lote de {} registros persistido ({} nuevos)", batch.size(), count);
+            return List.of();
+
+        } catch (RuntimeException e) {
+            log.error("No se pudo persistir un lote de {} registros de ADN, reintentando uno por uno",
+                    batch.size(), e);
+        }
+
+        List<DnaRecord> failed = new ArrayList<>();
+
+        for (DnaRecord record : batch) {
+            try {
+                persist(List.of(record));
+                pending.remove(record.getDnaHash());
+            } catch (RuntimeException e) {
+                failed.add(record);
+            }
+        }
+
+        return failed;
+    }
+
+    // Las estadísticas se registran en la misma transacción y cambian recién con el commit;
+    // solo los hashes realmente nuevos cuentan para /stats
+    private int persist(List<DnaRecord> batch) {
+        return transactionTemplate.execute(status -> {
+
+            boolean[] inserted = verdictStore.insertIfAbsent(batch);
+            List<DnaRecord> created = new ArrayList<>(batch.size());
+
+            for (int i = 0; i < batch.size(); i++) {
+                if (inserted[i])
+                    created.add(batch.get(i));
+            }
+
+            statsTracker.recordInserted(created);
+            return created.size();
+        });
+    }
+}
@@ -0,0 +1,284 @@
+package org.global.mutantes_ds.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.global.mutantes_ds.entity.DnaRecord;
+import org.global.mutantes_ds.repository.DnaStatsBucketRepository;
+import org.global.mutantes_ds.repository.DnaVerdictStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Mantiene las estadísticas a medida que cambian los DnaRecord:
+// - contadores en memoria de mutantes y humanos para /stats (cargados una vez al arrancar)
+// - rollup por minuto (dna_stats_rollup) para /stats por rango de fechas
+// Solo se actualizan cuando realmente se inserta o elimina un registro (nunca en un ADN repetido).
+// El rollup no se toca en cada insert (todas las requests del mismo minuto pelearían por la misma fila):
+// los cambios confirmados se suman en memoria por minuto y un solo hilo los escribe cada rollup-flush-ms,
+// una sentencia por minuto con cambios. /stats por rango suma también lo que todavía no se escribió.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DnaStatsTracker {
+
+    // Granularidad del rollup
+    public static final ChronoUnit BUCKET = ChronoUnit.MINUTES;
+
+    private final DnaVerdictStore verdictStore;
+    private final DnaStatsBucketRepository bucketRepository;
+
+    private final LongAdder mutants = new LongAdder();
+    private final LongAdder humans = new LongAdder();
+
+    // Cambios confirmados que todavía no llegaron a dna_stats_rollup: bucket → {mutantes, humanos}.
+    // Los arrays no se modifican: merge reemplaza el valor y remove se lleva el total de ese momento
+    private final NavigableMap<LocalDateTime, long[]> pendingBuckets = new ConcurrentSkipListMap<>();
+
+    // Cada cuánto se escriben los buckets pendientes
+    @Value("${mutant.stats.rollup-flush-ms:1000}")
+    private long rollupFlushMs = 1000;
+
+    private ScheduledExecutorService rollupFlusher;
+
+    // Una transacción que registra cambios del rollup toma el read lock desde antes de su commit hasta que
+    // terminó; la reconstrucción toma el write lock mientras lee el store. Así cada alta o baja queda en una
+    // sola de las dos partes: en lo que lee la reconstrucción (y su pendiente ya se descartó) o en pendientes
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    public void seed() {
+
+        mutants.reset();
+        humans.reset();
+
+        mutants.add(verdictStore.count(true));
+        humans.add(verdictStore.count(false));
+
+        log.info("Estadísticas iniciales: {} mutantes, {} humanos", mutants.sum(), humans.sum());
+    }
+
+    // Registros existentes sin rollup (base creada antes de esta tabla, o store embebido
+    // persistente con el rollup de H2 en memoria vacío después de reiniciar)
+    // Corre antes de startRollupFlusher: un flush previo dejaría el rollup no vacío y sin reconstruir
+    @Transactional
+    @Order(0)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildRollupIfEmpty() {
+
+        if (bucketRepository.count() > 0 || mutants.sum() + humans.sum() == 0)
+            return;
+
+        Map<LocalDateTime, long[]> totals;
+
+        // Solo al arrancar: los commits que registran estadísticas esperan a que termine la lectura
+        rebuildLock.writeLock().lock();
+        try {
+            // Lo pendiente ya está confirmado, así que también está en los totales del store
+            pendingBuckets.clear();
+            totals = verdictStore.countByMinute();
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+
+        totals.forEach((bucket, minute) -> bucketRepository.addToBucket(bucket, minute[0], minute[1]));
+
+        log.info("Rollup de estadísticas reconstruido: {} buckets", totals.size());
+    }
+
+    @Order(1)
+    @EventListener(ApplicationReadyEvent.class)
+    public void startRollupFlusher() {
+
+        rollupFlusher = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("stats-rollup-flusher").daemon().factory());
+        rollupFlusher.scheduleWithFixedDelay(this::flushRollup, rollupFlushMs, rollupFlushMs, TimeUnit.MILLISECONDS);
+    }
+
+    // Lo que quedó pendiente se escribe antes de cerrar (el write-behind, que depende de este bean, ya se vació)
+    @PreDestroy
+    void stop() throws InterruptedException {
+
+        if (rollupFlusher != null) {
+            rollupFlusher.shutdown();
+            rollupFlusher.awaitTermination(30, TimeUnit.SECONDS);
+        }
+
+        flushRollup();
+
+        if (!pendingBuckets.isEmpty())
+            log.error("Apagado con {} buckets del rollup sin escribir", pendingBuckets.size());
+    }
+
+    public void recordInserted(boolean isMutant, LocalDateTime createdAt) {
+        recordAfterCommit(() -> {
+            addToBucket(createdAt, isMutant, 1);
+            counter(isMutant).increment();
+        });
+    }
+
+    // Lote recién insertado: se agrupa por minuto antes de sumarlo al rollup
+    public void recordInserted(List<DnaRecord> records) {
+
+        Map<LocalDateTime, long[]> buckets = new TreeMap<>();
+
+        for (DnaRecord record : records) {
+            long[] totals = buckets.computeIfAbsent(bucketOf(record.getCreatedAt()), b -> new long[2]);
+            totals[record.isMutant() ? 0 : 1]++;
+        }
+
+        recordAfterCommit(() -> {
+            buckets.forEach((bucket, totals) -> addPending(bucket, totals[0], totals[1]));
+            records.forEach(record -> counter(record.isMutant()).increment());
+        });
+    }
+
+    public void recordDeleted(boolean isMutant, LocalDateTime createdAt) {
+        recordAfterCommit(() -> {
+            addToBucket(createdAt, isMutant, -1);
+            counter(isMutant).decrement();
+        });
+    }
+
+    // Cambios todavía no escritos de los buckets con bucket_start en [from, to): {mutantes, humanos}
+    public long[] pendingBetween(LocalDateTime from, LocalDateTime to) {
+
+        long[] totals = new long[2];
+
+        for (long[] bucket : pendingBuckets.subMap(from, to).values()) {
+            totals[0] += bucket[0];
+            totals[1] += bucket[1];
+        }
+
+        return totals;
+    }
+
+    // Un MERGE por minuto con cambios, cada uno en su transacción. El cambio sigue en pendientes
+    // hasta que el MERGE se confirmó (un /stats por rango nunca lo pierde de vista) y recién ahí se descuenta
+    // lo escrito; lo que llegó mientras tanto queda para el próximo flush. Si la base falla, se reintenta
+    synchronized void flushRollup() {
+
+        for (Map.Entry<LocalDateTime, long[]> entry : pendingBuckets.entrySet()) {
+
+            LocalDateTime bucket = entry.getKey();
+            long[] written = entry.getValue();
+
+            if (written[0] == 0 && written[1] == 0) {
+                pendingBuckets.remove(bucket, written);
+                continue;
+            }
+
+            try {
+                bucketRepository.addToBucket(bucket, written[0], written[1]);
+            } catch (RuntimeException e) {
+                log.warn("No se pudo escribir el rollup de estadísticas ({} buckets pendientes)",
+                        pendingBuckets.size(), e);
+                return;
+            }
+
+            pendingBuckets.computeIfPresent(bucket, (b, current) -> {
+                long mutantDelta = current[0] - written[0];
+                long humanDelta = current[1] - written[1];
+                return mutantDelta == 0 && humanDelta == 0 ? null : new long[]{mutantDelta, humanDelta};
+            });
+        }
+    }
+
+    public long mutants() {
+        return mutants.sum();
+    }
+
+    public long humans() {
+        return humans.sum();
+    }
+
+    public static LocalDateTime bucketOf(LocalDateTime createdAt) {
+        return createdAt.truncatedTo(BUCKET);
+    }
+
+    private void addToBucket(LocalDateTime createdAt, boolean isMutant, long delta) {
+        addPending(bucketOf(createdAt), isMutant ? delta : 0, isMutant ? 0 : delta);
+    }
+
+    private void addPending(LocalDateTime bucket, long mutantDelta, long humanDelta) {
+        pendingBuckets.merge(bucket, new long[]{mutantDelta, humanDelta},
+                (current, delta) -> new long[]{current[0] + delta[0], current[1] + delta[1]});
+    }
+
+    private LongAdder counter(boolean isMutant) {
+        return isMutant ? mutants : humans;
+    }
+
+    // Como afterCommit, pero con el read lock de rebuildLock tomado desde antes del commit
+    private void recordAfterCommit(Runnable update) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            rebuildLock.readLock().lock();
+            try {
+                update.run();
+            } finally {
+                rebuildLock.readLock().unlock();
+            }
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            // Un rollback no pasa por beforeCommit pero sí por afterCompletion
+            private boolean locked;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                rebuildLock.readLock().lock();
+                locked = true;
+            }
+
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (locked)
+                    rebuildLock.readLock().unlock();
+            }
+        });
+    }
+
+    // Dentro de una transacción el contador cambia recién cuando se confirma (un rollback no lo altera)
+    static void afterCommit(Runnable update) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,102 @@
+package org.global.mutantes_ds.service;
+
+import lombok.RequiredArgsConstructor;
+import org.global.mutantes_ds.entity.DnaRecord;
+import org.global.mutantes_ds.repository.DnaVerdictStore;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Transacciones cortas de /mutant y /mutant/batch: consultar hashes, guardar veredictos nuevos y eliminarlos.
+// MutantService y MutantBatchService coordinan las requests concurrentes y detecta fuera de estos métodos,
+// así que una conexión del pool solo se toma mientras se habla con la base
+// (nunca mientras se espera a otra request ni durante la detección).
+@Component
+@RequiredArgsConstructor
+public class DnaVerdictPersistence {
+
+    private final DnaVerdictStore verdictStore;
+    private final DnaStatsTracker statsTracker;
+    private final MutantMetrics metrics;
+
+    // Veredicto guardado del hash; si no existe, el del registro con la huella anterior (ya migrado)
+    @Transactional
+    public Optional<Boolean> lookup(DnaHash hash, Supplier<Optional<Boolean>> legacy) {
+
+        return metrics.timeRepository("find", () -> verdictStore.find(hash))
+                .map(DnaRecord::isMutant)
+                .or(legacy);
+    }
+
+    // Retorna true si se insertó. Otra instancia pudo guardar el mismo hash mientras tanto:
+    // en ese caso no se cuenta dos veces
+    @Transactional
+    public boolean insert(DnaRecord record) {
+
+        boolean inserted = metrics.timeRepository("insertIfAbsent", () -> verdictStore.insertIfAbsent(record));
+
+        if (inserted)
+            statsTracker.recordInserted(record.isMutant(), record.getCreatedAt());
+
+        return inserted;
+    }
+
+    // Registro eliminado, o vacío si el hash no existía
+    @Transactional
+    public Optional<DnaRecord> delete(DnaHash hash) {
+
+        Optional<DnaRecord> record = metrics.timeRepository("delete", () -> verdictStore.delete(hash));
+
+        record.ifPresent(r -> statsTracker.recordDeleted(r.isMutant(), r.getCreatedAt()));
+
+        return record;
+    }
+
+    // Lote: una sola búsqueda (SELECT ... IN con el backend jpa) y, para los que no aparecen,
+    // los registros con la huella anterior (legacy recibe los faltantes y retorna los migrados)
+    @Transactional
+    public Map<DnaHash, Boolean> lookupAll(Set<DnaHash> hashes,
+                                           Function<Set<DnaHash>, Map<DnaHash, Boolean>> legacy) {
+
+        Map<DnaHash, Boolean> verdicts = new HashMap<>(hashes.size() * 2);
+        Set<DnaHash> missing = new HashSet<>(hashes);
+
+        for (DnaRecord record : metrics.timeRepository("findAll", () -> verdictStore.findAll(hashes))) {
+            if (missing.remove(record.getDnaHash()))
+                verdicts.put(record.getDnaHash(), record.isMutant());
+        }
+
+        if (!missing.isEmpty())
+            verdicts.putAll(legacy.apply(missing));
+
+        return verdicts;
+    }
+
+    // Todos los registros en una sola inserción (insert-if-absent: si otra request guardó
+    // el mismo hash mientras tanto, ese registro no se inserta ni se cuenta). Retorna los insertados
+    @Transactional
+    public int insertAll(List<DnaRecord> records) {
+
+        boolean[] inserted = metrics.timeRepository("insertIfAbsent", () -> verdictStore.insertIfAbsent(records));
+        List<DnaRecord> created = new ArrayList<>(records.size());
+
+        for (int i = 0; i < inserted.length; i++) {
+            if (inserted[i])
+                created.add(records.get(i));
+        }
+
+        if (!created.isEmpty())
+            statsTracker.recordInserted(created);
+
+        return created.size();
+    }
+}
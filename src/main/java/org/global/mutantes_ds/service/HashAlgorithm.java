@@ -0,0 +1,13 @@
+package org.global.mutantes_ds.service;
+
+// Algoritmo de la clave de deduplicación de ADN (property mutant.hash.algorithm).
+// No se puede cambiar sobre una base con registros: el mismo ADN tendría otra clave.
+public enum HashAlgorithm {
+
+    // SHA-256 (32 bytes), resistente a colisiones buscadas
+    SHA256,
+
+    // MurmurHash3 x64 de 128 bits: no criptográfico, mucho más rápido.
+    // Ocupa los primeros 16 bytes de la clave; los últimos 16 quedan en cero
+    MURMUR3_128
+}
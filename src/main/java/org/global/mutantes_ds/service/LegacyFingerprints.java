@@ -0,0 +1,112 @@
+package org.global.mutantes_ds.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.global.mutantes_ds.entity.DnaRecord;
+import org.global.mutantes_ds.repository.DnaRecordRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Migración perezosa de los registros guardados con la huella anterior (filas concatenadas, sin N).
+// Con la huella de un ADN no se puede calcular la nueva, así que no hay backfill posible:
+// cuando un ADN no aparece con la huella actual se busca su huella legacy y, si existe,
+// el registro se re-escribe con la clave actual (mismo id, veredicto y created_at) y se usa su veredicto.
+// Para una matriz NxN válida la huella legacy no es ambigua (N² bases determinan N).
+// Cuando no quedan registros legacy (o nunca los hubo) no se hace ninguna consulta extra.
+// Solo aplica a dna_records (backend jpa): el store embebido nació con la huella actual.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LegacyFingerprints {
+
+    private final DnaRecordRepository dnaRecordRepository;
+    private final DnaHasher dnaHasher;
+
+    private final AtomicLong remaining = new AtomicLong();
+
+    @PostConstruct
+    public void seed() {
+
+        remaining.set(dnaRecordRepository.countByFingerprintVersion(DnaHasher.LEGACY_FINGERPRINT));
+
+        if (remaining.get() > 0)
+            log.info("{} registros con huella legacy: se migran a medida que se vuelven a consultar", remaining.get());
+    }
+
+    public boolean pending() {
+        return remaining.get() > 0;
+    }
+
+    // Veredicto del registro legacy de la matriz, ya re-escrito con la huella actual
+    // (dentro de la transacción del llamador)
+    public Optional<Boolean> adopt(DnaHash hash, BitPackedDnaMatrix matrix) {
+
+        if (!pending())
+            return Optional.empty();
+
+        return adopt(hash, dnaHasher.legacyHash(matrix));
+    }
+
+    public Optional<Boolean> adopt(DnaHash hash, String[] dna) {
+
+        if (!pending() || dna == null)
+            return Optional.empty();
+
+        return adopt(hash, dnaHasher.legacyHash(dna));
+    }
+
+    // Lote: una sola consulta IN con las huellas legacy. Retorna los veredictos migrados por huella actual
+    public Map<DnaHash, Boolean> adoptAll(Map<DnaHash, BitPackedDnaMatrix> matrices) {
+
+        Map<DnaHash, Boolean> adopted = new HashMap<>();
+
+        if (!pending() || matrices.isEmpty())
+            return adopted;
+
+        Map<DnaHash, DnaHash> byLegacy = new HashMap<>(matrices.size() * 2);
+        matrices.forEach((hash, matrix) -> byLegacy.put(dnaHasher.legacyHash(matrix), hash));
+
+        List<DnaRecord> stored = dnaRecordRepository
+                .findByDnaHashInAndFingerprintVersion(byLegacy.keySet(), DnaHasher.LEGACY_FINGERPRINT);
+
+        for (DnaRecord record : stored) {
+            DnaHash hash = byLegacy.get(record.getDnaHash());
+            rekey(record, hash);
+            adopted.put(hash, record.isMutant());
+        }
+
+        return adopted;
+    }
+
+    // Un registro legacy eliminado (DELETE /mutant/{hash} con la huella anterior)
+    public void deleted(DnaRecord record) {
+        if (record.getFingerprintVersion() == DnaHasher.LEGACY_FINGERPRINT)
+            DnaStatsTracker.afterCommit(remaining::decrementAndGet);
+    }
+
+    private Optional<Boolean> adopt(DnaHash hash, DnaHash legacyHash) {
+        return dnaRecordRepository
+                .findByDnaHashAndFingerprintVersion(legacyHash, DnaHasher.LEGACY_FINGERPRINT)
+                .map(record -> {
+                    rekey(record, hash);
+                    return record.isMutant();
+                });
+    }
+
+    // UPDATE condicional: si dos requests migran el mismo registro, solo una descuenta.
+    // El contador baja recién cuando se confirma la transacción
+    private void rekey(DnaRecord record, DnaHash hash) {
+
+        int updated = dnaRecordRepository.rekey(record.getId(), hash,
+                DnaHasher.FINGERPRINT_VERSION, DnaHasher.LEGACY_FINGERPRINT);
+
+        if (updated > 0)
+            DnaStatsTracker.afterCommit(remaining::decrementAndGet);
+    }
+}
@@ -0,0 +1,130 @@
+package org.global.mutantes_ds.service;
+
+// MurmurHash3 x64 128 bits (seed 0) incremental: acepta los bytes en varios update()
+// con el mismo resultado que sobre la concatenación completa.
+final class Murmur3Hash128 {
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    private long h1;
+    private long h2;
+    private long length;
+
+    // Bloque de 16 bytes incompleto entre llamadas a update
+    private final byte[] pending = new byte[16];
+    private int pendingLength;
+
+    void update(byte[] bytes, int offset, int count) {
+
+        length += count;
+        int end = offset + count;
+
+        // Completa el bloque que quedó a medias
+        if (pendingLength > 0) {
+
+            int take = Math.min(16 - pendingLength, count);
+            System.arraycopy(bytes, offset, pending, pendingLength, take);
+            pendingLength += take;
+            offset += take;
+
+            if (pendingLength < 16)
+                return;
+
+            mixBlock(getLong(pending, 0), getLong(pending, 8));
+            pendingLength = 0;
+        }
+
+        for (; offset + 16 <= end; offset += 16) {
+            mixBlock(getLong(bytes, offset), getLong(bytes, offset + 8));
+        }
+
+        System.arraycopy(bytes, offset, pending, 0, end - offset);
+        pendingLength = end - offset;
+    }
+
+    // Retorna {h1, h2}
+    long[] finish() {
+
+        long k1 = 0;
+        long k2 = 0;
+
+        for (int i = pendingLength - 1; i >= 8; i--) {
+            k2 = (k2 << 8) | (pending[i] & 0xffL);
+        }
+
+        for (int i = Math.min(pendingLength, 8) - 1; i >= 0; i--) {
+            k1 = (k1 << 8) | (pending[i] & 0xffL);
+        }
+
+        if (pendingLength > 8) {
+            k2 *= C2;
+            k2 = Long.rotateLeft(k2, 33);
+            k2 *= C1;
+            h2 ^= k2;
+        }
+
+        if (pendingLength > 0) {
+            k1 *= C1;
+            k1 = Long.rotateLeft(k1, 31);
+            k1 *= C2;
+            h1 ^= k1;
+        }
+
+        h1 ^= length;
+        h2 ^= length;
+
+        h1 += h2;
+        h2 += h1;
+
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+
+        h1 += h2;
+        h2 += h1;
+
+        return new long[]{h1, h2};
+    }
+
+    private void mixBlock(long k1, long k2) {
+
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        k1 *= C2;
+        h1 ^= k1;
+
+        h1 = Long.rotateLeft(h1, 27);
+        h1 += h2;
+        h1 = h1 * 5 + 0x52dce729;
+
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        k2 *= C1;
+        h2 ^= k2;
+
+        h2 = Long.rotateLeft(h2, 31);
+        h2 += h1;
+        h2 = h2 * 5 + 0x38495ab5;
+    }
+
+    // Little-endian, como la implementación de referencia
+    private static long getLong(byte[] b, int i) {
+        return (b[i] & 0xffL)
+                | (b[i + 1] & 0xffL) << 8
+                | (b[i + 2] & 0xffL) << 16
+                | (b[i + 3] & 0xffL) << 24
+                | (b[i + 4] & 0xffL) << 32
+                | (b[i + 5] & 0xffL) << 40
+                | (b[i + 6] & 0xffL) << 48
+                | (b[i + 7] & 0xffL) << 56;
+    }
+
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
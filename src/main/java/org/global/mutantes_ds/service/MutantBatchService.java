@@ -0,0 +1,143 @@
+package org.global.mutantes_ds.service;
+
+import lombok.RequiredArgsConstructor;
+import org.global.mutantes_ds.dto.DnaPayload;
+import org.global.mutantes_ds.dto.DnaVerdictResponse;
+import org.global.mutantes_ds.entity.DnaRecord;
+import org.global.mutantes_ds.exception.InvalidDnaBatchException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Clasificación de muchos ADN en una sola request (POST /mutant/batch).
+// Por lote: hashes repetidos se resuelven una vez, los conocidos salen de la cache
+// o de una sola búsqueda en el store, los nuevos se detectan en paralelo y se guardan en una sola inserción.
+// Sin transacción propia: la búsqueda y la inserción abren transacciones cortas en DnaVerdictPersistence,
+// así que la detección en paralelo corre sin una conexión del pool tomada.
+@Service
+@RequiredArgsConstructor
+public class MutantBatchService {
+
+    private final MutantDetector mutantDetector;
+    private final DnaRecordWriteBehind writeBehind;
+    private final VerdictCache verdictCache;
+    private final LegacyFingerprints legacyFingerprints;
+    private final MutantMetrics metrics;
+    private final DnaVerdictPersistence verdictPersistence;
+
+    // Máximo de ADN por request
+    @Value("${mutant.batch.max-size:1000}")
+    private int maxBatchSize = 1000;
+
+    // Veredictos en el mismo orden que los ADN recibidos
+    public List<DnaVerdictResponse> analyzeBatch(List<DnaPayload> payloads) {
+
+        if (payloads == null || payloads.isEmpty())
+            throw new InvalidDnaBatchException("El lote no contiene ADN");
+
+        if (payloads.size() > maxBatchSize)
+            throw new InvalidDnaBatchException("El lote supera el máximo de " + maxBatchSize + " ADN");
+
+        // Un payload por hash distinto (el resto del lote reutiliza su veredicto)
+        Map<DnaHash, DnaPayload> unique = new LinkedHashMap<>();
+        for (DnaPayload payload : payloads) {
+            unique.putIfAbsent(payload.getDnaHash(), payload);
+        }
+
+        Map<DnaHash, Boolean> verdicts = new HashMap<>(unique.size() * 2);
+        Set<DnaHash> unresolved = new HashSet<>();
+
+        // 1. Cache de veredictos y registros todavía encolados en el write-behind
+        for (DnaHash hash : unique.keySet()) {
+
+            Boolean cached = verdictCache.get(hash);
+
+            if (cached != null) {
+                verdicts.put(hash, cached);
+                continue;
+            }
+
+            Optional<Boolean> pending = writeBehind.pendingVerdict(hash);
+
+            if (pending.isPresent()) {
+                verdicts.put(hash, pending.get());
+            } else {
+                unresolved.add(hash);
+            }
+        }
+
+        // 2. Hashes ya guardados, con la huella actual o la anterior (se migran a la actual).
+        // A la cache recién después del commit: un rollback de la migración no deja veredictos sin guardar
+        if (!unresolved.isEmpty()) {
+
+            Map<DnaHash, Boolean> stored = verdictPersistence.lookupAll(unresolved,
+                    missing -> adoptLegacy(missing, unique));
+
+            stored.forEach(verdictCache::put);
+            verdicts.putAll(stored);
+            unresolved.removeAll(stored.keySet());
+        }
+
+        // 3. ADN nuevos: detección en paralelo sobre el ForkJoinPool común, fuera de cualquier transacción
+        if (!unresolved.isEmpty()) {
+
+            Map<DnaHash, Boolean> detected = unresolved.parallelStream()
+                    .collect(Collectors.toMap(hash -> hash,
+                            hash -> detect(unique.get(hash).getMatrix())));
+
+            verdictPersistence.insertAll(records(detected));
+
+            detected.forEach(verdictCache::put);
+            verdicts.putAll(detected);
+        }
+
+        List<DnaVerdictResponse> response = new ArrayList<>(payloads.size());
+
+        for (DnaPayload payload : payloads) {
+            DnaHash hash = payload.getDnaHash();
+            response.add(new DnaVerdictResponse(hash.toHex(), verdicts.get(hash)));
+        }
+
+        return response;
+    }
+
+    // Registros guardados con la huella anterior (solo mientras queden), dentro de la transacción de lookupAll
+    private Map<DnaHash, Boolean> adoptLegacy(Set<DnaHash> missing, Map<DnaHash, DnaPayload> unique) {
+
+        if (!legacyFingerprints.pending())
+            return Map.of();
+
+        Map<DnaHash, BitPackedDnaMatrix> matrices = new HashMap<>(missing.size() * 2);
+        missing.forEach(hash -> matrices.put(hash, unique.get(hash).getMatrix()));
+
+        return legacyFingerprints.adoptAll(matrices);
+    }
+
+    private boolean detect(BitPackedDnaMatrix matrix) {
+        return metrics.timeDetection(matrix.size(), () -> mutantDetector.isMutant(matrix));
+    }
+
+    private static List<DnaRecord> records(Map<DnaHash, Boolean> detected) {
+
+        LocalDateTime now = LocalDateTime.now();
+        List<DnaRecord> records = new ArrayList<>(detected.size());
+
+        detected.forEach((hash, isMutant) -> records.add(DnaRecord.builder()
+                .dnaHash(hash)
+                .isMutant(isMutant)
+                .createdAt(now)
+                .build()));
+
+        return records;
+    }
+}
@@ -1,88 +1,178 @@
 package org.global.mutantes_ds.service;
 
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.global.mutantes_ds.validation.DnaValidation;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntUnaryOperator;
 
 @Slf4j
 @Component
 public class MutantDetector {
 
     private static final int SEQUENCE = 4;
-    private static final Set<Character> VALID_BASES = Set.of('A', 'T', 'C', 'G');
+
+    // Filas mínimas por banda en el recorrido paralelo
+    private static final int MIN_BAND_ROWS = 16;
+
+    // La Vector API es un módulo incubator: solo existe si la JVM arranca con --add-modules
+    private static final boolean VECTOR_API_AVAILABLE =
+            ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    // Motor de detección seleccionable (SCALAR por defecto)
+    @Value("${mutant.detector.engine:SCALAR}")
+    private DetectionEngine engine = DetectionEngine.SCALAR;
+
+    // A partir de este N la matriz se recorre en bandas paralelas (fork/join)
+    @Value("${mutant.detector.parallel-threshold:256}")
+    private int parallelThreshold = 256;
+
+    // N máximo aceptado (el mismo límite que aplica el parser del JSON)
+    @Value("${mutant.dna.max-size:1000}")
+    private int maxSize = DnaValidation.DEFAULT_MAX_SIZE;
+
+    public MutantDetector() {
+    }
+
+    public MutantDetector(DetectionEngine engine) {
+        this.engine = engine;
+    }
+
+    public MutantDetector(DetectionEngine engine, int parallelThreshold) {
+        this.engine = engine;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    @PostConstruct
+    void logEngine() {
+        if (engine == DetectionEngine.VECTOR && !VECTOR_API_AVAILABLE) {
+            log.warn("Módulo jdk.incubator.vector no disponible, se usa el motor SCALAR");
+        } else {
+            log.info("Motor de detección de mutantes: {}", engine);
+        }
+    }
 
     public boolean isMutant(String[] dna) {
 
-        if (dna == null || dna.length == 0)
+        // Tamaño máximo, forma NxN y bases en una sola pasada; los motores reciben el ADN ya validado
+        if (DnaValidation.validate(dna, maxSize) != null)
             return false;
 
-        // Validación de tamaño máximo
-        if (dna.length > 1000)
+        return hasMoreThanOneSequence(dna.length, rowCounter(dna));
+    }
+
+    // Matriz ya validada y empaquetada mientras se parseaba el request.
+    // Con BITPACKED se recorre tal cual; los otros motores la desempaquetan a texto,
+    // así la property elige el motor también para /mutant y se pueden comparar en producción.
+    public boolean isMutant(BitPackedDnaMatrix matrix) {
+
+        if (matrix == null)
             return false;
 
-        int n = dna.length;
+        if (engine == DetectionEngine.BITPACKED)
+            return hasMoreThanOneSequence(matrix.size(), matrix::countRowSequences);
 
-        char[][] matrix = new char[n][n];
+        return hasMoreThanOneSequence(matrix.size(), rowCounter(matrix.decode()));
+    }
 
-        for (int i = 0; i < n; i++) {
+    // Arma la matriz del motor elegido a partir del ADN ya validado
+    // y retorna el conteo de secuencias por fila
+    private IntUnaryOperator rowCounter(String[] dna) {
 
-            String row = dna[i];
+        // Codifica a 2 bits por base y busca con operaciones por word
+        if (engine == DetectionEngine.BITPACKED)
+            return BitPackedDnaMatrix.encode(dna)::countRowSequences;
 
-            if (row == null || row.length() != n)
-                return false;
+        // Compara filas desplazadas con la Vector API (muchas columnas por instrucción).
+        // Sin el módulo incubator se vuelve al recorrido escalar
+        if (engine == DetectionEngine.VECTOR && VECTOR_API_AVAILABLE) {
+            byte[][] matrix = VectorizedDnaScanner.toMatrix(dna);
+            return row -> VectorizedDnaScanner.countRowSequences(matrix, row);
+        }
 
-            // Segunda validación de tamaño (columnas)
-            if (row.length() > 1000)
-                return false;
+        char[][] matrix = toCharMatrix(dna);
+        return row -> countRowSequences(matrix, row);
+    }
 
-            for (char c : row.toCharArray()) {
-                if (!VALID_BASES.contains(c))
-                    return false;
-            }
+    private boolean hasMoreThanOneSequence(int n, IntUnaryOperator rowCounter) {
+
+        // Matrices grandes: bandas de filas en paralelo sobre el ForkJoinPool común
+        if (n >= parallelThreshold) {
+
+            AtomicInteger sequences = new AtomicInteger();
+            int bandRows = Math.max(MIN_BAND_ROWS, n / (ForkJoinPool.getCommonPoolParallelism() * 4));
+
+            ForkJoinPool.commonPool().invoke(new BandScanTask(rowCounter, 0, n, bandRows, sequences));
 
-            matrix[i] = row.toCharArray();
+            return sequences.get() > 1;
         }
 
         int sequences = 0;
 
         for (int row = 0; row < n; row++) {
-            for (int col = 0; col < n; col++) {
-
-                char base = matrix[row][col];
-
-                // →
-                if (col <= n - SEQUENCE &&
-                        check(matrix, row, col, 0, 1, base)) {
-                    sequences++;
-                }
-
-                // ↓
-                if (row <= n - SEQUENCE &&
-                        check(matrix, row, col, 1, 0, base)) {
-                    sequences++;
-                }
-
-                // ↘
-                if (row <= n - SEQUENCE && col <= n - SEQUENCE &&
-                        check(matrix, row, col, 1, 1, base)) {
-                    sequences++;
-                }
-
-                // ↗
-                if (row >= SEQUENCE - 1 && col <= n - SEQUENCE &&
-                        check(matrix, row, col, -1, 1, base)) {
-                    sequences++;
-                }
-
-                if (sequences > 1)
-                    return true;
-            }
+
+            sequences += rowCounter.applyAsInt(row);
+
+            if (sequences > 1)
+                return true;
         }
 
         return false;
     }
 
+    private char[][] toCharMatrix(String[] dna) {
+
+        char[][] matrix = new char[dna.length][];
+
+        for (int i = 0; i < dna.length; i++) {
+            matrix[i] = dna[i].toCharArray();
+        }
+
+        return matrix;
+    }
+
+    // Secuencias que empiezan en la fila dada (recorrido escalar con check)
+    private int countRowSequences(char[][] matrix, int row) {
+
+        int n = matrix.length;
+        int sequences = 0;
+
+        for (int col = 0; col < n; col++) {
+
+            char base = matrix[row][col];
+
+            // →
+            if (col <= n - SEQUENCE &&
+                    check(matrix, row, col, 0, 1, base)) {
+                sequences++;
+            }
+
+            // ↓
+            if (row <= n - SEQUENCE &&
+                    check(matrix, row, col, 1, 0, base)) {
+                sequences++;
+            }
+
+            // ↘
+            if (row <= n - SEQUENCE && col <= n - SEQUENCE &&
+                    check(matrix, row, col, 1, 1, base)) {
+                sequences++;
+            }
+
+            // ↗
+            if (row >= SEQUENCE - 1 && col <= n - SEQUENCE &&
+                    check(matrix, row, col, -1, 1, base)) {
+                sequences++;
+            }
+        }
+
+        return sequences;
+    }
+
     private boolean check(char[][] m, int row, int col,
                           int dRow, int dCol, char base) {
 
@@ -0,0 +1,93 @@
+package org.global.mutantes_ds.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+// Timers de Micrometer del camino caliente de /mutant (expuestos en /actuator/prometheus):
+// - mutant.detector: MutantDetector.isMutant por tamaño de matriz y veredicto
+// - mutant.hash: hash del ADN (SHA-256 o Murmur3) medido en las sesiones de DnaHasher
+// - mutant.repository: consultas y escrituras sobre dna_records por operación
+// Los timers del detector se registran una sola vez; en cada request solo se indexa un array.
+@Component
+public class MutantMetrics {
+
+    // Límite superior (inclusive) de cada bucket de tamaño de matriz
+    private static final int[] SIZE_BUCKETS = {8, 64, 256, 1000};
+
+    private final MeterRegistry registry;
+
+    // [bucket de tamaño][0 = humano, 1 = mutante]
+    private final Timer[][] detectorTimers = new Timer[SIZE_BUCKETS.length][2];
+    private final Timer hashTimer;
+    private final Map<String, Timer> repositoryTimers = new ConcurrentHashMap<>();
+
+    public MutantMetrics(MeterRegistry registry) {
+
+        this.registry = registry;
+
+        for (int bucket = 0; bucket < SIZE_BUCKETS.length; bucket++) {
+            for (int verdict = 0; verdict < 2; verdict++) {
+                detectorTimers[bucket][verdict] = Timer.builder("mutant.detector")
+                        .description("Tiempo de MutantDetector.isMutant")
+                        .tag("size", "<=" + SIZE_BUCKETS[bucket])
+                        .tag("verdict", verdict == 1 ? "mutant" : "human")
+                        .publishPercentileHistogram()
+                        .register(registry);
+            }
+        }
+
+        this.hashTimer = Timer.builder("mutant.hash")
+                .description("Tiempo del hash del ADN")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    public boolean timeDetection(int size, BooleanSupplier detection) {
+
+        long start = System.nanoTime();
+        boolean isMutant = detection.getAsBoolean();
+
+        detectorTimers[sizeBucket(size)][isMutant ? 1 : 0].record(System.nanoTime() - start,
+                TimeUnit.NANOSECONDS);
+
+        return isMutant;
+    }
+
+    // Tiempo acumulado de una sesión de DnaHasher (update por fila y finish)
+    public void recordHash(long nanos) {
+        hashTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public <T> T timeRepository(String operation, Supplier<T> call) {
+        return repositoryTimer(operation).record(call);
+    }
+
+    public void timeRepository(String operation, Runnable call) {
+        repositoryTimer(operation).record(call);
+    }
+
+    private Timer repositoryTimer(String operation) {
+        return repositoryTimers.computeIfAbsent(operation, op -> Timer.builder("mutant.repository")
+                .description("Tiempo de las operaciones sobre dna_records")
+                .tag("operation", op)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    private static int sizeBucket(int size) {
+
+        for (int bucket = 0; bucket < SIZE_BUCKETS.length - 1; bucket++) {
+            if (size <= SIZE_BUCKETS[bucket])
+                return bucket;
+        }
+
+        return SIZE_BUCKETS.length - 1;
+    }
+}
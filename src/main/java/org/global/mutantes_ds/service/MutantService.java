@@ -1,84 +1,163 @@
 package org.global.mutantes_ds.service;
 
 import lombok.RequiredArgsConstructor;
+import org.global.mutantes_ds.dto.DnaPayload;
 import org.global.mutantes_ds.entity.DnaRecord;
-import org.global.mutantes_ds.exception.DnaHashCalculationException;
-import org.global.mutantes_ds.repository.DnaRecordRepository;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
-import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 public class MutantService {
 
     private final MutantDetector mutantDetector;
-    private final DnaRecordRepository dnaRecordRepository;
+    private final DnaRecordWriteBehind writeBehind;
+    private final VerdictCache verdictCache;
+    private final DnaHasher dnaHasher;
+    private final LegacyFingerprints legacyFingerprints;
+    private final MutantMetrics metrics;
+    private final DnaVerdictPersistence verdictPersistence;
+
+    // Hashes que otra request está resolviendo ahora (consulta, detección e insert)
+    private final Map<DnaHash, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+
+    // ADN parseado en streaming: matriz empaquetada y hash ya calculados.
+    // Se ejecuta en el mismo hilo de la request (virtual thread, ver spring.threads.virtual.enabled):
+    // no hay salto a otro executor ni join bloqueante en el controller.
+    // Sin transacción propia: las requests que esperan a otra con el mismo hash no retienen una conexión;
+    // la consulta y el insert abren transacciones cortas en DnaVerdictPersistence.
+    public boolean analyzeDna(DnaPayload payload) {
+
+        return resolve(payload.getDnaHash(), payload.getMatrix().size(),
+                () -> legacyFingerprints.adopt(payload.getDnaHash(), payload.getMatrix()),
+                () -> mutantDetector.isMutant(payload.getMatrix()));
+    }
 
-    @Async
-    @Transactional
-    @CacheEvict(value = { "stats", "statsByDate" }, allEntries = true)
-    public CompletableFuture<Boolean> analyzeDna(String[] dna) {
+    public boolean analyzeDna(String[] dna) {
 
-        String hash = calculateDnaHash(dna);
+        DnaHash hash = calculateDnaHash(dna);
 
-        boolean result = dnaRecordRepository.findByDnaHash(hash)
-                .map(DnaRecord::isMutant)
-                .orElseGet(() -> {
+        return resolve(hash, dna == null ? 0 : dna.length,
+                () -> legacyFingerprints.adopt(hash, dna),
+                () -> mutantDetector.isMutant(dna));
+    }
 
-                    boolean isMutant = mutantDetector.isMutant(dna);
+    // Usa el resultado guardado si el hash ya existe; si no, detecta y guarda
+    private boolean resolve(DnaHash hash, int size, Supplier<Optional<Boolean>> legacy, BooleanSupplier detection) {
 
-                    DnaRecord record = DnaRecord.builder()
-                            .dnaHash(hash)
-                            .isMutant(isMutant)
-                            .createdAt(LocalDateTime.now())
-                            .build();
+        // ADN repetido o encolado en el write-behind: se responde desde memoria, sin consultar la base
+        Optional<Boolean> known = knownVerdict(hash);
 
-                    dnaRecordRepository.save(record);
+        if (known.isPresent())
+            return known.get();
 
-                    return isMutant;
-                });
+        // El mismo ADN llegando en paralelo: una sola request consulta, detecta e inserta;
+        // las demás esperan su veredicto
+        CompletableFuture<Boolean> mine = new CompletableFuture<>();
+        CompletableFuture<Boolean> leader = inFlight.putIfAbsent(hash, mine);
 
-        // Devuelve el resultado envuelto en un Future para cumplir con el modo asíncrono
-        return CompletableFuture.completedFuture(result);
-    }
+        if (leader != null)
+            return await(leader);
 
-    public String calculateDnaHash(String[] dna) {
         try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            // Un líder que terminó entre la consulta a la cache y el putIfAbsent ya dejó su veredicto
+            Optional<Boolean> late = knownVerdict(hash);
+            boolean result = late.isPresent() ? late.get() : lookupOrDetect(hash, size, legacy, detection);
+
+            // En la cache antes de salir de inFlight: la próxima request no vuelve a la base
+            verdictCache.put(hash, result);
+            mine.complete(result);
+
+            return result;
+
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(hash, mine);
+        }
+    }
+
+    private Optional<Boolean> knownVerdict(DnaHash hash) {
+
+        Boolean cached = verdictCache.get(hash);
+
+        if (cached != null)
+            return Optional.of(cached);
+
+        // Veredicto encolado en el write-behind que todavía no llegó a la base
+        return writeBehind.pendingVerdict(hash);
+    }
+
+    // Consulta e insert en transacciones separadas; la detección corre sin conexión tomada
+    private boolean lookupOrDetect(DnaHash hash, int size, Supplier<Optional<Boolean>> legacy,
+                                   BooleanSupplier detection) {
+
+        Optional<Boolean> stored = verdictPersistence.lookup(hash, legacy);
+
+        if (stored.isPresent())
+            return stored.get();
+
+        boolean isMutant = metrics.timeDetection(size, detection);
+
+        DnaRecord record = DnaRecord.builder()
+                .dnaHash(hash)
+                .isMutant(isMutant)
+                .createdAt(LocalDateTime.now())
+                .build();
 
-            for (String row : dna) {
-                if (row != null) digest.update(row.getBytes());
-            }
+        // Con write-behind se persiste en lote desde otro hilo
+        if (writeBehind.isEnabled()) {
+            writeBehind.enqueue(record);
+        } else {
+            verdictPersistence.insert(record);
+        }
 
-            byte[] hash = digest.digest();
-            return HexFormat.of().formatHex(hash);
+        return isMutant;
+    }
 
-        } catch (NoSuchAlgorithmException e) {
-            throw new DnaHashCalculationException("Error al calcular hash del ADN", e);
+    // Veredicto de la request que ya está resolviendo el hash (su error, si falló)
+    private static boolean await(CompletableFuture<Boolean> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            if (e.getCause() instanceof Error cause)
+                throw cause;
+            throw e;
         }
     }
 
+    public DnaHash calculateDnaHash(String[] dna) {
+        return dnaHasher.hash(dna);
+    }
+
     // Elimina un ADN previamente analizado utilizando su hash.
     // Si no existe el registro, se lanza una excepción para que el controller retorne 404.
-    public void deleteByHash(String hash) {
+    // Sin transacción propia: la espera al write-behind no retiene una conexión
+    public void deleteByHash(DnaHash hash) {
+
+        // Veredicto ya respondido pero todavía en la cola del write-behind: primero tiene que llegar a la base
+        writeBehind.awaitPersisted(hash);
 
-        // Buscar el registro
-        var record = dnaRecordRepository.findByDnaHash(hash);
+        var record = verdictPersistence.delete(hash);
 
         if (record.isEmpty()) {
             // No existe → se avisa al controller
             throw new IllegalArgumentException("El ADN con ese hash no existe");
         }
 
-        // Eliminar el registro
-        dnaRecordRepository.delete(record.get());
+        // Ya confirmado: huellas legacy y veredicto cacheado
+        legacyFingerprints.deleted(record.get());
+        verdictCache.invalidate(hash);
     }
 }
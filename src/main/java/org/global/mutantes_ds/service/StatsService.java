@@ -2,8 +2,8 @@ package org.global.mutantes_ds.service;
 
 import lombok.RequiredArgsConstructor;
 import org.global.mutantes_ds.dto.StatsResponse;
-import org.global.mutantes_ds.repository.DnaRecordRepository;
-import org.springframework.cache.annotation.Cacheable;
+import org.global.mutantes_ds.repository.DnaStatsBucketRepository;
+import org.global.mutantes_ds.repository.DnaVerdictStore;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -12,39 +12,60 @@ import java.time.LocalDateTime;
 @RequiredArgsConstructor
 public class StatsService {
 
-    private final DnaRecordRepository dnaRecordRepository;
+    private final DnaVerdictStore verdictStore;
+    private final DnaStatsTracker statsTracker;
+    private final DnaStatsBucketRepository bucketRepository;
 
-    @Cacheable("stats") // Cachea el resultado general de /stats para evitar recalcular en cada request
+    // Lectura O(1) de los contadores en memoria: sin COUNT(*) ni cache que invalidar
     public StatsResponse getStats() {
+        return toResponse(statsTracker.mutants(), statsTracker.humans());
+    }
 
-        long mutants = dnaRecordRepository.countByIsMutant(true);
-        long humans = dnaRecordRepository.countByIsMutant(false);
+    // Rango [startDate, endDate]: suma los buckets por minuto completamente incluidos
+    // y corrige los bordes (fracciones de minuto) con conteos exactos sobre el store de veredictos.
+    // El costo depende de la cantidad de buckets, no del tamaño de la tabla.
+    public StatsResponse getStats(LocalDateTime startDate, LocalDateTime endDate) {
 
-        double ratio;
+        if (startDate == null || endDate == null) {
+            return getStats();
+        }
 
-        if (humans == 0) {
-            ratio = mutants > 0 ? (double) mutants : 0.0;
-        } else {
-            ratio = (double) mutants / humans;
+        // Primer bucket que empieza dentro del rango y bucket donde cae endDate
+        LocalDateTime firstBucket = DnaStatsTracker.bucketOf(startDate);
+        if (firstBucket.isBefore(startDate)) {
+            firstBucket = firstBucket.plus(1, DnaStatsTracker.BUCKET);
         }
+        LocalDateTime lastBucket = DnaStatsTracker.bucketOf(endDate);
 
-        return new StatsResponse(mutants, humans, ratio);
-    }
+        // Rango menor a un bucket completo: conteo exacto
+        if (!firstBucket.isBefore(lastBucket)) {
 
-    // Cachea las estadísticas filtradas según el rango de fechas
-    // La cache key está formada por los dos parámetros
-    @Cacheable(value = "statsByDate", key = "{#startDate, #endDate}")
-    public StatsResponse getStats(LocalDateTime startDate, LocalDateTime endDate) {
+            long mutants = verdictStore.countBetween(true, startDate, endDate);
+            long humans = verdictStore.countBetween(false, startDate, endDate);
 
-        if (startDate == null || endDate == null) {
-            return getStats();
+            return toResponse(mutants, humans);
         }
 
-        long mutants = dnaRecordRepository
-                .countByIsMutantAndCreatedAtBetween(true, startDate, endDate);
+        // Buckets completos [firstBucket, lastBucket), con lo que el tracker todavía no escribió
+        DnaStatsBucketRepository.BucketTotals totals = bucketRepository.sumBetween(firstBucket, lastBucket);
+        long[] pending = statsTracker.pendingBetween(firstBucket, lastBucket);
+        long mutants = totals.getMutants() + pending[0];
+        long humans = totals.getHumans() + pending[1];
+
+        // Borde inicial [startDate, firstBucket)
+        if (startDate.isBefore(firstBucket)) {
+            mutants += verdictStore.countInRange(true, startDate, firstBucket);
+            humans += verdictStore.countInRange(false, startDate, firstBucket);
+        }
+
+        // Borde final [lastBucket, endDate]
+        mutants += verdictStore.countBetween(true, lastBucket, endDate);
+        humans += verdictStore.countBetween(false, lastBucket, endDate);
+
+        return toResponse(mutants, humans);
+    }
 
-        long humans = dnaRecordRepository
-                .countByIsMutantAndCreatedAtBetween(false, startDate, endDate);
+    private static StatsResponse toResponse(long mutants, long humans) {
 
         double ratio;
 
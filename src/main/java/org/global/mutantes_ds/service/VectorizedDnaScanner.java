@@ -0,0 +1,85 @@
+package org.global.mutantes_ds.service;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.nio.charset.StandardCharsets;
+
+// Búsqueda de secuencias con la Vector API (jdk.incubator.vector).
+// Compara muchas columnas por instrucción: la fila contra sí misma desplazada (→),
+// contra las 3 filas siguientes (↓) y contra filas vecinas con desplazamiento de lanes (↘, ↗).
+// Solo se carga si el módulo está presente; MutantDetector lo verifica antes de usarlo.
+final class VectorizedDnaScanner {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+    private static final int SEQUENCE = 4;
+
+    private VectorizedDnaScanner() {
+    }
+
+    // Copia cada fila a byte[] (1 byte por base). El ADN ya viene validado por MutantDetector
+    static byte[][] toMatrix(String[] dna) {
+
+        int n = dna.length;
+        byte[][] matrix = new byte[n][];
+
+        for (int row = 0; row < n; row++) {
+            matrix[row] = dna[row].getBytes(StandardCharsets.ISO_8859_1);
+        }
+
+        return matrix;
+    }
+
+    // Secuencias que empiezan en la fila dada, con el mismo criterio de conteo que el recorrido escalar.
+    // Solo lee la matriz, por lo que distintas filas pueden contarse en paralelo.
+    static int countRowSequences(byte[][] m, int row) {
+
+        int n = m.length;
+        int starts = n - (SEQUENCE - 1);
+        int sequences = 0;
+        byte[] current = m[row];
+
+        // Posiciones iniciales de → , ↘ y ↗
+        for (int col = 0; col < starts; col += SPECIES.length()) {
+
+            VectorMask<Byte> lanes = SPECIES.indexInRange(col, starts);
+            ByteVector base = ByteVector.fromArray(SPECIES, current, col, lanes);
+
+            // →
+            sequences += matches(base, current, current, current, col, 1, lanes);
+
+            // ↘
+            if (row <= n - SEQUENCE)
+                sequences += matches(base, m[row + 1], m[row + 2], m[row + 3], col, 1, lanes);
+
+            // ↗
+            if (row >= SEQUENCE - 1)
+                sequences += matches(base, m[row - 1], m[row - 2], m[row - 3], col, 1, lanes);
+        }
+
+        // ↓
+        if (row <= n - SEQUENCE) {
+            for (int col = 0; col < n; col += SPECIES.length()) {
+
+                VectorMask<Byte> lanes = SPECIES.indexInRange(col, n);
+                ByteVector base = ByteVector.fromArray(SPECIES, current, col, lanes);
+
+                sequences += matches(base, m[row + 1], m[row + 2], m[row + 3], col, 0, lanes);
+            }
+        }
+
+        return sequences;
+    }
+
+    // Cuenta los lanes donde base coincide con las 3 filas dadas, desplazadas step, 2*step y 3*step columnas
+    private static int matches(ByteVector base, byte[] first, byte[] second, byte[] third,
+                               int col, int step, VectorMask<Byte> lanes) {
+
+        return base.eq(ByteVector.fromArray(SPECIES, first, col + step, lanes))
+                .and(base.eq(ByteVector.fromArray(SPECIES, second, col + 2 * step, lanes)))
+                .and(base.eq(ByteVector.fromArray(SPECIES, third, col + 3 * step, lanes)))
+                .and(lanes)
+                .trueCount();
+    }
+}
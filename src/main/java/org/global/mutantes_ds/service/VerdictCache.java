@@ -0,0 +1,115 @@
+package org.global.mutantes_ds.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Cache acotada de veredictos (hash binario → es mutante) delante de DnaVerdictStore.
+// Está dividida en segmentos LRU independientes para que los hilos no compitan por un único lock;
+// cada segmento descarta la entrada menos usada al superar su capacidad.
+@Component
+public class VerdictCache {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public VerdictCache(@Value("${mutant.verdict-cache.max-size:100000}") int maxSize) {
+
+        int segmentCapacity = Math.max(1, maxSize / SEGMENTS);
+
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+    }
+
+    // Retorna el veredicto cacheado o null si no está
+    public Boolean get(DnaHash hash) {
+
+        Segment segment = segmentFor(hash);
+        Boolean verdict;
+
+        synchronized (segment) {
+            verdict = segment.get(hash);
+        }
+
+        if (verdict == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+
+        return verdict;
+    }
+
+    public void put(DnaHash hash, boolean isMutant) {
+        Segment segment = segmentFor(hash);
+        synchronized (segment) {
+            segment.put(hash, isMutant);
+        }
+    }
+
+    public void invalidate(DnaHash hash) {
+        Segment segment = segmentFor(hash);
+        synchronized (segment) {
+            segment.remove(hash);
+        }
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public long size() {
+
+        long size = 0;
+
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+
+        return size;
+    }
+
+    // Los bits del primer long ya son uniformes (SHA-256 o Murmur3)
+    private Segment segmentFor(DnaHash hash) {
+        return segments[(int) (hash.h0() & (SEGMENTS - 1))];
+    }
+
+    // LinkedHashMap en orden de acceso: la entrada más antigua es la menos usada
+    private final class Segment extends LinkedHashMap<DnaHash, Boolean> {
+
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<DnaHash, Boolean> eldest) {
+
+            if (size() <= capacity)
+                return false;
+
+            evictions.increment();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.global.mutantes_ds.validation;
+
+import java.util.Arrays;
+
+// Núcleo de validación de ADN, compartido por @ValidDnaSequence, MutantDetector, BitPackedDnaMatrix
+// y DnaPayloadDeserializer. Cada base se resuelve con una tabla de 256 entradas (código de 2 bits
+// A=0, C=1, G=2, T=3, o -1) y las filas se leen con charAt, sin copiarlas ni boxear chars.
+// Una sola pasada que se detiene en el primer error.
+public final class DnaValidation {
+
+    // N máximo por defecto (mutant.dna.max-size)
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    private static final byte[] CODES = new byte[256];
+
+    static {
+        Arrays.fill(CODES, (byte) -1);
+        CODES['A'] = 0;
+        CODES['C'] = 1;
+        CODES['G'] = 2;
+        CODES['T'] = 3;
+    }
+
+    private DnaValidation() {
+    }
+
+    // Código de 2 bits de la base, o -1 si no es A, T, C, G
+    public static int code(char c) {
+        return c < CODES.length ? CODES[c] : -1;
+    }
+
+    // Columna de la primera base inválida de la fila, o -1 si todas son válidas
+    public static int firstInvalidBase(String row) {
+
+        for (int col = 0; col < row.length(); col++) {
+            if (code(row.charAt(col)) < 0)
+                return col;
+        }
+
+        return -1;
+    }
+
+    // Primer error del ADN, o null si es una matriz NxN de bases A, T, C, G
+    public static DnaViolation validate(String[] dna) {
+        return validate(dna, DEFAULT_MAX_SIZE);
+    }
+
+    // Igual, con N máximo maxSize: un ADN demasiado grande se rechaza antes de recorrer filas
+    public static DnaViolation validate(String[] dna, int maxSize) {
+
+        if (dna == null || dna.length == 0)
+            return new DnaViolation(DnaViolation.Kind.EMPTY, -1, -1);
+
+        if (dna.length > maxSize)
+            return new DnaViolation(DnaViolation.Kind.TOO_LARGE, -1, -1);
+
+        int n = dna.length;
+
+        for (int row = 0; row < n; row++) {
+
+            String bases = dna[row];
+
+            if (bases == null || bases.length() != n)
+                return new DnaViolation(DnaViolation.Kind.NOT_SQUARE, row, -1);
+
+            int col = firstInvalidBase(bases);
+
+            if (col >= 0)
+                return new DnaViolation(DnaViolation.Kind.INVALID_BASE, row, col);
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,25 @@
+package org.global.mutantes_ds.validation;
+
+// Primer error encontrado al validar un ADN. row y column son -1 cuando no aplican.
+public record DnaViolation(Kind kind, int row, int column) {
+
+    public enum Kind {
+        // Sin filas
+        EMPTY,
+        // Una fila nula o de largo distinto a la cantidad de filas
+        NOT_SQUARE,
+        // Más filas (o una primera fila más larga) que el N máximo configurado
+        TOO_LARGE,
+        // Carácter distinto de A, T, C, G
+        INVALID_BASE
+    }
+
+    public String message() {
+        return switch (kind) {
+            case EMPTY -> "El ADN no tiene filas";
+            case NOT_SQUARE -> "El ADN debe ser una matriz NxN (fila " + row + ")";
+            case TOO_LARGE -> "El ADN supera el tamaño máximo permitido";
+            case INVALID_BASE -> "Base inválida en fila " + row + ", columna " + column;
+        };
+    }
+}
@@ -2,31 +2,26 @@ package org.global.mutantes_ds.validation;
 
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
-
-import java.util.Set;
+import org.springframework.beans.factory.annotation.Value;
 
 public class ValidDnaSequenceValidator implements ConstraintValidator<ValidDnaSequence, String[]> {
 
-    private static final Set<Character> VALID_BASES = Set.of('A', 'T', 'C', 'G');
+    // Spring crea el validator (SpringConstraintValidatorFactory), así que comparte el límite del parser
+    @Value("${mutant.dna.max-size:1000}")
+    private int maxSize = DnaValidation.DEFAULT_MAX_SIZE;
 
     @Override
     public boolean isValid(String[] dna, ConstraintValidatorContext context) {
 
-        if (dna == null || dna.length == 0)
-            return false;
-
-        int n = dna.length;
+        DnaViolation violation = DnaValidation.validate(dna, maxSize);
 
-        for (String row : dna) {
-            if (row == null || row.length() != n)
-                return false;
+        if (violation == null)
+            return true;
 
-            for (char c : row.toCharArray()) {
-                if (!VALID_BASES.contains(c))
-                    return false;
-            }
-        }
+        // El mensaje indica qué falló y dónde (fila/columna)
+        context.disableDefaultConstraintViolation();
+        context.buildConstraintViolationWithTemplate(violation.message()).addConstraintViolation();
 
-        return true;
+        return false;
     }
 }
@@ -0,0 +1,134 @@
+package org.global.mutantes_ds.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GcraRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private GcraRateLimiter limiter(int limit, long windowMillis, int maxClients) {
+        return new GcraRateLimiter(limit, windowMillis, maxClients, clock::get);
+    }
+
+    private void advanceMillis(long millis) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    // ============================================================
+    // 1. Ráfaga y recarga
+    // ============================================================
+
+    @Test
+    void shouldAllowBurstUpToLimitThenReject() {
+        GcraRateLimiter limiter = limiter(10, 60_000, 100);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limiter.tryAcquire("1.1.1.1"));
+        }
+
+        // Sin tokens: el próximo llega en window / limit = 6 segundos
+        assertEquals(TimeUnit.SECONDS.toNanos(6), limiter.tryAcquire("1.1.1.1"));
+    }
+
+    @Test
+    void shouldRefillOneTokenPerEmissionInterval() {
+        GcraRateLimiter limiter = limiter(10, 60_000, 100);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire("1.1.1.1");
+        }
+
+        advanceMillis(6_000);
+        assertEquals(0, limiter.tryAcquire("1.1.1.1"));
+        assertTrue(limiter.tryAcquire("1.1.1.1") > 0);
+
+        // Ventana completa sin requests: ráfaga completa otra vez
+        advanceMillis(60_000);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limiter.tryAcquire("1.1.1.1"));
+        }
+    }
+
+    @Test
+    void shouldLimitEachClientIndependently() {
+        GcraRateLimiter limiter = limiter(2, 60_000, 100);
+
+        limiter.tryAcquire("1.1.1.1");
+        limiter.tryAcquire("1.1.1.1");
+
+        assertTrue(limiter.tryAcquire("1.1.1.1") > 0);
+        assertEquals(0, limiter.tryAcquire("2.2.2.2"));
+    }
+
+    // ============================================================
+    // 2. Memoria acotada
+    // ============================================================
+
+    @Test
+    void shouldEvictOnlyIdleClients() {
+        GcraRateLimiter limiter = limiter(10, 60_000, 100);
+
+        limiter.tryAcquire("idle");
+        advanceMillis(30_000);
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire("busy");
+        }
+
+        advanceMillis(6_000);
+
+        // "idle" ya recuperó su token, "busy" todavía está consumiendo la ventana
+        assertEquals(1, limiter.evictIdle());
+        assertEquals(1, limiter.size());
+        assertTrue(limiter.tryAcquire("busy") == 0);
+        assertTrue(limiter.tryAcquire("busy") > 0);
+    }
+
+    @Test
+    void shouldShareOverflowStateWhenTableIsFull() {
+        GcraRateLimiter limiter = limiter(2, 60_000, 2);
+
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+
+        // La tabla está llena: las IPs nuevas no agregan entradas y comparten un límite
+        assertEquals(0, limiter.tryAcquire("c"));
+        assertEquals(0, limiter.tryAcquire("d"));
+        assertTrue(limiter.tryAcquire("e") > 0);
+        assertEquals(2, limiter.size());
+    }
+
+    // ============================================================
+    // 3. Concurrencia
+    // ============================================================
+
+    @Test
+    void shouldNeverExceedLimitUnderConcurrentRequests() throws Exception {
+        GcraRateLimiter limiter = limiter(100, 60_000, 100);
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 1_000; i++) {
+                        if (limiter.tryAcquire("1.1.1.1") == 0) allowed.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+
+        assertEquals(100, allowed.get());
+    }
+}
@@ -0,0 +1,123 @@
+package org.global.mutantes_ds.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Las "réplicas" son varias instancias del backend sobre la misma base H2 embebida
+class JdbcRateLimiterBackendTest {
+
+    private final AtomicLong clockMicros = new AtomicLong(TimeUnit.SECONDS.toMicros(1_000));
+    private final AtomicInteger writes = new AtomicInteger();
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+
+        // Cuenta las escrituras para verificar cuántas veces se va a la base
+        jdbcTemplate = new JdbcTemplate(database) {
+            @Override
+            public int update(String sql, Object... args) {
+                writes.incrementAndGet();
+                return super.update(sql, args);
+            }
+        };
+
+        jdbcTemplate.execute("CREATE TABLE rate_limit_buckets ("
+                + "client_key VARCHAR(64) PRIMARY KEY, tat BIGINT NOT NULL)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    private JdbcRateLimiterBackend replica(int limit, int leaseSize) {
+        return new JdbcRateLimiterBackend(jdbcTemplate, limit, 60_000, leaseSize, 1_000, clockMicros::get);
+    }
+
+    // ============================================================
+    // 1. Límite compartido entre réplicas
+    // ============================================================
+
+    @Test
+    void shouldShareLimitAcrossReplicas() {
+        JdbcRateLimiterBackend first = replica(10, 3);
+        JdbcRateLimiterBackend second = replica(10, 3);
+
+        int allowed = 0;
+
+        for (int i = 0; i < 30; i++) {
+            JdbcRateLimiterBackend replica = i % 2 == 0 ? first : second;
+            if (replica.tryAcquire("1.1.1.1") == 0) allowed++;
+        }
+
+        // Con dos réplicas el cliente sigue teniendo 10 requests por minuto en total
+        assertEquals(10, allowed);
+    }
+
+    // ============================================================
+    // 2. Reserva local de tokens
+    // ============================================================
+
+    @Test
+    void shouldHitSharedStoreOncePerLease() {
+        JdbcRateLimiterBackend replica = replica(10, 5);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, replica.tryAcquire("1.1.1.1"));
+        }
+
+        // 10 requests → 2 reservas de 5 tokens
+        assertEquals(2, writes.get());
+    }
+
+    @Test
+    void shouldReturnWaitUntilNextTokenAndRefill() {
+        JdbcRateLimiterBackend replica = replica(10, 5);
+
+        for (int i = 0; i < 10; i++) {
+            replica.tryAcquire("1.1.1.1");
+        }
+
+        assertEquals(TimeUnit.SECONDS.toNanos(6), replica.tryAcquire("1.1.1.1"));
+
+        clockMicros.addAndGet(TimeUnit.SECONDS.toMicros(6));
+        assertEquals(0, replica.tryAcquire("1.1.1.1"));
+    }
+
+    // ============================================================
+    // 3. Limpieza de clientes inactivos
+    // ============================================================
+
+    @Test
+    void shouldEvictIdleRows() {
+        JdbcRateLimiterBackend replica = replica(10, 5);
+
+        replica.tryAcquire("1.1.1.1");
+        replica.tryAcquire("2.2.2.2");
+
+        assertEquals(0, replica.evictIdle());
+
+        clockMicros.addAndGet(TimeUnit.SECONDS.toMicros(60));
+
+        assertEquals(2, replica.evictIdle());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM rate_limit_buckets", Integer.class));
+    }
+}
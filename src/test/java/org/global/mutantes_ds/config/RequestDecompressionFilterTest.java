@@ -0,0 +1,148 @@
+package org.global.mutantes_ds.config;
+
+import io.airlift.compress.zstd.ZstdCompressor;
+import jakarta.servlet.ServletRequest;
+import org.global.mutantes_ds.exception.PayloadTooLargeException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestDecompressionFilterTest {
+
+    // N máximo 10 → /mutant admite 4356 bytes (descomprimidos), /mutant/batch 64KB
+    private final RequestSizeLimitFilter sizeLimit =
+            new RequestSizeLimitFilter(10, DataSize.ofBytes(0), DataSize.ofKilobytes(64));
+
+    private final RequestDecompressionFilter filter = new RequestDecompressionFilter(sizeLimit);
+
+    private static final byte[] JSON =
+            "{\"dna\": [\"ATGC\", \"CAGT\", \"TTAT\", \"AGAC\"]}".getBytes(StandardCharsets.UTF_8);
+
+    private static byte[] gzip(byte[] raw) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(raw);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] zstd(byte[] raw) {
+        ZstdCompressor compressor = new ZstdCompressor();
+        byte[] out = new byte[compressor.maxCompressedLength(raw.length)];
+        int size = compressor.compress(raw, 0, raw.length, out, 0, out.length);
+        return Arrays.copyOf(out, size);
+    }
+
+    private static MockHttpServletRequest post(String path, String encoding, byte[] body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.addHeader("Content-Encoding", encoding);
+        request.setContent(body);
+        return request;
+    }
+
+    private static byte[] readAll(ServletRequest request) throws IOException {
+        try (InputStream in = request.getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+
+    // ============================================================
+    // 1. gzip y zstd
+    // ============================================================
+
+    @Test
+    void shouldDecompressGzipBodyAndHideEncodingHeaders() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(post("/mutant", "gzip", gzip(JSON)), new MockHttpServletResponse(), chain);
+
+        RequestDecompressionFilter.DecompressedRequest request =
+                (RequestDecompressionFilter.DecompressedRequest) chain.getRequest();
+
+        assertArrayEquals(JSON, readAll(request));
+        assertEquals(-1, request.getContentLengthLong());
+        assertNull(request.getHeader("Content-Encoding"));
+        assertFalse(Collections.list(request.getHeaderNames()).contains("Content-Encoding"));
+    }
+
+    @Test
+    void shouldDecompressZstdBody() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(post("/mutant", "zstd", zstd(JSON)), new MockHttpServletResponse(), chain);
+
+        assertArrayEquals(JSON, readAll(chain.getRequest()));
+    }
+
+    @Test
+    void shouldPassIdentityAndPlainBodiesUntouched() throws Exception {
+        MockHttpServletRequest plain = new MockHttpServletRequest("POST", "/mutant");
+        plain.setContent(JSON);
+
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(plain, new MockHttpServletResponse(), chain);
+        assertSame(plain, chain.getRequest());
+
+        MockHttpServletRequest identity = post("/mutant", "identity", JSON);
+        chain = new MockFilterChain();
+        filter.doFilter(identity, new MockHttpServletResponse(), chain);
+        assertSame(identity, chain.getRequest());
+    }
+
+    // ============================================================
+    // 2. Bombas de descompresión y codificaciones no soportadas
+    // ============================================================
+
+    @Test
+    void shouldCutDecompressionBombAtEndpointBudget() throws Exception {
+        // 10 MB de ceros: ~10KB comprimidos, dentro del límite; descomprimidos lo pasan de largo
+        byte[] bomb = gzip(new byte[10 << 20]);
+        assertTrue(bomb.length < 64 * 1024);
+
+        ServletRequest[] seen = new ServletRequest[1];
+
+        // Mismo orden que en la aplicación: descompresión y después el límite de tamaño
+        filter.doFilter(post("/mutant/batch", "gzip", bomb), new MockHttpServletResponse(),
+                (request, response) -> sizeLimit.doFilter(request, response,
+                        (limited, ignored) -> seen[0] = limited));
+
+        PayloadTooLargeException ex = assertThrows(PayloadTooLargeException.class, () -> readAll(seen[0]));
+        assertEquals(64 * 1024, ex.getLimit());
+    }
+
+    @Test
+    void shouldRejectCompressedContentLengthOverBudget() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(post("/mutant/batch", "gzip", new byte[64 * 1024 + 1]), response, chain);
+
+        assertEquals(413, response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void shouldReturn415ForUnsupportedEncodingOrEndpoint() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(post("/mutant", "br", JSON), response, new MockFilterChain());
+
+        assertEquals(415, response.getStatus());
+        assertEquals("gzip, zstd", response.getHeader("Accept-Encoding"));
+        assertTrue(response.getContentAsString().contains("UNSUPPORTED_MEDIA_TYPE"));
+
+        response = new MockHttpServletResponse();
+        filter.doFilter(post("/stats", "gzip", gzip(JSON)), response, new MockFilterChain());
+
+        assertEquals(415, response.getStatus());
+    }
+}
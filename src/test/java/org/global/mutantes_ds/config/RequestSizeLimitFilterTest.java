@@ -0,0 +1,144 @@
+package org.global.mutantes_ds.config;
+
+import jakarta.servlet.ServletRequest;
+import org.global.mutantes_ds.dto.DnaPayloadBinaryConverter;
+import org.global.mutantes_ds.exception.PayloadTooLargeException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestSizeLimitFilterTest {
+
+    // N máximo 10 → /mutant admite 10 * (10 + 16) + 4096 = 4356 bytes
+    private final RequestSizeLimitFilter filter =
+            new RequestSizeLimitFilter(10, DataSize.ofBytes(0), DataSize.ofBytes(100));
+
+    private static MockHttpServletRequest post(String path, int bytes) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setContent(new byte[bytes]);
+        return request;
+    }
+
+    // Body chunked: sin Content-Length
+    private static MockHttpServletRequest chunked(String path, int bytes) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path) {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        request.setContent(new byte[bytes]);
+        return request;
+    }
+
+    private static long drain(ServletRequest request) throws Exception {
+        try (InputStream in = request.getInputStream()) {
+            return in.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    // ============================================================
+    // 1. Presupuesto por endpoint
+    // ============================================================
+
+    @Test
+    void shouldDeriveMutantBudgetFromMaxDnaSize() {
+        assertEquals(4_356, RequestSizeLimitFilter.dnaJsonBytes(10));
+        assertEquals(1_020_096, RequestSizeLimitFilter.dnaJsonBytes(1_000));
+
+        // Varint de hasta 5 bytes y filas de ceil(N / 4) bytes
+        assertEquals(35, RequestSizeLimitFilter.dnaBinaryBytes(10));
+        assertEquals(250_005, RequestSizeLimitFilter.dnaBinaryBytes(1_000));
+    }
+
+    @Test
+    void shouldApplyBinaryBudgetByContentType() throws Exception {
+        MockHttpServletRequest binary = post("/mutant", 36);
+        binary.setContentType(DnaPayloadBinaryConverter.DNA_2BIT_VALUE + ";v=1");
+        assertEquals(35, filter.budgetFor(binary));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(binary, response, new MockFilterChain());
+        assertEquals(413, response.getStatus());
+
+        // El mismo body en JSON, o con un Content-Type inválido, tiene el presupuesto del JSON
+        MockHttpServletRequest json = post("/mutant", 36);
+        json.setContentType("application/json");
+        assertEquals(4_356, filter.budgetFor(json));
+
+        MockHttpServletRequest invalid = post("/mutant", 36);
+        invalid.setContentType("not a media type");
+        assertEquals(4_356, filter.budgetFor(invalid));
+
+        // El lote no acepta binario: su presupuesto no cambia
+        MockHttpServletRequest batch = post("/mutant/batch", 36);
+        batch.setContentType(DnaPayloadBinaryConverter.DNA_2BIT_VALUE);
+        assertEquals(100, filter.budgetFor(batch));
+    }
+
+    @Test
+    void shouldRejectDeclaredContentLengthOverBudgetWithoutCallingChain() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(post("/mutant/batch", 101), response, chain);
+
+        assertEquals(413, response.getStatus());
+        assertEquals("close", response.getHeader("Connection"));
+        assertTrue(response.getContentAsString().contains("PAYLOAD_TOO_LARGE"));
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void shouldResolveBudgetWithoutPathParametersOrContextPath() throws Exception {
+        // Spring MVC enruta /mutant;x=1 a checkMutant: el presupuesto tiene que ser el mismo
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(post("/mutant;x=1", 4_357), response, new MockFilterChain());
+        assertEquals(413, response.getStatus());
+
+        MockHttpServletRequest underContext = post("/api/mutant/batch", 101);
+        underContext.setContextPath("/api");
+
+        response = new MockHttpServletResponse();
+        filter.doFilter(underContext, response, new MockFilterChain());
+        assertEquals(413, response.getStatus());
+    }
+
+    @Test
+    void shouldPassBodiesWithinBudgetAndOtherPaths() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(post("/mutant", 4_356), new MockHttpServletResponse(), chain);
+        assertEquals(4_356, drain(chain.getRequest()));
+
+        // Sin presupuesto propio: no se envuelve
+        MockHttpServletRequest other = post("/stats", 10_000);
+        chain = new MockFilterChain();
+        filter.doFilter(other, new MockHttpServletResponse(), chain);
+        assertSame(other, chain.getRequest());
+    }
+
+    // ============================================================
+    // 2. Bodies sin Content-Length
+    // ============================================================
+
+    @Test
+    void shouldStopReadingChunkedBodyOncePastBudget() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(chunked("/mutant/batch", 10_000), new MockHttpServletResponse(), chain);
+
+        PayloadTooLargeException ex = assertThrows(PayloadTooLargeException.class, () -> drain(chain.getRequest()));
+        assertEquals(100, ex.getLimit());
+
+        // Exactamente el presupuesto sí se puede leer
+        MockFilterChain exact = new MockFilterChain();
+        filter.doFilter(chunked("/mutant/batch", 100), new MockHttpServletResponse(), exact);
+        assertEquals(100, drain(exact.getRequest()));
+    }
+}
@@ -1,14 +1,26 @@
 package org.global.mutantes_ds.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.global.mutantes_ds.dto.DnaPayload;
+import org.global.mutantes_ds.dto.DnaPayloadBinaryConverter;
 import org.global.mutantes_ds.dto.DnaRequest;
+import org.global.mutantes_ds.dto.DnaVerdictResponse;
 import org.global.mutantes_ds.dto.StatsResponse;
+import org.global.mutantes_ds.service.MutantBatchService;
 import org.global.mutantes_ds.service.MutantService;
 import org.global.mutantes_ds.service.StatsService;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,8 +32,6 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
-import java.util.concurrent.CompletableFuture;
-
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -35,6 +45,9 @@ class MutantControllerTest {
     @MockBean
     private MutantService mutantService;
 
+    @MockBean
+    private MutantBatchService mutantBatchService;
+
     @MockBean
     private StatsService statsService;
 
@@ -47,8 +60,8 @@ class MutantControllerTest {
 
     @Test
     void shouldReturn200IfMutant() throws Exception {
-        when(mutantService.analyzeDna(any()))
-                .thenReturn(CompletableFuture.completedFuture(true));
+        when(mutantService.analyzeDna(any(DnaPayload.class)))
+                .thenReturn(true);
 
         DnaRequest req = new DnaRequest(new String[]{"AAAA", "TTTT", "CCCC", "GGGG"});
 
@@ -60,13 +73,43 @@ class MutantControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void shouldAcceptTwoBitBinaryBody() throws Exception {
+        when(mutantService.analyzeDna(any(DnaPayload.class)))
+                .thenReturn(true);
+
+        // N = 4 y las filas AAAA, TTTT, CCCC, GGGG a 2 bits por base
+        mockMvc.perform(
+                        post("/mutant")
+                                .contentType(DnaPayloadBinaryConverter.DNA_2BIT)
+                                .content(new byte[]{4, 0x00, (byte) 0xFF, 0x55, (byte) 0xAA})
+                )
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldReturn400WithPositionForInvalidBinaryBody() throws Exception {
+        // N = 3: el último par de bits de cada fila es relleno y debe ser cero
+        mockMvc.perform(
+                        post("/mutant")
+                                .contentType(DnaPayloadBinaryConverter.DNA_2BIT)
+                                .content(new byte[]{3, 0x00, (byte) 0xC0, 0x00})
+                )
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("INVALID_BASE"))
+                .andExpect(jsonPath("$.row").value(1))
+                .andExpect(jsonPath("$.column").value(3));
+
+        verify(mutantService, never()).analyzeDna(any(DnaPayload.class));
+    }
+
     // ============================================================
     // 2. HUMANO → 403 Forbidden
     // ============================================================
 
     @Test
     void shouldReturn403IfHuman() throws Exception {
-        when(mutantService.analyzeDna(any()))
+        when(mutantService.analyzeDna(any(DnaPayload.class)))
                 .thenThrow(new RuntimeException("boom"));
 
         DnaRequest req = new DnaRequest(new String[]{"ATGC", "CAGT", "TTAT", "AGAC"});
@@ -95,13 +138,132 @@ class MutantControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void shouldReturn400ForNonSquareDnaWithoutCallingService() throws Exception {
+        mockMvc.perform(
+                        post("/mutant")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"dna\": [\"ATGC\", \"CAGT\", \"TTAT\"]}")
+                )
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("NOT_SQUARE"))
+                .andExpect(jsonPath("$.row").value(3))
+                .andExpect(jsonPath("$.column").doesNotExist());
+
+        verify(mutantService, never()).analyzeDna(any(DnaPayload.class));
+    }
+
+    @Test
+    void shouldReturnRowAndColumnOfFirstInvalidBase() throws Exception {
+        mockMvc.perform(
+                        post("/mutant")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"dna\": [\"ATGC\", \"CAGT\", \"TTxT\", \"AGAX\"]}")
+                )
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("INVALID_BASE"))
+                .andExpect(jsonPath("$.message").value("Base inválida en fila 2, columna 2"))
+                .andExpect(jsonPath("$.row").value(2))
+                .andExpect(jsonPath("$.column").value(2));
+    }
+
+    @Test
+    void shouldReturnBadRequestCodeForMalformedJson() throws Exception {
+        mockMvc.perform(
+                        post("/mutant")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"dna\": [\"ATGC\",")
+                )
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("BAD_REQUEST"))
+                .andExpect(jsonPath("$.row").doesNotExist());
+    }
+
+    @Test
+    void shouldReturn413ForBodyLargerThanDerivedBudget() throws Exception {
+        // Una fila de 1.1M bases: supera ~1MB (N = 1000) y se rechaza sin parsear
+        String body = "{\"dna\": [\"" + "A".repeat(1_100_000) + "\"]}";
+
+        mockMvc.perform(
+                        post("/mutant")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body)
+                )
+                .andExpect(status().is(413))
+                .andExpect(jsonPath("$.error").value("PAYLOAD_TOO_LARGE"));
+
+        verify(mutantService, never()).analyzeDna(any(DnaPayload.class));
+    }
+
+    @Test
+    void shouldReturn413ForOversizedBodyOnPathWithParameters() throws Exception {
+        // ";x=1" no cambia el handler (checkMutant) y tampoco puede saltear el límite
+        String body = "{\"dna\": [\"" + "A".repeat(1_100_000) + "\"]}";
+
+        mockMvc.perform(
+                        post("/mutant;x=1")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body)
+                )
+                .andExpect(status().is(413))
+                .andExpect(jsonPath("$.error").value("PAYLOAD_TOO_LARGE"));
+
+        verify(mutantService, never()).analyzeDna(any(DnaPayload.class));
+    }
+
+    @Test
+    void shouldAcceptGzipCompressedBody() throws Exception {
+        when(mutantService.analyzeDna(any(DnaPayload.class)))
+                .thenReturn(true);
+
+        mockMvc.perform(
+                        post("/mutant")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Content-Encoding", "gzip")
+                                .content(gzip("{\"dna\": [\"AAAA\", \"TTTT\", \"CCCC\", \"GGGG\"]}", 0))
+                )
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldReturn413ForBatchDecompressionBomb() throws Exception {
+        // ~40KB comprimidos que se expanden a 40MB, más que los 32MB del lote
+        mockMvc.perform(
+                        post("/mutant/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Content-Encoding", "gzip")
+                                .content(gzip("[{\"dna\": [\"", 40 << 20))
+                )
+                .andExpect(status().is(413))
+                .andExpect(jsonPath("$.error").value("PAYLOAD_TOO_LARGE"));
+
+        verify(mutantBatchService, never()).analyzeBatch(anyList());
+    }
+
+    // prefix seguido de padding bytes 'A', comprimido con gzip
+    private static byte[] gzip(String prefix, int padding) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(prefix.getBytes(StandardCharsets.UTF_8));
+
+            byte[] chunk = new byte[1 << 20];
+            Arrays.fill(chunk, (byte) 'A');
+            for (int written = 0; written < padding; written += chunk.length) {
+                gzip.write(chunk, 0, Math.min(chunk.length, padding - written));
+            }
+        }
+
+        return out.toByteArray();
+    }
+
     // ============================================================
     // 4. Error interno → 500
     // ============================================================
 
     @Test
     void shouldReturn500IfServiceThrowsException() throws Exception {
-        when(mutantService.analyzeDna(any())).thenThrow(new RuntimeException("boom"));
+        when(mutantService.analyzeDna(any(DnaPayload.class))).thenThrow(new RuntimeException("boom"));
 
         DnaRequest req = new DnaRequest(new String[]{"AAAA", "TTTT", "CCCC", "GGGG"});
 
@@ -172,4 +334,44 @@ class MutantControllerTest {
         mockMvc.perform(get("/stats"))
                 .andExpect(status().isInternalServerError());
     }
+
+    // ============================================================
+    // 9. POST /mutant/batch
+    // ============================================================
+
+    @Test
+    void shouldReturnVerdictPerDnaInBatch() throws Exception {
+        when(mutantBatchService.analyzeBatch(anyList())).thenReturn(List.of(
+                new DnaVerdictResponse("aa", true),
+                new DnaVerdictResponse("bb", false)));
+
+        List<DnaRequest> batch = List.of(
+                new DnaRequest(new String[]{"AAAA", "TTTT", "CCCC", "GGGG"}),
+                new DnaRequest(new String[]{"ATGC", "CAGT", "TTAT", "AGAC"}));
+
+        mockMvc.perform(
+                        post("/mutant/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(batch))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].hash").value("aa"))
+                .andExpect(jsonPath("$[0].mutant").value(true))
+                .andExpect(jsonPath("$[1].mutant").value(false));
+    }
+
+    @Test
+    void shouldReturn400IfAnyDnaInBatchIsInvalid() throws Exception {
+        mockMvc.perform(
+                        post("/mutant/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("[{\"dna\": [\"AAAA\", \"TTTT\", \"CCCC\", \"GGGG\"]}, {\"dna\": [\"AXYZ\", \"CAGT\"]}]")
+                )
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("INVALID_BASE"))
+                .andExpect(jsonPath("$.row").value(0))
+                .andExpect(jsonPath("$.column").value(1));
+
+        verify(mutantBatchService, never()).analyzeBatch(anyList());
+    }
 }
@@ -0,0 +1,187 @@
+package org.global.mutantes_ds.dto;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.global.mutantes_ds.exception.InvalidDnaException;
+import org.global.mutantes_ds.service.BitPackedDnaMatrix;
+import org.global.mutantes_ds.service.DnaHasher;
+import org.global.mutantes_ds.service.HashAlgorithm;
+import org.global.mutantes_ds.service.MutantMetrics;
+import org.global.mutantes_ds.validation.DnaValidation;
+import org.global.mutantes_ds.validation.DnaViolation;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DnaPayloadBinaryConverterTest {
+
+    private final DnaHasher hasher = new DnaHasher(HashAlgorithm.SHA256);
+    private final DnaPayloadBinaryConverter converter = new DnaPayloadBinaryConverter(hasher, 1000);
+
+    // Lo que enviaría un productor: varint N y filas de ceil(N / 4) bytes, primera base en los bits bajos
+    static byte[] encode(String[] dna) {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int n = dna.length;
+
+        for (int v = n; ; v >>>= 7) {
+            if (v < 0x80) {
+                out.write(v);
+                break;
+            }
+            out.write((v & 0x7F) | 0x80);
+        }
+
+        for (String row : dna) {
+            byte[] packed = new byte[(n + 3) / 4];
+            for (int col = 0; col < n; col++) {
+                packed[col / 4] |= (byte) (DnaValidation.code(row.charAt(col)) << ((col % 4) << 1));
+            }
+            out.writeBytes(packed);
+        }
+
+        return out.toByteArray();
+    }
+
+    private DnaPayload read(byte[] body) throws Exception {
+        return converter.read(DnaPayload.class, new MockHttpInputMessage(body));
+    }
+
+    private DnaViolation violationOf(byte[] body) {
+        HttpMessageNotReadableException ex = assertThrows(HttpMessageNotReadableException.class, () -> read(body));
+        return ((InvalidDnaException) ex.getCause()).getViolation();
+    }
+
+    private static String[] randomDna(int n, long seed) {
+        Random random = new Random(seed);
+        String[] dna = new String[n];
+        for (int row = 0; row < n; row++) {
+            char[] bases = new char[n];
+            for (int col = 0; col < n; col++) {
+                bases[col] = "ACGT".charAt(random.nextInt(4));
+            }
+            dna[row] = new String(bases);
+        }
+        return dna;
+    }
+
+    // ============================================================
+    // 1. Misma matriz y mismo hash que el JSON
+    // ============================================================
+
+    @Test
+    void shouldDecodeKnownBytes() throws Exception {
+        // AAAA = 0x00, TTTT = 0xFF, CCCC = 0x55, GGGG = 0xAA
+        DnaPayload payload = read(new byte[]{4, 0x00, (byte) 0xFF, 0x55, (byte) 0xAA});
+
+        assertEquals(4, payload.getMatrix().size());
+        assertEquals('T', payload.getMatrix().baseAt(1, 3));
+        assertEquals('G', payload.getMatrix().baseAt(3, 0));
+        assertEquals(hasher.hash(new String[]{"AAAA", "TTTT", "CCCC", "GGGG"}), payload.getDnaHash());
+    }
+
+    @Test
+    void shouldMatchJsonPathForSizesAcrossWordBoundaries() throws Exception {
+        for (int n : new int[]{1, 6, 31, 32, 33, 37, 129, 300}) {
+
+            String[] dna = randomDna(n, n);
+            DnaPayload payload = read(encode(dna));
+            BitPackedDnaMatrix expected = BitPackedDnaMatrix.encode(dna);
+
+            assertEquals(hasher.hash(dna), payload.getDnaHash(), "N = " + n);
+            assertEquals(expected.countSequences(Integer.MAX_VALUE),
+                    payload.getMatrix().countSequences(Integer.MAX_VALUE), "N = " + n);
+
+            for (int row = 0; row < n; row++) {
+                for (int col = 0; col < n; col++) {
+                    assertEquals(dna[row].charAt(col), payload.getMatrix().baseAt(row, col));
+                }
+            }
+        }
+    }
+
+    @Test
+    void shouldRecordHashTimeWhileReading() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        DnaPayloadBinaryConverter timed = new DnaPayloadBinaryConverter(
+                new DnaHasher(HashAlgorithm.SHA256, new MutantMetrics(registry)), 1000);
+        String[] dna = randomDna(64, 7);
+
+        DnaPayload payload = timed.read(DnaPayload.class, new MockHttpInputMessage(encode(dna)));
+
+        assertEquals(hasher.hash(dna), payload.getDnaHash());
+        assertEquals(1, registry.get("mutant.hash").timer().count());
+    }
+
+    @Test
+    void shouldReadMultiByteVarint() throws Exception {
+        // 200 = 0xC8 0x01
+        byte[] body = encode(randomDna(200, 1));
+
+        assertEquals((byte) 0xC8, body[0]);
+        assertEquals(0x01, body[1]);
+        assertEquals(200, read(body).getMatrix().size());
+    }
+
+    // ============================================================
+    // 2. Errores con el mismo código que el JSON
+    // ============================================================
+
+    @Test
+    void shouldRejectSizeAboveMaxFromHeaderAlone() {
+        // 1001 = 0xE9 0x07, sin filas detrás
+        assertEquals(DnaViolation.Kind.TOO_LARGE, violationOf(new byte[]{(byte) 0xE9, 0x07}).kind());
+
+        // Varint de más de 5 bytes
+        assertEquals(DnaViolation.Kind.TOO_LARGE,
+                violationOf(new byte[]{(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0}).kind());
+    }
+
+    @Test
+    void shouldRejectEmptyBodyOrZeroSize() {
+        assertEquals(DnaViolation.Kind.EMPTY, violationOf(new byte[0]).kind());
+        assertEquals(DnaViolation.Kind.EMPTY, violationOf(new byte[]{0}).kind());
+    }
+
+    @Test
+    void shouldRejectMissingOrExtraRows() {
+        byte[] body = encode(randomDna(6, 2));
+
+        // 1 byte de N y 2 bytes por fila: cortado a mitad de la fila 4
+        assertEquals(new DnaViolation(DnaViolation.Kind.NOT_SQUARE, 4, -1),
+                violationOf(Arrays.copyOf(body, 1 + 2 * 4 + 1)));
+
+        assertEquals(new DnaViolation(DnaViolation.Kind.NOT_SQUARE, 6, -1),
+                violationOf(Arrays.copyOf(body, body.length + 1)));
+    }
+
+    @Test
+    void shouldRejectNonZeroPaddingBits() {
+        byte[] body = encode(randomDna(6, 3));
+
+        // N = 6: el segundo byte de cada fila usa 2 bases; la columna 7 de la fila 2 es relleno
+        body[1 + 2 * 2 + 1] |= (byte) (0b01 << 6);
+
+        assertEquals(new DnaViolation(DnaViolation.Kind.INVALID_BASE, 2, 7), violationOf(body));
+    }
+
+    // ============================================================
+    // 3. Solo lectura
+    // ============================================================
+
+    @Test
+    void shouldNeverWriteBinaryResponses() throws Exception {
+        DnaPayload payload = read(encode(randomDna(4, 4)));
+
+        assertFalse(converter.canWrite(DnaPayload.class, DnaPayloadBinaryConverter.DNA_2BIT));
+        assertThrows(HttpMessageNotWritableException.class,
+                () -> converter.write(payload, DnaPayloadBinaryConverter.DNA_2BIT, new MockHttpOutputMessage()));
+    }
+}
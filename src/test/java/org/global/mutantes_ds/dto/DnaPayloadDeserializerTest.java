@@ -0,0 +1,182 @@
+package org.global.mutantes_ds.dto;
+
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.KeyDeserializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.cfg.HandlerInstantiator;
+import com.fasterxml.jackson.databind.cfg.MapperConfig;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.jsontype.TypeIdResolver;
+import com.fasterxml.jackson.databind.jsontype.TypeResolverBuilder;
+import org.global.mutantes_ds.exception.InvalidDnaException;
+import org.global.mutantes_ds.service.BitPackedDnaMatrix;
+import org.global.mutantes_ds.service.DnaHasher;
+import org.global.mutantes_ds.service.HashAlgorithm;
+import org.global.mutantes_ds.validation.DnaViolation;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DnaPayloadDeserializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Como SpringHandlerInstantiator: el @JsonDeserialize de DnaPayload se resuelve con esta instancia
+    // (un deserializer registrado en un módulo no le gana a la anotación)
+    private static ObjectMapper mapperWith(DnaPayloadDeserializer deserializer) {
+        ObjectMapper mapper = new ObjectMapper();
+
+        mapper.setHandlerInstantiator(new HandlerInstantiator() {
+
+            @Override
+            public JsonDeserializer<?> deserializerInstance(DeserializationConfig config, Annotated annotated,
+                                                            Class<?> deserClass) {
+                return deserializer;
+            }
+
+            @Override
+            public KeyDeserializer keyDeserializerInstance(DeserializationConfig config, Annotated annotated,
+                                                           Class<?> keyDeserClass) {
+                return null;
+            }
+
+            @Override
+            public JsonSerializer<?> serializerInstance(SerializationConfig config, Annotated annotated,
+                                                        Class<?> serClass) {
+                return null;
+            }
+
+            @Override
+            public TypeResolverBuilder<?> typeResolverBuilderInstance(
+                    MapperConfig<?> config, Annotated annotated, Class<?> builderClass) {
+                return null;
+            }
+
+            @Override
+            public TypeIdResolver typeIdResolverInstance(MapperConfig<?> config, Annotated annotated,
+                                                         Class<?> resolverClass) {
+                return null;
+            }
+        });
+
+        return mapper;
+    }
+
+    // ============================================================
+    // 1. ADN válido
+    // ============================================================
+
+    @Test
+    void shouldParseMatrixAndHashInOnePass() throws Exception {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+
+        DnaPayload payload = objectMapper.readValue(
+                objectMapper.writeValueAsString(new DnaRequest(dna)), DnaPayload.class);
+
+        BitPackedDnaMatrix matrix = payload.getMatrix();
+        assertEquals(6, matrix.size());
+        for (int row = 0; row < 6; row++) {
+            for (int col = 0; col < 6; col++) {
+                assertEquals(dna[row].charAt(col), matrix.baseAt(row, col));
+            }
+        }
+
+        // Mismo hash que el cálculo sobre String[] (compatibilidad con registros existentes)
+        assertEquals(new DnaHasher(HashAlgorithm.SHA256).hash(dna), payload.getDnaHash());
+    }
+
+    @Test
+    void shouldHashWithConfiguredAlgorithm() throws Exception {
+        String[] dna = {"ATGC", "CAGT", "TTAT", "AGAC"};
+        DnaHasher murmur = new DnaHasher(HashAlgorithm.MURMUR3_128);
+
+        DnaPayloadDeserializer deserializer = new DnaPayloadDeserializer();
+        deserializer.setHasher(murmur);
+        ObjectMapper mapper = mapperWith(deserializer);
+
+        DnaPayload payload = mapper.readValue(
+                mapper.writeValueAsString(new DnaRequest(dna)), DnaPayload.class);
+
+        assertEquals(murmur.hash(dna), payload.getDnaHash());
+    }
+
+    @Test
+    void shouldIgnoreUnknownFields() throws Exception {
+        DnaPayload payload = objectMapper.readValue(
+                "{\"id\": {\"a\": [1, 2]}, \"dna\": [\"AAAA\", \"CCCC\", \"TTAT\", \"AGTC\"]}",
+                DnaPayload.class);
+
+        assertEquals(4, payload.getMatrix().size());
+    }
+
+    // ============================================================
+    // 2. ADN inválido
+    // ============================================================
+
+    @Test
+    void shouldRejectNonSquareMatrix() {
+        assertThrows(MismatchedInputException.class, () -> objectMapper.readValue(
+                "{\"dna\": [\"ATGC\", \"CAGT\", \"TTAT\"]}", DnaPayload.class));
+
+        assertThrows(MismatchedInputException.class, () -> objectMapper.readValue(
+                "{\"dna\": [\"ATG\", \"CAG\", \"TTA\", \"AGA\"]}", DnaPayload.class));
+    }
+
+    @Test
+    void shouldRejectInvalidBase() {
+        MismatchedInputException ex = assertThrows(MismatchedInputException.class, () -> objectMapper.readValue(
+                "{\"dna\": [\"ATGC\", \"CAXT\", \"TTAT\", \"AGAC\"]}", DnaPayload.class));
+
+        assertTrue(ex.getOriginalMessage().contains("fila 1, columna 2"));
+        assertEquals(new DnaViolation(DnaViolation.Kind.INVALID_BASE, 1, 2),
+                ((InvalidDnaException) ex).getViolation());
+    }
+
+    @Test
+    void shouldReportRowThatBreaksSquareShape() {
+        assertEquals(new DnaViolation(DnaViolation.Kind.NOT_SQUARE, 3, -1),
+                violationOf("{\"dna\": [\"ATGC\", \"CAGT\", \"TTAT\"]}"));
+        assertEquals(new DnaViolation(DnaViolation.Kind.NOT_SQUARE, 1, -1),
+                violationOf("{\"dna\": [\"ATG\", \"CA\", \"TTA\"]}"));
+        assertEquals(new DnaViolation(DnaViolation.Kind.NOT_SQUARE, 2, -1),
+                violationOf("{\"dna\": [\"AT\", \"CA\", \"TT\"]}"));
+    }
+
+    @Test
+    void shouldRejectDnaLargerThanConfiguredMaxSizeOnFirstRow() {
+        DnaPayloadDeserializer deserializer = new DnaPayloadDeserializer();
+        deserializer.setMaxSize(3);
+        ObjectMapper mapper = mapperWith(deserializer);
+
+        // El resto del body ni siquiera es JSON válido: se corta antes de leerlo
+        InvalidDnaException ex = assertThrows(InvalidDnaException.class, () -> mapper.readValue(
+                "{\"dna\": [\"ATGC\", !!!", DnaPayload.class));
+
+        assertEquals(DnaViolation.Kind.TOO_LARGE, ex.getViolation().kind());
+        assertTrue(ex.getOriginalMessage().contains("entre 1 y 3"));
+    }
+
+    @Test
+    void shouldRejectMissingOrEmptyDna() {
+        assertThrows(MismatchedInputException.class,
+                () -> objectMapper.readValue("{}", DnaPayload.class));
+        assertThrows(MismatchedInputException.class,
+                () -> objectMapper.readValue("{\"dna\": []}", DnaPayload.class));
+        assertThrows(MismatchedInputException.class,
+                () -> objectMapper.readValue("{\"dna\": [\"AAAA\", null]}", DnaPayload.class));
+
+        assertEquals(DnaViolation.Kind.EMPTY, violationOf("{\"dna\": []}").kind());
+        assertEquals(DnaViolation.Kind.EMPTY, violationOf("{\"dna\": [\"\"]}").kind());
+        assertEquals(new DnaViolation(DnaViolation.Kind.NOT_SQUARE, 1, -1),
+                violationOf("{\"dna\": [\"AAAA\", null]}"));
+    }
+
+    private DnaViolation violationOf(String json) {
+        return assertThrows(InvalidDnaException.class, () -> objectMapper.readValue(json, DnaPayload.class))
+                .getViolation();
+    }
+}
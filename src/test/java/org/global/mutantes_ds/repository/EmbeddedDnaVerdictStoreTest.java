@@ -0,0 +1,365 @@
+package org.global.mutantes_ds.repository;
+
+import org.global.mutantes_ds.entity.DnaRecord;
+import org.global.mutantes_ds.service.DnaHash;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmbeddedDnaVerdictStoreTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 1, 10, 15, 42, 123_456_000);
+
+    // Segmentos chicos para que los tests crucen varios
+    private static final int SEGMENT_RECORDS = 4;
+
+    @TempDir
+    Path dir;
+
+    private Path storeDir;
+    private int segmentRecords;
+    private int indexCapacity;
+    private EmbeddedDnaVerdictStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = open(dir.resolve("store"), 1_000);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.close();
+    }
+
+    private EmbeddedDnaVerdictStore open(Path directory, int records) throws IOException {
+        return open(directory, records, OffHeapHashIndex.MAX_CAPACITY);
+    }
+
+    private EmbeddedDnaVerdictStore open(Path directory, int records, int capacity) throws IOException {
+        storeDir = directory;
+        segmentRecords = records;
+        indexCapacity = capacity;
+
+        EmbeddedDnaVerdictStore opened =
+                new EmbeddedDnaVerdictStore(directory.toString(), records, 0.5, false, capacity);
+        opened.open();
+        return opened;
+    }
+
+    private EmbeddedDnaVerdictStore reopen() throws IOException {
+        store.close();
+        store = open(storeDir, segmentRecords, indexCapacity);
+        return store;
+    }
+
+    // Store nuevo en otro directorio, con segmentos de records registros
+    private EmbeddedDnaVerdictStore withSegments(int records) throws IOException {
+        store.close();
+        store = open(dir.resolve("segments-" + records), records);
+        return store;
+    }
+
+    private static DnaRecord record(long id, boolean isMutant, LocalDateTime createdAt) {
+        return DnaRecord.builder()
+                .dnaHash(new DnaHash(id, ~id, id * 31, 7))
+                .isMutant(isMutant)
+                .createdAt(createdAt)
+                .build();
+    }
+
+    private static DnaHash hash(long id) {
+        return record(id, false, NOW).getDnaHash();
+    }
+
+    // ============================================================
+    // 1. Insert-if-absent y lecturas
+    // ============================================================
+
+    @Test
+    void shouldInsertOnlyAbsentHashes() {
+        DnaRecord mutant = record(1, true, NOW);
+        DnaRecord human = record(2, false, NOW);
+
+        assertArrayEquals(new boolean[]{true, true, false}, store.insertIfAbsent(List.of(mutant, human, mutant)));
+        assertFalse(store.insertIfAbsent(human));
+
+        DnaRecord found = store.find(mutant.getDnaHash()).orElseThrow();
+        assertTrue(found.isMutant());
+        assertEquals(NOW, found.getCreatedAt());
+
+        assertEquals(2, store.findAll(List.of(mutant.getDnaHash(), human.getDnaHash(), new DnaHash(9, 9, 9, 9))).size());
+        assertEquals(1, store.count(true));
+        assertEquals(1, store.count(false));
+    }
+
+    @Test
+    void shouldDistinguishHashesThatShareFirstWord() {
+        DnaRecord first = DnaRecord.builder().dnaHash(new DnaHash(5, 1, 1, 1)).isMutant(true).createdAt(NOW).build();
+        DnaRecord second = DnaRecord.builder().dnaHash(new DnaHash(5, 2, 2, 2)).isMutant(false).createdAt(NOW).build();
+
+        assertArrayEquals(new boolean[]{true, true}, store.insertIfAbsent(List.of(first, second)));
+
+        assertTrue(store.find(first.getDnaHash()).orElseThrow().isMutant());
+        assertFalse(store.find(second.getDnaHash()).orElseThrow().isMutant());
+        assertTrue(store.find(new DnaHash(5, 3, 3, 3)).isEmpty());
+    }
+
+    @Test
+    void shouldDeleteAndReturnRemovedRecord() {
+        DnaRecord human = record(3, false, NOW);
+        store.insertIfAbsent(human);
+
+        assertFalse(store.delete(human.getDnaHash()).orElseThrow().isMutant());
+        assertTrue(store.delete(human.getDnaHash()).isEmpty());
+        assertTrue(store.find(human.getDnaHash()).isEmpty());
+        assertEquals(0, store.count(false));
+    }
+
+    // ============================================================
+    // 2. Recuperación al reiniciar
+    // ============================================================
+
+    @Test
+    void shouldRebuildIndexFromSegmentsIncludingTombstones() throws IOException {
+        EmbeddedDnaVerdictStore small = withSegments(64);
+
+        for (int i = 0; i < 10_000; i++) {
+            small.insertIfAbsent(record(i, i % 3 == 0, NOW));
+        }
+        small.delete(hash(0));
+
+        EmbeddedDnaVerdictStore reopened = reopen();
+
+        assertEquals(9_999, reopened.size());
+        assertTrue(reopened.find(hash(0)).isEmpty());
+        assertTrue(reopened.find(hash(3)).orElseThrow().isMutant());
+        assertEquals(3_333, reopened.count(true));
+        assertEquals(6_666, reopened.count(false));
+    }
+
+    @Test
+    void shouldDiscardTornRecordAtEndOfLog() throws IOException {
+        store.insertIfAbsent(List.of(record(1, true, NOW), record(2, false, NOW)));
+        store.close();
+
+        // Corte a mitad de un tercer registro
+        try (FileChannel channel = FileChannel.open(storeDir.resolve("verdicts-000001.seg"), StandardOpenOption.WRITE)) {
+            byte[] half = new byte[EmbeddedDnaVerdictStore.RECORD_BYTES / 2];
+            Arrays.fill(half, (byte) 0x5A);
+            channel.write(ByteBuffer.wrap(half), 2L * EmbeddedDnaVerdictStore.RECORD_BYTES);
+        }
+
+        store = open(storeDir, segmentRecords);
+        assertEquals(2, store.size());
+
+        // Lo que se escribe después ocupa el lugar del registro incompleto
+        store.insertIfAbsent(record(3, true, NOW));
+        assertEquals(3, reopen().size());
+        assertTrue(store.find(hash(3)).orElseThrow().isMutant());
+    }
+
+    // ============================================================
+    // 3. Compactación
+    // ============================================================
+
+    @Test
+    void shouldCompactSealedSegmentWhenDeadRecordsBuildUp() throws IOException {
+        EmbeddedDnaVerdictStore small = withSegments(SEGMENT_RECORDS);
+
+        for (int i = 0; i < 8; i++) {
+            small.insertIfAbsent(record(i, i % 2 == 0, NOW));
+        }
+        assertEquals(2, small.segmentCount());
+
+        // El primer segmento pasa el umbral de 0.5 y termina sin vivos; el segundo no tiene muertos
+        for (int i = 0; i < 4; i++) {
+            small.delete(hash(i));
+        }
+        small.awaitCompaction();
+
+        assertFalse(Files.exists(storeDir.resolve("verdicts-000001.seg")));
+        assertTrue(Files.exists(storeDir.resolve("verdicts-000002.seg")));
+        assertEquals(4, small.size());
+        assertTrue(small.find(hash(4)).orElseThrow().isMutant());
+        assertFalse(small.find(hash(5)).orElseThrow().isMutant());
+
+        EmbeddedDnaVerdictStore reopened = reopen();
+
+        assertEquals(4, reopened.size());
+        assertTrue(reopened.find(hash(0)).isEmpty());
+        assertTrue(reopened.find(hash(3)).isEmpty());
+        assertEquals(NOW, reopened.find(hash(6)).orElseThrow().getCreatedAt());
+        assertEquals(2, reopened.count(true));
+        assertEquals(2, reopened.count(false));
+    }
+
+    @Test
+    void shouldKeepReinsertedHashAfterCompactingItsTombstone() throws IOException {
+        EmbeddedDnaVerdictStore small = withSegments(SEGMENT_RECORDS);
+
+        small.insertIfAbsent(record(1, true, NOW));
+        small.delete(hash(1));
+        small.insertIfAbsent(record(1, false, NOW));
+
+        for (int i = 20; i < 30; i++) {
+            small.insertIfAbsent(record(i, false, NOW));
+        }
+        for (int i = 20; i < 28; i++) {
+            small.delete(hash(i));
+        }
+        small.awaitCompaction();
+
+        // Del primer segmento solo queda el hash reinsertado: la lápida no anula nada más viejo
+        assertEquals(EmbeddedDnaVerdictStore.RECORD_BYTES, Files.size(storeDir.resolve("verdicts-000001.seg")));
+        assertFalse(Files.exists(storeDir.resolve("verdicts-000002.seg")));
+
+        EmbeddedDnaVerdictStore reopened = reopen();
+
+        assertFalse(reopened.find(hash(1)).orElseThrow().isMutant());
+        assertTrue(reopened.find(hash(20)).isEmpty());
+        assertEquals(3, reopened.size());
+        assertEquals(0, reopened.count(true));
+        assertEquals(3, reopened.count(false));
+    }
+
+    @Test
+    void shouldServeReadsAndWritesWhileCompactingInBackground() throws Exception {
+        EmbeddedDnaVerdictStore small = withSegments(64);
+
+        for (int i = 0; i < 6_400; i++) {
+            small.insertIfAbsent(record(i, i % 2 == 0, NOW));
+        }
+
+        // Borrados que disparan compactaciones mientras otro hilo inserta y consulta hashes que no se borran
+        AtomicInteger missing = new AtomicInteger();
+        Thread writer = Thread.ofPlatform().start(() -> {
+            for (int i = 0; i < 6_400; i++) {
+                small.insertIfAbsent(record(10_000 + i, false, NOW));
+                if (small.find(hash(10_000 + i)).isEmpty() || small.find(hash(i % 2_133 * 3 + 1)).isEmpty())
+                    missing.incrementAndGet();
+            }
+        });
+
+        for (int i = 0; i < 6_400; i += 3) {
+            small.delete(hash(i));
+        }
+        writer.join();
+        small.awaitCompaction();
+
+        assertEquals(0, missing.get());
+
+        EmbeddedDnaVerdictStore reopened = reopen();
+
+        for (int i = 0; i < 6_400; i++) {
+            assertEquals(i % 3 != 0, reopened.find(hash(i)).isPresent(), "hash " + i);
+        }
+        assertEquals(6_400 - 2_134 + 6_400, reopened.size());
+    }
+
+    // ============================================================
+    // 4. Índice lleno
+    // ============================================================
+
+    @Test
+    void shouldRejectInsertsBeforeWritingOnceIndexIsFull() throws IOException {
+        store.close();
+        store = open(dir.resolve("full"), SEGMENT_RECORDS, 64);
+
+        // Carga normal de 64 slots: 44 hashes
+        for (int i = 0; i < 44; i++) {
+            assertTrue(store.insertIfAbsent(record(i, false, NOW)));
+        }
+
+        assertThrows(DataAccessResourceFailureException.class, () -> store.insertIfAbsent(record(44, true, NOW)));
+        assertTrue(store.find(hash(44)).isEmpty());
+
+        // Nada quedó en el log sin indexar
+        assertEquals(44, reopen().size());
+        assertEquals(0, store.count(true));
+    }
+
+    @Test
+    void shouldStartWhenLogHoldsMoreHashesThanIndexFits() throws IOException {
+        EmbeddedDnaVerdictStore large = withSegments(SEGMENT_RECORDS);
+
+        for (int i = 0; i < 60; i++) {
+            large.insertIfAbsent(record(i, false, NOW));
+        }
+        large.close();
+
+        store = open(storeDir, SEGMENT_RECORDS, 64);
+
+        // Entran hasta la carga máxima (57 de 64); el resto queda en el log
+        assertEquals(57, store.size());
+        assertTrue(store.find(hash(0)).isPresent());
+        assertThrows(DataAccessResourceFailureException.class, () -> store.insertIfAbsent(record(100, true, NOW)));
+
+        // Con lugar en el índice vuelven todos
+        store.close();
+        store = open(storeDir, SEGMENT_RECORDS);
+        assertEquals(60, store.size());
+    }
+
+    // ============================================================
+    // 5. Conteos por fecha
+    // ============================================================
+
+    @Test
+    void shouldCountByDateRangeAndMinute() {
+        LocalDateTime minute = LocalDateTime.of(2025, 3, 1, 10, 15);
+
+        store.insertIfAbsent(List.of(
+                record(1, true, minute),
+                record(2, true, minute.plusSeconds(30)),
+                record(3, false, minute.plusSeconds(59)),
+                record(4, false, minute.plusMinutes(1))));
+
+        assertEquals(2, store.countBetween(true, minute, minute.plusSeconds(30)));
+        assertEquals(1, store.countInRange(true, minute, minute.plusSeconds(30)));
+        assertEquals(1, store.countInRange(false, minute, minute.plusMinutes(1)));
+
+        NavigableMap<LocalDateTime, long[]> totals = store.countByMinute();
+        assertArrayEquals(new long[]{2, 1}, totals.get(minute));
+        assertArrayEquals(new long[]{0, 1}, totals.get(minute.plusMinutes(1)));
+    }
+
+    @Test
+    void shouldCountOnlyLiveRecordsAcrossBlocksAndSegments() throws IOException {
+        EmbeddedDnaVerdictStore small = withSegments(10_000);
+        LocalDateTime start = LocalDateTime.of(2025, 3, 1, 0, 0);
+
+        // Un registro por segundo: varios bloques y dos segmentos
+        for (int i = 0; i < 15_000; i++) {
+            small.insertIfAbsent(record(i, i % 2 == 0, start.plusSeconds(i)));
+        }
+        // Llega tarde con un created_at viejo: cae en un bloque de fechas nuevas
+        small.insertIfAbsent(record(99_999, true, start.plusSeconds(120)));
+        small.delete(hash(121));
+
+        // [120, 150): 15 mutantes y 15 humanos, más el tardío y sin el borrado
+        assertEquals(16, small.countInRange(true, start.plusSeconds(120), start.plusSeconds(150)));
+        assertEquals(14, small.countInRange(false, start.plusSeconds(120), start.plusSeconds(150)));
+        assertEquals(1, small.countBetween(true, start.plusSeconds(12_000), start.plusSeconds(12_000)));
+
+        NavigableMap<LocalDateTime, long[]> totals = small.countByMinute();
+        assertArrayEquals(new long[]{31, 29}, totals.get(start.plusMinutes(2)));
+        assertArrayEquals(new long[]{30, 30}, totals.get(start.plusMinutes(200)));
+        assertEquals(15_000, totals.values().stream().mapToLong(t -> t[0] + t[1]).sum());
+    }
+}
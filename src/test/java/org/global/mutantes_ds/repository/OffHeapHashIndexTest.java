@@ -0,0 +1,133 @@
+package org.global.mutantes_ds.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapHashIndexTest {
+
+    // Las claves completas viven "en el log": aquí, un array de claves por ubicación
+    private final long[] keys = new long[100_000];
+
+    private long get(OffHeapHashIndex index, long key) {
+        return index.get(first(key), location -> keys[(int) location] == key);
+    }
+
+    private long put(OffHeapHashIndex index, long key, long location) {
+        keys[(int) location] = key;
+        return index.put(first(key), location, existing -> keys[(int) existing] == key);
+    }
+
+    private long remove(OffHeapHashIndex index, long key) {
+        return index.remove(first(key), location -> keys[(int) location] == key);
+    }
+
+    // Muchas claves comparten h0, así que se verifica también la confirmación por clave completa
+    private static long first(long key) {
+        return key % 1_000;
+    }
+
+    // ============================================================
+    // 1. Alta, reemplazo y baja
+    // ============================================================
+
+    @Test
+    void shouldPutReplaceAndRemove() {
+        OffHeapHashIndex index = new OffHeapHashIndex(16);
+
+        assertEquals(-1, put(index, 42, 0));
+        assertEquals(-1, put(index, 1_042, 1));
+        assertEquals(0, get(index, 42));
+        assertEquals(1, get(index, 1_042));
+
+        assertEquals(0, put(index, 42, 2));
+        assertEquals(2, get(index, 42));
+        assertEquals(2, index.size());
+
+        assertEquals(2, remove(index, 42));
+        assertEquals(-1, get(index, 42));
+        assertEquals(1, get(index, 1_042));
+        assertEquals(-1, remove(index, 42));
+        assertEquals(1, index.size());
+    }
+
+    // ============================================================
+    // 2. Contra un HashMap, con resize y borrados en clusters
+    // ============================================================
+
+    @Test
+    void shouldMatchHashMapUnderRandomOperations() {
+        OffHeapHashIndex index = new OffHeapHashIndex(16);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(7);
+
+        for (int location = 0; location < keys.length; location++) {
+
+            long key = random.nextInt(20_000);
+
+            if (random.nextInt(3) == 0) {
+                Long removed = expected.remove(key);
+                assertEquals(removed == null ? -1 : removed, remove(index, key));
+            } else {
+                Long previous = expected.put(key, (long) location);
+                assertEquals(previous == null ? -1 : previous, put(index, key, location));
+            }
+        }
+
+        assertEquals(expected.size(), index.size());
+        expected.forEach((key, location) -> assertEquals(location, get(index, key)));
+
+        long[] visited = new long[1];
+        index.forEach(location -> visited[0]++);
+        assertEquals(expected.size(), visited[0]);
+    }
+
+    // ============================================================
+    // 3. Compactación y tamaño máximo
+    // ============================================================
+
+    @Test
+    void shouldReplaceLocationOnlyWhenHashStillPointsToIt() {
+        OffHeapHashIndex index = new OffHeapHashIndex(16);
+
+        put(index, 42, 0);
+
+        assertTrue(index.replace(first(42), 0, 5));
+        assertEquals(5, index.get(first(42), location -> location == 5));
+        assertFalse(index.replace(first(42), 0, 6));
+        assertFalse(index.replace(first(7), 7, 8));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void shouldStopGrowingAtMaxCapacityAndFailOnlyAboveHardLoad() {
+        OffHeapHashIndex index = new OffHeapHashIndex(16, 64);
+
+        // Carga normal: 44 de 64 slots
+        for (int key = 0; key < 44; key++) {
+            put(index, key, key);
+        }
+        assertTrue(index.hasRoomFor(0));
+        assertFalse(index.hasRoomFor(1));
+
+        // Por encima de la carga normal (recorrido del log al arrancar) hasta 57
+        for (int key = 44; key < 57; key++) {
+            put(index, key, key);
+        }
+        assertTrue(index.full());
+        assertThrows(IllegalStateException.class, () -> put(index, 57, 57));
+
+        // Reemplazar y quitar siguen funcionando
+        assertEquals(3, put(index, 3, 99));
+        assertEquals(99, remove(index, 3));
+        assertFalse(index.full());
+
+        for (int key = 0; key < 57; key++) {
+            assertEquals(key == 3 ? -1 : key, get(index, key));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.global.mutantes_ds.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DnaHasherTest {
+
+    private static final String[] DNA = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+
+    // ============================================================
+    // 1. SHA-256
+    // ============================================================
+
+    @Test
+    void shouldPrefixSizeBeforeRows() throws Exception {
+        MessageDigest expected = MessageDigest.getInstance("SHA-256");
+        expected.update(new byte[]{0, 0, 0, 6});
+        expected.update(String.join("", DNA).getBytes(StandardCharsets.US_ASCII));
+
+        assertArrayEquals(expected.digest(), new DnaHasher(HashAlgorithm.SHA256).hash(DNA).toBytes());
+    }
+
+    @Test
+    void shouldMatchSha256OfConcatenatedRowsForLegacyFingerprint() throws Exception {
+        byte[] expected = MessageDigest.getInstance("SHA-256")
+                .digest(String.join("", DNA).getBytes(StandardCharsets.US_ASCII));
+
+        DnaHasher hasher = new DnaHasher(HashAlgorithm.SHA256);
+
+        assertArrayEquals(expected, hasher.legacyHash(DNA).toBytes());
+        assertEquals(hasher.legacyHash(DNA), hasher.legacyHash(BitPackedDnaMatrix.encode(DNA)));
+    }
+
+    @Test
+    void shouldDistinguishMatricesWithSameConcatenation() {
+        DnaHasher hasher = new DnaHasher(HashAlgorithm.SHA256);
+
+        // 16 bases como 4 filas de 4 o como 2 filas de 8: antes compartían la huella
+        String[] square = {"AAAA", "AAAA", "AAAA", "AAAA"};
+        String[] wide = {"AAAAAAAA", "AAAAAAAA"};
+
+        assertEquals(hasher.legacyHash(square), hasher.legacyHash(wide));
+        assertNotEquals(hasher.hash(square), hasher.hash(wide));
+    }
+
+    @Test
+    void shouldReusePooledDigestsWithoutLeakingState() {
+        DnaHasher hasher = new DnaHasher(HashAlgorithm.SHA256);
+        DnaHash first = hasher.hash(DNA);
+
+        // Una sesión abandonada no debe contaminar los hashes siguientes
+        hasher.newSession(2).update(new byte[]{'A', 'C'}, 0, 2);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(first, hasher.hash(DNA));
+        }
+    }
+
+    // ============================================================
+    // 2. Murmur3 x64 128
+    // ============================================================
+
+    @Test
+    void shouldMatchReferenceMurmur3Vector() {
+        DnaHash hash = new DnaHasher(HashAlgorithm.MURMUR3_128).legacyHash(new String[]{"hello"});
+
+        // Guava: murmur3_128().hashString("hello") = 029bbd41b3a7d8cb191dae486a901e5b (little-endian)
+        assertEquals(0xcbd8a7b341bd9b02L, hash.h0());
+        assertEquals(0x5b1e906a48ae1d19L, hash.h1());
+        assertEquals(0, hash.h2());
+        assertEquals(0, hash.h3());
+    }
+
+    @Test
+    void shouldHashRowByRowLikeOneShot() {
+        DnaHasher hasher = new DnaHasher(HashAlgorithm.MURMUR3_128);
+
+        // Filas de largos distintos cruzan el bloque de 16 bytes en posiciones distintas
+        String[] rows = {"ACG", "TTTTTTTTTTTTTTTTTTTT", "GA", "CCCCCCCCCCCCC"};
+
+        assertEquals(hasher.legacyHash(new String[]{String.join("", rows)}), hasher.legacyHash(rows));
+        assertNotEquals(hasher.hash(DNA), new DnaHasher(HashAlgorithm.SHA256).hash(DNA));
+    }
+}
@@ -0,0 +1,199 @@
+package org.global.mutantes_ds.service;
+
+import org.global.mutantes_ds.entity.DnaRecord;
+import org.global.mutantes_ds.repository.DnaVerdictStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class DnaRecordWriteBehindTest {
+
+    private static final DnaHash SAME = new DnaHash(1, 0, 0, 0);
+
+    private DnaVerdictStore store;
+    private DnaStatsTracker statsTracker;
+    private DnaRecordWriteBehind writeBehind;
+
+    @BeforeEach
+    void setUp() {
+        store = mock(DnaVerdictStore.class);
+        statsTracker = mock(DnaStatsTracker.class);
+
+        // Todos los registros del lote son nuevos
+        when(store.insertIfAbsent(anyList())).thenAnswer(invocation -> {
+            boolean[] inserted = new boolean[invocation.<List<?>>getArgument(0).size()];
+            Arrays.fill(inserted, true);
+            return inserted;
+        });
+
+        writeBehind = new DnaRecordWriteBehind(
+                store,
+                mock(PlatformTransactionManager.class),
+                statsTracker,
+                true, 100, 1_000, 1_000
+        );
+    }
+
+    // ============================================================
+    // 1. Lotes y drenado al apagar
+    // ============================================================
+
+    @Test
+    void shouldFlushQueuedRecordsInOneBatchOnShutdown() throws Exception {
+        writeBehind.start();
+
+        for (int i = 0; i < 10; i++) {
+            writeBehind.enqueue(record(new DnaHash(i, 0, 0, 0), i % 2 == 0));
+        }
+
+        writeBehind.stop();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DnaRecord>> captor = ArgumentCaptor.forClass(List.class);
+        verify(store, atLeastOnce()).insertIfAbsent(captor.capture());
+
+        List<DnaHash> persisted = new ArrayList<>();
+        captor.getAllValues().forEach(batch -> batch.forEach(r -> persisted.add(r.getDnaHash())));
+
+        assertEquals(10, persisted.size());
+        assertTrue(captor.getAllValues().size() <= 2);
+        assertEquals(0, writeBehind.queueSize());
+
+        // Las estadísticas se actualizan con los registros insertados
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DnaRecord>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(statsTracker, atLeastOnce()).recordInserted(inserted.capture());
+        assertEquals(10, inserted.getAllValues().stream().mapToInt(List::size).sum());
+    }
+
+    // ============================================================
+    // 2. Veredictos pendientes
+    // ============================================================
+
+    @Test
+    void shouldExposePendingVerdictAndIgnoreDuplicates() throws Exception {
+        writeBehind.start();
+
+        // Con linger de 1s el registro sigue pendiente mientras se arma el lote
+        writeBehind.enqueue(record(SAME, true));
+        writeBehind.enqueue(record(SAME, true));
+
+        assertEquals(Boolean.TRUE, writeBehind.pendingVerdict(SAME).orElse(null));
+        assertTrue(writeBehind.pendingVerdict(new DnaHash(2, 0, 0, 0)).isEmpty());
+
+        writeBehind.stop();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DnaRecord>> captor = ArgumentCaptor.forClass(List.class);
+        verify(store).insertIfAbsent(captor.capture());
+
+        assertEquals(1, captor.getValue().size());
+        assertTrue(writeBehind.pendingVerdict(SAME).isEmpty());
+    }
+
+    // ============================================================
+    // 3. Fallas de la base y apagado
+    // ============================================================
+
+    @Test
+    void shouldRetryFailedBatchAndKeepVerdictPendingUntilWritten() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Las primeras 3 inserciones (lote y reintento uno por uno) fallan
+        when(store.insertIfAbsent(anyList())).thenAnswer(invocation -> {
+            if (attempts.incrementAndGet() <= 3)
+                throw new IllegalStateException("base caída");
+            return new boolean[]{true};
+        });
+
+        writeBehind = new DnaRecordWriteBehind(
+                store, mock(PlatformTransactionManager.class), statsTracker, true, 100, 1, 1_000);
+        writeBehind.start();
+
+        writeBehind.enqueue(record(SAME, true));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (attempts.get() <= 3 && System.nanoTime() < deadline) {
+            // Mientras falla, el veredicto ya respondido sigue visible
+            assertEquals(Boolean.TRUE, writeBehind.pendingVerdict(SAME).orElse(null));
+            Thread.sleep(5);
+        }
+
+        writeBehind.stop();
+
+        assertTrue(attempts.get() >= 4);
+        assertTrue(writeBehind.pendingVerdict(SAME).isEmpty());
+
+        // /stats cuenta el registro una sola vez, cuando finalmente se insertó
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DnaRecord>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(statsTracker).recordInserted(inserted.capture());
+        assertEquals(SAME, inserted.getValue().get(0).getDnaHash());
+    }
+
+    @Test
+    void shouldPersistSynchronouslyAfterStopAndSurfaceErrors() throws Exception {
+        writeBehind.start();
+        writeBehind.stop();
+
+        writeBehind.enqueue(record(SAME, true));
+        verify(store).insertIfAbsent(anyList());
+        assertEquals(0, writeBehind.queueSize());
+
+        when(store.insertIfAbsent(anyList())).thenThrow(new IllegalStateException("base caída"));
+
+        DnaHash other = new DnaHash(3, 0, 0, 0);
+        assertThrows(IllegalStateException.class, () -> writeBehind.enqueue(record(other, false)));
+        assertTrue(writeBehind.pendingVerdict(other).isEmpty());
+    }
+
+    @Test
+    void shouldNotLoseRecordsEnqueuedConcurrentlyWithStop() throws Exception {
+        writeBehind = new DnaRecordWriteBehind(
+                store, mock(PlatformTransactionManager.class), statsTracker, true, 100, 1, 8);
+        writeBehind.start();
+
+        Thread[] producers = new Thread[8];
+        for (int t = 0; t < producers.length; t++) {
+            int base = t * 100;
+            producers[t] = Thread.ofVirtual().start(() -> {
+                for (int i = 0; i < 100; i++) {
+                    writeBehind.enqueue(record(new DnaHash(base + i, 1, 0, 0), false));
+                }
+            });
+        }
+
+        writeBehind.stop();
+
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DnaRecord>> captor = ArgumentCaptor.forClass(List.class);
+        verify(store, atLeastOnce()).insertIfAbsent(captor.capture());
+
+        assertEquals(800, captor.getAllValues().stream().mapToInt(List::size).sum());
+        assertEquals(0, writeBehind.queueSize());
+    }
+
+    private static DnaRecord record(DnaHash hash, boolean isMutant) {
+        return DnaRecord.builder()
+                .dnaHash(hash)
+                .isMutant(isMutant)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
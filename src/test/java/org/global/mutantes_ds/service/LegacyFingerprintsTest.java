@@ -0,0 +1,105 @@
+package org.global.mutantes_ds.service;
+
+import org.global.mutantes_ds.entity.DnaRecord;
+import org.global.mutantes_ds.repository.DnaRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LegacyFingerprintsTest {
+
+    private static final String[] DNA = {"ATGC", "CAGT", "TTAT", "AGAC"};
+
+    private DnaRecordRepository repository;
+    private DnaHasher hasher;
+    private LegacyFingerprints legacyFingerprints;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(DnaRecordRepository.class);
+        hasher = new DnaHasher(HashAlgorithm.SHA256);
+        legacyFingerprints = new LegacyFingerprints(repository, hasher);
+    }
+
+    private DnaRecord legacyRecord(boolean isMutant) {
+        return DnaRecord.builder()
+                .id(1L)
+                .dnaHash(hasher.legacyHash(DNA))
+                .fingerprintVersion(DnaHasher.LEGACY_FINGERPRINT)
+                .isMutant(isMutant)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    // ============================================================
+    // 1. Sin registros legacy
+    // ============================================================
+
+    @Test
+    void shouldNotQueryWhenNoLegacyRecordsExist() {
+        legacyFingerprints.seed();
+
+        assertFalse(legacyFingerprints.pending());
+        assertTrue(legacyFingerprints.adopt(hasher.hash(DNA), DNA).isEmpty());
+
+        verify(repository, never()).findByDnaHashAndFingerprintVersion(any(), anyInt());
+    }
+
+    // ============================================================
+    // 2. Migración perezosa
+    // ============================================================
+
+    @Test
+    void shouldRekeyLegacyRecordWithCurrentFingerprint() {
+        DnaHash hash = hasher.hash(DNA);
+
+        when(repository.countByFingerprintVersion(DnaHasher.LEGACY_FINGERPRINT)).thenReturn(2L);
+        when(repository.findByDnaHashAndFingerprintVersion(hasher.legacyHash(DNA), DnaHasher.LEGACY_FINGERPRINT))
+                .thenReturn(Optional.of(legacyRecord(false)));
+        when(repository.rekey(1L, hash, DnaHasher.FINGERPRINT_VERSION, DnaHasher.LEGACY_FINGERPRINT))
+                .thenReturn(1);
+        legacyFingerprints.seed();
+
+        // La matriz empaquetada produce la misma huella legacy que el String[]
+        assertEquals(Optional.of(false), legacyFingerprints.adopt(hash, BitPackedDnaMatrix.encode(DNA)));
+
+        verify(repository).rekey(1L, hash, DnaHasher.FINGERPRINT_VERSION, DnaHasher.LEGACY_FINGERPRINT);
+        assertTrue(legacyFingerprints.pending());
+    }
+
+    @Test
+    void shouldCountRecordOnceWhenAnotherRequestMigratedIt() {
+        DnaHash hash = hasher.hash(DNA);
+
+        when(repository.countByFingerprintVersion(DnaHasher.LEGACY_FINGERPRINT)).thenReturn(1L);
+        when(repository.findByDnaHashAndFingerprintVersion(hasher.legacyHash(DNA), DnaHasher.LEGACY_FINGERPRINT))
+                .thenReturn(Optional.of(legacyRecord(true)));
+        legacyFingerprints.seed();
+
+        // El UPDATE condicional no modificó nada: otra request ya lo migró y descontó
+        when(repository.rekey(1L, hash, DnaHasher.FINGERPRINT_VERSION, DnaHasher.LEGACY_FINGERPRINT))
+                .thenReturn(0);
+        assertEquals(Optional.of(true), legacyFingerprints.adopt(hash, DNA));
+        assertTrue(legacyFingerprints.pending());
+
+        when(repository.rekey(1L, hash, DnaHasher.FINGERPRINT_VERSION, DnaHasher.LEGACY_FINGERPRINT))
+                .thenReturn(1);
+        legacyFingerprints.adopt(hash, DNA);
+        assertFalse(legacyFingerprints.pending());
+    }
+
+    @Test
+    void shouldStopPendingWhenLastLegacyRecordIsDeleted() {
+        when(repository.countByFingerprintVersion(DnaHasher.LEGACY_FINGERPRINT)).thenReturn(1L);
+        legacyFingerprints.seed();
+
+        legacyFingerprints.deleted(legacyRecord(true));
+
+        assertFalse(legacyFingerprints.pending());
+    }
+}
@@ -0,0 +1,209 @@
+package org.global.mutantes_ds.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.global.mutantes_ds.dto.DnaPayload;
+import org.global.mutantes_ds.dto.DnaVerdictResponse;
+import org.global.mutantes_ds.entity.DnaRecord;
+import org.global.mutantes_ds.exception.InvalidDnaBatchException;
+import org.global.mutantes_ds.repository.DnaRecordRepository;
+import org.global.mutantes_ds.repository.DnaVerdictStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MutantBatchServiceTest {
+
+    private static final String[] MUTANT = {"AAAA", "CCCC", "TCAG", "GGTC"};
+    private static final String[] HUMAN = {"ATGC", "CAGT", "TTAT", "AGAC"};
+    private static final String[] KNOWN = {"ACGT", "GTAC", "ACGT", "GTAC"};
+
+    private static final DnaHasher HASHER = new DnaHasher(HashAlgorithm.SHA256);
+
+    private MutantDetector detector;
+    private DnaVerdictStore store;
+    private DnaRecordRepository repository;
+    private DnaRecordWriteBehind writeBehind;
+    private VerdictCache verdictCache;
+    private DnaStatsTracker statsTracker;
+    private LegacyFingerprints legacyFingerprints;
+    private MutantBatchService service;
+
+    @BeforeEach
+    void setUp() {
+        detector = spy(new MutantDetector());
+        store = mock(DnaVerdictStore.class);
+        repository = mock(DnaRecordRepository.class);
+        writeBehind = mock(DnaRecordWriteBehind.class);
+        verdictCache = new VerdictCache(1_000);
+        statsTracker = mock(DnaStatsTracker.class);
+        legacyFingerprints = new LegacyFingerprints(repository, HASHER);
+
+        when(writeBehind.pendingVerdict(any(DnaHash.class))).thenReturn(Optional.empty());
+        when(store.findAll(any())).thenReturn(List.of());
+        when(store.insertIfAbsent(anyList()))
+                .thenAnswer(inv -> trues(inv.<List<?>>getArgument(0).size()));
+
+        MutantMetrics metrics = new MutantMetrics(new SimpleMeterRegistry());
+        service = new MutantBatchService(detector, writeBehind, verdictCache, legacyFingerprints, metrics,
+                new DnaVerdictPersistence(store, statsTracker, metrics));
+    }
+
+    private static DnaPayload payload(String[] dna) {
+        return new DnaPayload(BitPackedDnaMatrix.encode(dna), HASHER.hash(dna));
+    }
+
+    private static boolean[] trues(int size) {
+        boolean[] values = new boolean[size];
+        Arrays.fill(values, true);
+        return values;
+    }
+
+    // ============================================================
+    // 1. Veredictos en el orden recibido
+    // ============================================================
+
+    @Test
+    void shouldReturnVerdictsInRequestOrder() {
+        DnaPayload mutant = payload(MUTANT);
+        DnaPayload human = payload(HUMAN);
+
+        List<DnaVerdictResponse> verdicts = service.analyzeBatch(List.of(human, mutant));
+
+        assertEquals(2, verdicts.size());
+        assertEquals(human.getDnaHash().toHex(), verdicts.get(0).getHash());
+        assertFalse(verdicts.get(0).isMutant());
+        assertEquals(mutant.getDnaHash().toHex(), verdicts.get(1).getHash());
+        assertTrue(verdicts.get(1).isMutant());
+    }
+
+    // ============================================================
+    // 2. Deduplicación dentro del lote
+    // ============================================================
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldAnalyzeRepeatedDnaOnlyOnce() {
+        List<DnaVerdictResponse> verdicts = service.analyzeBatch(List.of(
+                payload(MUTANT), payload(HUMAN), payload(MUTANT), payload(MUTANT)));
+
+        assertEquals(4, verdicts.size());
+        assertTrue(verdicts.get(3).isMutant());
+
+        // Dos hashes distintos: dos detecciones, una consulta IN y un solo batch de dos registros
+        verify(detector, times(2)).isMutant(any(BitPackedDnaMatrix.class));
+
+        ArgumentCaptor<Collection<DnaHash>> hashes = ArgumentCaptor.forClass(Collection.class);
+        verify(store, times(1)).findAll(hashes.capture());
+        assertEquals(2, hashes.getValue().size());
+
+        ArgumentCaptor<List<DnaRecord>> records = ArgumentCaptor.forClass(List.class);
+        verify(store, times(1)).insertIfAbsent(records.capture());
+        assertEquals(2, records.getValue().size());
+        verify(statsTracker).recordInserted(records.getValue());
+    }
+
+    // ============================================================
+    // 3. Hashes conocidos (base y cache)
+    // ============================================================
+
+    @Test
+    void shouldUseStoredVerdictWithoutDetectingOrSaving() {
+        DnaPayload known = payload(KNOWN);
+
+        DnaRecord record = DnaRecord.builder()
+                .dnaHash(known.getDnaHash())
+                .isMutant(true)
+                .createdAt(LocalDateTime.now())
+                .build();
+        when(store.findAll(any())).thenReturn(List.of(record));
+
+        List<DnaVerdictResponse> verdicts = service.analyzeBatch(List.of(known));
+
+        assertTrue(verdicts.get(0).isMutant());
+        verify(detector, never()).isMutant(any(BitPackedDnaMatrix.class));
+        verify(store, never()).insertIfAbsent(anyList());
+
+        // El segundo lote sale de la cache de veredictos, sin consultar la base
+        service.analyzeBatch(List.of(known));
+        verify(store, times(1)).findAll(any());
+    }
+
+    @Test
+    void shouldNotCountRecordsAlreadyInsertedByAnotherRequest() {
+        when(store.insertIfAbsent(anyList())).thenReturn(new boolean[]{false});
+
+        List<DnaVerdictResponse> verdicts = service.analyzeBatch(List.of(payload(MUTANT)));
+
+        assertTrue(verdicts.get(0).isMutant());
+        verify(statsTracker, never()).recordInserted(anyList());
+    }
+
+    @Test
+    void shouldNotCacheVerdictsWhenInsertFails() {
+        DnaPayload mutant = payload(MUTANT);
+        when(store.insertIfAbsent(anyList())).thenThrow(new IllegalStateException("base caída"));
+
+        assertThrows(IllegalStateException.class, () -> service.analyzeBatch(List.of(mutant)));
+
+        // El veredicto no quedó guardado: el próximo lote vuelve a buscarlo y a insertarlo
+        assertNull(verdictCache.get(mutant.getDnaHash()));
+    }
+
+    @Test
+    void shouldAdoptLegacyRecordsWithOneQuery() {
+        DnaPayload known = payload(KNOWN);
+
+        DnaRecord legacy = DnaRecord.builder()
+                .id(3L)
+                .dnaHash(HASHER.legacyHash(KNOWN))
+                .fingerprintVersion(DnaHasher.LEGACY_FINGERPRINT)
+                .isMutant(true)
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        when(repository.countByFingerprintVersion(DnaHasher.LEGACY_FINGERPRINT)).thenReturn(1L);
+        legacyFingerprints.seed();
+        when(repository.findByDnaHashInAndFingerprintVersion(any(), eq(DnaHasher.LEGACY_FINGERPRINT)))
+                .thenReturn(List.of(legacy));
+        when(repository.rekey(3L, known.getDnaHash(), DnaHasher.FINGERPRINT_VERSION, DnaHasher.LEGACY_FINGERPRINT))
+                .thenReturn(1);
+
+        List<DnaVerdictResponse> verdicts = service.analyzeBatch(List.of(known, payload(HUMAN)));
+
+        // KNOWN sale del registro legacy (re-escrito); solo HUMAN se detecta y se guarda
+        assertTrue(verdicts.get(0).isMutant());
+        assertFalse(verdicts.get(1).isMutant());
+        verify(repository).rekey(3L, known.getDnaHash(), DnaHasher.FINGERPRINT_VERSION, DnaHasher.LEGACY_FINGERPRINT);
+        verify(detector, times(1)).isMutant(any(BitPackedDnaMatrix.class));
+        assertFalse(legacyFingerprints.pending());
+    }
+
+    @Test
+    void shouldSkipLegacyLookupWhenNoLegacyRecordsRemain() {
+        service.analyzeBatch(List.of(payload(HUMAN)));
+
+        verify(repository, never()).findByDnaHashInAndFingerprintVersion(any(), anyInt());
+    }
+
+    // ============================================================
+    // 4. Lotes inválidos
+    // ============================================================
+
+    @Test
+    void shouldRejectEmptyOrOversizedBatch() {
+        assertThrows(InvalidDnaBatchException.class, () -> service.analyzeBatch(List.of()));
+
+        List<DnaPayload> oversized = Collections.nCopies(1_001, payload(HUMAN));
+        assertThrows(InvalidDnaBatchException.class, () -> service.analyzeBatch(oversized));
+    }
+}
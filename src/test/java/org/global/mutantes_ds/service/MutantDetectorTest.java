@@ -3,6 +3,8 @@ package org.global.mutantes_ds.service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class MutantDetectorTest {
@@ -132,7 +134,7 @@ class MutantDetectorTest {
 
     @Test
     void shouldReturnFalseForNullDna() {
-        assertFalse(detector.isMutant(null));
+        assertFalse(detector.isMutant((String[]) null));
     }
 
     @Test
@@ -231,4 +233,203 @@ class MutantDetectorTest {
         assertTrue(result);
         assertTrue((end - start) < 10_000_000);
     }
+
+    // ============================================================
+    // 7. Motor bit-packed
+    // ============================================================
+
+    @Test
+    void bitPackedEngineShouldDetectSequenceAcrossWordBoundary() {
+        // La secuencia horizontal ocupa las columnas 30..33 (cruza de la word 0 a la 1)
+        // y la vertical la columna 35; el resto de la matriz no tiene secuencias
+        int n = 40;
+        String[] dna = new String[n];
+        for (int i = 0; i < n; i++) {
+            StringBuilder row = new StringBuilder();
+            for (int j = 0; j < n; j++) {
+                row.append("ACGT".charAt((2 * i + j) % 4));
+            }
+            dna[i] = row.toString();
+        }
+        dna[0] = dna[0].substring(0, 30) + "AAAA" + dna[0].substring(34);
+        for (int i = 5; i < 9; i++) {
+            dna[i] = dna[i].substring(0, 35) + "A" + dna[i].substring(36);
+        }
+
+        MutantDetector bitPacked = new MutantDetector(DetectionEngine.BITPACKED);
+
+        assertTrue(bitPacked.isMutant(dna));
+        assertEquals(detector.isMutant(dna), bitPacked.isMutant(dna));
+    }
+
+    @Test
+    void bitPackedEngineShouldRejectInvalidInput() {
+        MutantDetector bitPacked = new MutantDetector(DetectionEngine.BITPACKED);
+
+        assertFalse(bitPacked.isMutant((String[]) null));
+        assertFalse(bitPacked.isMutant(new String[]{}));
+        assertFalse(bitPacked.isMutant(new String[]{"ATGC", "CAGT", "TTAT"}));
+        assertFalse(bitPacked.isMutant(new String[]{"AAAA", null, "CCCC", "GGGG"}));
+        assertFalse(bitPacked.isMutant(new String[]{"AAAA", "AAAX", "CCCC", "GGGG"}));
+    }
+
+    @Test
+    void bitPackedEngineShouldMatchScalarEngine() {
+        MutantDetector bitPacked = new MutantDetector(DetectionEngine.BITPACKED);
+        Random random = new Random(42);
+
+        for (int t = 0; t < 2_000; t++) {
+            int n = 1 + random.nextInt(70);
+            // Alfabeto reducido para que aparezcan secuencias con frecuencia
+            String alphabet = random.nextBoolean() ? "ACGT" : "AT";
+            String[] dna = new String[n];
+
+            for (int i = 0; i < n; i++) {
+                StringBuilder row = new StringBuilder();
+                for (int j = 0; j < n; j++) {
+                    row.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+                dna[i] = row.toString();
+            }
+
+            assertEquals(detector.isMutant(dna), bitPacked.isMutant(dna), "n=" + n);
+        }
+    }
+
+    // ============================================================
+    // 8. Motor vectorial (Vector API)
+    // ============================================================
+
+    @Test
+    void vectorEngineShouldMatchScalarEngine() {
+        // Los tests corren con --add-modules jdk.incubator.vector; sin el módulo
+        // el motor cae al recorrido escalar y el resultado debe ser el mismo
+        MutantDetector vector = new MutantDetector(DetectionEngine.VECTOR);
+        Random random = new Random(7);
+
+        for (int t = 0; t < 1_000; t++) {
+            int n = 1 + random.nextInt(130);
+            String alphabet = random.nextBoolean() ? "ACGT" : "AT";
+            String[] dna = new String[n];
+
+            for (int i = 0; i < n; i++) {
+                StringBuilder row = new StringBuilder();
+                for (int j = 0; j < n; j++) {
+                    row.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+                dna[i] = row.toString();
+            }
+
+            assertEquals(detector.isMutant(dna), vector.isMutant(dna), "n=" + n);
+        }
+    }
+
+    @Test
+    void vectorEngineShouldRejectInvalidInput() {
+        MutantDetector vector = new MutantDetector(DetectionEngine.VECTOR);
+
+        assertFalse(vector.isMutant(new String[]{"ATGC", "CAGT", "TTAT"}));
+        assertFalse(vector.isMutant(new String[]{"AAAA", "AAAX", "CCCC", "GGGG"}));
+        assertTrue(vector.isMutant(new String[]{"AAAA", "CCCC", "TTAT", "AGTC"}));
+    }
+
+    // ============================================================
+    // 9. Recorrido paralelo por bandas (fork/join)
+    // ============================================================
+
+    @Test
+    void parallelScanShouldDetectSequencesInDifferentBands() {
+        // Una secuencia cerca del inicio y otra al final: caen en bandas distintas
+        String[] dna = humanMatrix(300);
+        dna[2] = "TTTT" + dna[2].substring(4);
+        for (int i = 290; i < 294; i++) {
+            dna[i] = dna[i].substring(0, 150) + "T" + dna[i].substring(151);
+        }
+
+        for (DetectionEngine engine : DetectionEngine.values()) {
+            assertTrue(new MutantDetector(engine, 1).isMutant(dna), engine.name());
+        }
+    }
+
+    @Test
+    void parallelScanShouldReturnFalseForSingleSequence() {
+        // Una sola secuencia justo en el borde entre bandas (usa el halo de filas)
+        String[] dna = humanMatrix(300);
+        for (int i = 148; i < 152; i++) {
+            dna[i] = dna[i].substring(0, 10) + "T" + dna[i].substring(11);
+        }
+
+        for (DetectionEngine engine : DetectionEngine.values()) {
+            MutantDetector parallel = new MutantDetector(engine, 1);
+            assertFalse(parallel.isMutant(humanMatrix(300)), engine.name());
+            assertFalse(parallel.isMutant(dna), engine.name());
+        }
+    }
+
+    @Test
+    void parallelScanShouldMatchSequentialScan() {
+        Random random = new Random(11);
+
+        for (int t = 0; t < 200; t++) {
+            int n = 4 + random.nextInt(200);
+            String[] dna = humanMatrix(n);
+
+            // Agrega 0, 1 o 2 secuencias verticales en posiciones aleatorias
+            int added = random.nextInt(3);
+            for (int k = 0; k < added; k++) {
+                int row = random.nextInt(n - 3);
+                int col = random.nextInt(n);
+                for (int i = row; i < row + 4; i++) {
+                    dna[i] = dna[i].substring(0, col) + "A" + dna[i].substring(col + 1);
+                }
+            }
+
+            for (DetectionEngine engine : DetectionEngine.values()) {
+                assertEquals(
+                        new MutantDetector(engine, Integer.MAX_VALUE).isMutant(dna),
+                        new MutantDetector(engine, 1).isMutant(dna),
+                        engine.name() + " n=" + n
+                );
+            }
+        }
+    }
+
+    // Matriz NxN sin ninguna secuencia de 4 en ninguna dirección
+    private static String[] humanMatrix(int n) {
+        String[] dna = new String[n];
+        for (int i = 0; i < n; i++) {
+            StringBuilder row = new StringBuilder();
+            for (int j = 0; j < n; j++) {
+                row.append("ACGT".charAt((2 * i + j) % 4));
+            }
+            dna[i] = row.toString();
+        }
+        return dna;
+    }
+
+    // ============================================================
+    // 10. Matriz empaquetada durante el parseo
+    // ============================================================
+
+    @Test
+    void shouldDetectFromPackedMatrix() {
+        String[] mutant = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+
+        assertTrue(detector.isMutant(BitPackedDnaMatrix.encode(mutant)));
+        assertFalse(detector.isMutant(BitPackedDnaMatrix.encode(humanMatrix(300))));
+        assertFalse(detector.isMutant((BitPackedDnaMatrix) null));
+    }
+
+    @Test
+    void shouldDetectPackedMatrixWithConfiguredEngine() {
+        String[] mutant = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        String[] human = humanMatrix(37);
+
+        assertArrayEquals(human, BitPackedDnaMatrix.encode(human).decode());
+
+        for (DetectionEngine engine : DetectionEngine.values()) {
+            assertTrue(new MutantDetector(engine).isMutant(BitPackedDnaMatrix.encode(mutant)), engine.name());
+            assertFalse(new MutantDetector(engine, 1).isMutant(BitPackedDnaMatrix.encode(human)), engine.name());
+        }
+    }
 }
@@ -0,0 +1,69 @@
+package org.global.mutantes_ds.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MutantMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private MutantMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new MutantMetrics(registry);
+    }
+
+    // ============================================================
+    // 1. Detector por tamaño y veredicto
+    // ============================================================
+
+    @Test
+    void shouldTagDetectionBySizeBucketAndVerdict() {
+        assertTrue(metrics.timeDetection(6, () -> true));
+        assertFalse(metrics.timeDetection(64, () -> false));
+        metrics.timeDetection(1000, () -> true);
+
+        assertEquals(1, registry.get("mutant.detector").tags("size", "<=8", "verdict", "mutant").timer().count());
+        assertEquals(1, registry.get("mutant.detector").tags("size", "<=64", "verdict", "human").timer().count());
+        assertEquals(1, registry.get("mutant.detector").tags("size", "<=1000", "verdict", "mutant").timer().count());
+        assertEquals(0, registry.get("mutant.detector").tags("size", "<=256", "verdict", "human").timer().count());
+    }
+
+    // ============================================================
+    // 2. Hash y repositorio
+    // ============================================================
+
+    @Test
+    void shouldTimeHashAndRepositoryOperations() {
+        DnaHasher hasher = new DnaHasher(HashAlgorithm.SHA256, metrics);
+        hasher.hash(new String[]{"ATGC", "CAGT", "TTAT", "AGAC"});
+
+        metrics.timeRepository("find", () -> "x");
+        metrics.timeRepository("find", () -> "y");
+
+        assertEquals(1, registry.get("mutant.hash").timer().count());
+        assertEquals(2, registry.get("mutant.repository").tag("operation", "find").timer().count());
+    }
+
+    @Test
+    void shouldTimeHashSessionsOnceAtFinish() {
+        DnaHasher hasher = new DnaHasher(HashAlgorithm.MURMUR3_128, metrics);
+        DnaHasher.Session session = hasher.newSession(2);
+
+        session.update(new byte[]{'A', 'T'}, 0, 2);
+        session.update(new byte[]{'G', 'C'}, 0, 2);
+        assertEquals(0, registry.get("mutant.hash").timer().count());
+
+        // Misma clave que una sesión sin medir
+        assertEquals(new DnaHasher(HashAlgorithm.MURMUR3_128).hash(new String[]{"AT", "GC"}), session.finish());
+        assertEquals(1, registry.get("mutant.hash").timer().count());
+
+        // Una sesión abandonada (ADN inválido a mitad del parseo) no se registra
+        hasher.newSession(4).update(new byte[]{'A'}, 0, 1);
+        assertEquals(1, registry.get("mutant.hash").timer().count());
+    }
+}
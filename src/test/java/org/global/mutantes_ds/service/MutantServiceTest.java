@@ -1,13 +1,21 @@
 package org.global.mutantes_ds.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.global.mutantes_ds.entity.DnaRecord;
 import org.global.mutantes_ds.repository.DnaRecordRepository;
+import org.global.mutantes_ds.repository.DnaVerdictStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -15,46 +23,66 @@ import static org.mockito.Mockito.*;
 class MutantServiceTest {
 
     private MutantDetector detector;
+    private DnaVerdictStore store;
     private DnaRecordRepository repository;
+    private DnaRecordWriteBehind writeBehind;
+    private DnaStatsTracker statsTracker;
+    private DnaHasher hasher;
+    private LegacyFingerprints legacyFingerprints;
     private MutantService service;
 
     @BeforeEach
     void setUp() {
         detector = mock(MutantDetector.class);
+        store = mock(DnaVerdictStore.class);
         repository = mock(DnaRecordRepository.class);
-        service = new MutantService(detector, repository);
+        writeBehind = mock(DnaRecordWriteBehind.class);
+        statsTracker = mock(DnaStatsTracker.class);
+        hasher = new DnaHasher(HashAlgorithm.SHA256);
+        legacyFingerprints = new LegacyFingerprints(repository, hasher);
+
+        service = serviceWith(writeBehind);
+
+        when(store.insertIfAbsent(any(DnaRecord.class))).thenReturn(true);
+    }
+
+    private MutantService serviceWith(DnaRecordWriteBehind writeBehind) {
+        MutantMetrics metrics = new MutantMetrics(new SimpleMeterRegistry());
+        return new MutantService(detector, writeBehind, new VerdictCache(1_000), hasher, legacyFingerprints,
+                metrics, new DnaVerdictPersistence(store, statsTracker, metrics));
     }
 
     @Test
     void shouldSaveNewMutantDna() {
         String[] dna = {"AAAA", "TTTT", "CCCC", "GGGG"};
 
-        when(repository.findByDnaHash(anyString())).thenReturn(Optional.empty());
+        when(store.find(any(DnaHash.class))).thenReturn(Optional.empty());
         when(detector.isMutant(dna)).thenReturn(true);
 
-        boolean result = service.analyzeDna(dna).join(); // FIX
+        boolean result = service.analyzeDna(dna);
 
         assertTrue(result);
-        verify(repository).save(any(DnaRecord.class));
+        verify(store).insertIfAbsent(any(DnaRecord.class));
+        verify(statsTracker).recordInserted(eq(true), any(LocalDateTime.class));
     }
 
     @Test
     void shouldSaveNewHumanDna() {
         String[] dna = {"ATCG", "TAGC", "CGTA", "GCAT"};
 
-        when(repository.findByDnaHash(anyString())).thenReturn(Optional.empty());
+        when(store.find(any(DnaHash.class))).thenReturn(Optional.empty());
         when(detector.isMutant(dna)).thenReturn(false);
 
-        boolean result = service.analyzeDna(dna).join(); // FIX
+        boolean result = service.analyzeDna(dna);
 
         assertFalse(result);
-        verify(repository).save(any(DnaRecord.class));
+        verify(store).insertIfAbsent(any(DnaRecord.class));
     }
 
     @Test
     void shouldReturnCachedResultIfDnaExists() {
 
-        String hash = "abc123";
+        DnaHash hash = new DnaHash(0xabc123L, 0, 0, 0);
 
         DnaRecord record = DnaRecord.builder()
                 .dnaHash(hash)
@@ -62,22 +90,22 @@ class MutantServiceTest {
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        when(repository.findByDnaHash(anyString())).thenReturn(Optional.of(record));
+        when(store.find(any(DnaHash.class))).thenReturn(Optional.of(record));
 
-        boolean result = service.analyzeDna(new String[]{"AAAA"}).join(); // FIX
+        boolean result = service.analyzeDna(new String[]{"AAAA"});
 
         assertTrue(result);
 
-        verify(detector, never()).isMutant(any());
-        verify(repository, never()).save(any());
+        verify(detector, never()).isMutant(any(String[].class));
+        verify(store, never()).insertIfAbsent(any(DnaRecord.class));
     }
 
     @Test
     void shouldGenerateConsistentHashForSameDna() {
         String[] dna = {"ATGC", "CAGT", "TTAT", "AGAC"};
 
-        String hash1 = service.calculateDnaHash(dna);
-        String hash2 = service.calculateDnaHash(dna);
+        DnaHash hash1 = service.calculateDnaHash(dna);
+        DnaHash hash2 = service.calculateDnaHash(dna);
 
         assertEquals(hash1, hash2);
     }
@@ -86,13 +114,13 @@ class MutantServiceTest {
     void shouldSaveRecordWithCorrectHash() {
         String[] dna = {"ATGC", "CAGT", "TTAT", "AGAC"};
 
-        when(repository.findByDnaHash(anyString())).thenReturn(Optional.empty());
+        when(store.find(any(DnaHash.class))).thenReturn(Optional.empty());
         when(detector.isMutant(dna)).thenReturn(false);
 
-        service.analyzeDna(dna).join(); // FIX
+        service.analyzeDna(dna);
 
         ArgumentCaptor<DnaRecord> captor = ArgumentCaptor.forClass(DnaRecord.class);
-        verify(repository).save(captor.capture());
+        verify(store).insertIfAbsent(captor.capture());
 
         DnaRecord saved = captor.getValue();
 
@@ -100,4 +128,262 @@ class MutantServiceTest {
         assertEquals(saved.getDnaHash(), service.calculateDnaHash(dna));
         assertNotNull(saved.getCreatedAt());
     }
+
+    @Test
+    void shouldEnqueueNewDnaWhenWriteBehindIsEnabled() {
+        String[] dna = {"AAAA", "TTTT", "CCCC", "GGGG"};
+
+        when(writeBehind.isEnabled()).thenReturn(true);
+        when(store.find(any(DnaHash.class))).thenReturn(Optional.empty());
+        when(detector.isMutant(dna)).thenReturn(true);
+
+        assertTrue(service.analyzeDna(dna));
+
+        verify(writeBehind).enqueue(any(DnaRecord.class));
+        verify(store, never()).insertIfAbsent(any(DnaRecord.class));
+        verify(statsTracker, never()).recordInserted(anyBoolean(), any());
+    }
+
+    @Test
+    void shouldUsePendingVerdictBeforeQueryingRepository() {
+        String[] dna = {"AAAA", "TTTT", "CCCC", "GGGG"};
+
+        when(writeBehind.pendingVerdict(service.calculateDnaHash(dna))).thenReturn(Optional.of(true));
+
+        assertTrue(service.analyzeDna(dna));
+
+        verify(store, never()).find(any(DnaHash.class));
+        verify(detector, never()).isMutant(any(String[].class));
+    }
+
+    @Test
+    void shouldServeRepeatedDnaFromVerdictCache() {
+        String[] dna = {"ATGC", "CAGT", "TTAT", "AGAC"};
+
+        when(store.find(any(DnaHash.class))).thenReturn(Optional.empty());
+        when(detector.isMutant(dna)).thenReturn(false);
+
+        assertFalse(service.analyzeDna(dna));
+        assertFalse(service.analyzeDna(dna));
+
+        // La segunda vez no se consulta la base ni se vuelve a detectar
+        verify(store, times(1)).find(any(DnaHash.class));
+        verify(detector, times(1)).isMutant(dna);
+    }
+
+    @Test
+    void shouldInvalidateVerdictCacheOnDelete() {
+        String[] dna = {"ATGC", "CAGT", "TTAT", "AGAC"};
+        DnaHash hash = service.calculateDnaHash(dna);
+
+        DnaRecord record = DnaRecord.builder()
+                .dnaHash(hash)
+                .isMutant(false)
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        when(store.find(hash)).thenReturn(Optional.of(record));
+        service.analyzeDna(dna);
+
+        when(store.delete(hash)).thenReturn(Optional.of(record));
+        service.deleteByHash(hash);
+        verify(store).delete(hash);
+        verify(statsTracker).recordDeleted(false, record.getCreatedAt());
+
+        when(store.find(hash)).thenReturn(Optional.empty());
+        when(detector.isMutant(dna)).thenReturn(false);
+        service.analyzeDna(dna);
+
+        // Sin la entrada cacheada se vuelve a detectar y guardar
+        verify(detector).isMutant(dna);
+        verify(store).insertIfAbsent(any(DnaRecord.class));
+    }
+
+    @Test
+    void shouldDeleteVerdictStillQueuedInWriteBehind() throws Exception {
+        String[] dna = {"AAAA", "TTTT", "CCCC", "GGGG"};
+        DnaHash hash = service.calculateDnaHash(dna);
+
+        // Linger largo: el veredicto queda en la cola mientras llega el DELETE
+        DnaRecordWriteBehind queued = new DnaRecordWriteBehind(
+                store, mock(PlatformTransactionManager.class), statsTracker, true, 100, 200, 1_000);
+        service = serviceWith(queued);
+        queued.start();
+
+        when(store.find(hash)).thenReturn(Optional.empty());
+        when(store.insertIfAbsent(anyList())).thenReturn(new boolean[]{true});
+        when(detector.isMutant(dna)).thenReturn(true);
+
+        assertTrue(service.analyzeDna(dna));
+        assertTrue(queued.pendingVerdict(hash).isPresent());
+
+        DnaRecord record = DnaRecord.builder()
+                .dnaHash(hash)
+                .isMutant(true)
+                .createdAt(LocalDateTime.now())
+                .build();
+        when(store.delete(hash)).thenReturn(Optional.of(record));
+
+        service.deleteByHash(hash);
+        queued.stop();
+
+        // El lote se escribió antes del delete, y nada lo vuelve a escribir después
+        InOrder order = inOrder(store);
+        order.verify(store).insertIfAbsent(anyList());
+        order.verify(store).delete(hash);
+        verify(store, times(1)).insertIfAbsent(anyList());
+        assertTrue(queued.pendingVerdict(hash).isEmpty());
+
+        // La cache tampoco responde el veredicto eliminado
+        when(detector.isMutant(dna)).thenReturn(false);
+        assertFalse(service.analyzeDna(dna));
+    }
+
+    @Test
+    void shouldNotCountDnaSavedConcurrentlyByAnotherRequest() {
+        String[] dna = {"AAAA", "TTTT", "CCCC", "GGGG"};
+
+        when(store.find(any(DnaHash.class))).thenReturn(Optional.empty());
+        when(store.insertIfAbsent(any(DnaRecord.class))).thenReturn(false);
+        when(detector.isMutant(dna)).thenReturn(true);
+
+        assertTrue(service.analyzeDna(dna));
+
+        verify(statsTracker, never()).recordInserted(anyBoolean(), any());
+    }
+
+    @Test
+    void shouldThrowWhenDeletingUnknownHash() {
+        DnaHash hash = new DnaHash(1, 2, 3, 4);
+
+        when(store.delete(hash)).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> service.deleteByHash(hash));
+        verify(statsTracker, never()).recordDeleted(anyBoolean(), any());
+    }
+
+    @Test
+    void shouldAdoptLegacyRecordInsteadOfDetecting() {
+        String[] dna = {"ATGC", "CAGT", "TTAT", "AGAC"};
+        DnaHash legacyHash = hasher.legacyHash(dna);
+        DnaHash hash = service.calculateDnaHash(dna);
+
+        DnaRecord legacy = DnaRecord.builder()
+                .id(7L)
+                .dnaHash(legacyHash)
+                .fingerprintVersion(DnaHasher.LEGACY_FINGERPRINT)
+                .isMutant(true)
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        when(repository.countByFingerprintVersion(DnaHasher.LEGACY_FINGERPRINT)).thenReturn(1L);
+        legacyFingerprints.seed();
+
+        when(store.find(any(DnaHash.class))).thenReturn(Optional.empty());
+        when(repository.findByDnaHashAndFingerprintVersion(legacyHash, DnaHasher.LEGACY_FINGERPRINT))
+                .thenReturn(Optional.of(legacy));
+        when(repository.rekey(7L, hash, DnaHasher.FINGERPRINT_VERSION, DnaHasher.LEGACY_FINGERPRINT))
+                .thenReturn(1);
+
+        // Mismo veredicto que el registro legacy, sin detectar ni insertar un duplicado
+        assertTrue(service.analyzeDna(dna));
+
+        verify(detector, never()).isMutant(any(String[].class));
+        verify(store, never()).insertIfAbsent(any(DnaRecord.class));
+        verify(repository).rekey(7L, hash, DnaHasher.FINGERPRINT_VERSION, DnaHasher.LEGACY_FINGERPRINT);
+        assertFalse(legacyFingerprints.pending());
+    }
+
+    @Test
+    void shouldDetectOnceForConcurrentIdenticalRequests() throws Exception {
+        String[] dna = {"AAAA", "TTTT", "CCCC", "GGGG"};
+        CompletableFuture<Boolean> follower = new CompletableFuture<>();
+
+        when(store.find(any(DnaHash.class))).thenReturn(Optional.empty());
+        when(detector.isMutant(dna)).thenAnswer(invocation -> {
+            // Mientras la primera request detecta llega otra con el mismo ADN
+            awaitWaiting(startFollower(dna, follower));
+            return true;
+        });
+
+        assertTrue(service.analyzeDna(dna));
+        assertTrue(follower.get(5, TimeUnit.SECONDS));
+
+        // Una sola consulta, detección e inserción para las dos requests
+        verify(store, times(1)).find(any(DnaHash.class));
+        verify(detector, times(1)).isMutant(dna);
+        verify(store, times(1)).insertIfAbsent(any(DnaRecord.class));
+    }
+
+    @Test
+    void shouldShareFailureWithWaitingRequestsAndRetryAfterwards() throws Exception {
+        String[] dna = {"AAAA", "TTTT", "CCCC", "GGGG"};
+        CompletableFuture<Boolean> follower = new CompletableFuture<>();
+
+        when(store.find(any(DnaHash.class))).thenReturn(Optional.empty());
+        when(detector.isMutant(dna))
+                .thenAnswer(invocation -> {
+                    awaitWaiting(startFollower(dna, follower));
+                    throw new IllegalStateException("base caída");
+                })
+                .thenReturn(false);
+
+        assertThrows(IllegalStateException.class, () -> service.analyzeDna(dna));
+
+        ExecutionException shared = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, shared.getCause());
+
+        // La falla no queda registrada: la próxima request resuelve de nuevo
+        assertFalse(service.analyzeDna(dna));
+    }
+
+    @Test
+    void shouldReuseVerdictOfLeaderThatFinishedJustBeforeClaimingTheHash() throws Exception {
+        String[] dna = {"AAAA", "TTTT", "CCCC", "GGGG"};
+        DnaHash hash = service.calculateDnaHash(dna);
+        AtomicInteger pendingChecks = new AtomicInteger();
+        CompletableFuture<Boolean> leader = new CompletableFuture<>();
+
+        when(store.find(any(DnaHash.class))).thenReturn(Optional.empty());
+        when(detector.isMutant(dna)).thenReturn(true);
+
+        // La segunda request ya no encontró el hash en la cache; antes de reclamarlo
+        // la primera resuelve completo y sale de inFlight
+        when(writeBehind.pendingVerdict(hash)).thenAnswer(invocation -> {
+            if (pendingChecks.incrementAndGet() == 1)
+                startFollower(dna, leader).join();
+            return Optional.empty();
+        });
+
+        assertTrue(service.analyzeDna(dna));
+        assertTrue(leader.get(5, TimeUnit.SECONDS));
+
+        // Una sola detección en total: la que llegó tarde usa el veredicto que quedó en la cache
+        verify(detector, times(1)).isMutant(dna);
+        verify(store, times(1)).find(any(DnaHash.class));
+        verify(store, times(1)).insertIfAbsent(any(DnaRecord.class));
+    }
+
+    private Thread startFollower(String[] dna, CompletableFuture<Boolean> result) {
+        Thread thread = new Thread(() -> {
+            try {
+                result.complete(service.analyzeDna(dna));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    // Hasta que el hilo queda esperando el veredicto de la request en curso
+    private static void awaitWaiting(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while (thread.getState() != Thread.State.WAITING) {
+            if (System.nanoTime() > deadline)
+                fail("La segunda request no quedó esperando a la primera");
+            Thread.sleep(1);
+        }
+    }
 }
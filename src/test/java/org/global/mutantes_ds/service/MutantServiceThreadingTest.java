@@ -0,0 +1,88 @@
+package org.global.mutantes_ds.service;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+// Con la aplicación completa (Tomcat, proxies de Spring y spring.threads.virtual.enabled):
+// la detección de POST /mutant corre en el mismo virtual thread que atiende la request
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class MutantServiceThreadingTest {
+
+    private static final AtomicReference<Thread> requestThread = new AtomicReference<>();
+
+    @TestConfiguration
+    static class RequestThreadCapture {
+
+        @Bean
+        OncePerRequestFilter requestThreadFilter() {
+            return new OncePerRequestFilter() {
+                @Override
+                protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                                FilterChain chain) throws ServletException, IOException {
+                    requestThread.set(Thread.currentThread());
+                    chain.doFilter(request, response);
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private MutantService mutantService;
+
+    @MockitoSpyBean
+    private MutantDetector detector;
+
+    @Test
+    void shouldAnalyzeOnRequestVirtualThread() {
+        AtomicReference<Thread> detectionThread = new AtomicReference<>();
+
+        doAnswer(invocation -> {
+            detectionThread.set(Thread.currentThread());
+            return invocation.callRealMethod();
+        }).when(detector).isMutant(any(BitPackedDnaMatrix.class));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        ResponseEntity<String> response = restTemplate.postForEntity("/mutant",
+                new HttpEntity<>("{\"dna\":[\"ATGCGA\",\"CAGTGC\",\"TTATGT\",\"AGAAGG\",\"CCCCTA\",\"TCACTG\"]}", headers),
+                String.class);
+
+        assertEquals(200, response.getStatusCode().value());
+
+        // El service es el bean con proxy, no una instancia armada a mano
+        assertTrue(AopUtils.isAopProxy(mutantService));
+
+        // Sin salto a otro executor: el hilo de Tomcat (virtual) es el que detecta
+        assertNotNull(detectionThread.get());
+        assertSame(requestThread.get(), detectionThread.get());
+        assertTrue(detectionThread.get().isVirtual());
+    }
+}
@@ -1,22 +1,42 @@
 package org.global.mutantes_ds.service;
 
 import org.global.mutantes_ds.dto.StatsResponse;
-import org.global.mutantes_ds.repository.DnaRecordRepository;
+import org.global.mutantes_ds.repository.DnaStatsBucketRepository;
+import org.global.mutantes_ds.repository.DnaVerdictStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class StatsServiceTest {
 
-    private DnaRecordRepository repository;
+    private DnaVerdictStore store;
+    private DnaStatsBucketRepository bucketRepository;
+    private DnaStatsTracker tracker;
     private StatsService service;
 
     @BeforeEach
     void setUp() {
-        repository = mock(DnaRecordRepository.class);
-        service = new StatsService(repository);
+        store = mock(DnaVerdictStore.class);
+        bucketRepository = mock(DnaStatsBucketRepository.class);
+        tracker = new DnaStatsTracker(store, bucketRepository);
+        service = new StatsService(store, tracker, bucketRepository);
+    }
+
+    // Carga los contadores desde la base (como al arrancar) y lee /stats
+    private StatsResponse stats() {
+        tracker.seed();
+        return service.getStats();
     }
 
     // ============================================================
@@ -25,10 +45,10 @@ class StatsServiceTest {
 
     @Test
     void shouldReturnCorrectStats() {
-        when(repository.countByIsMutant(true)).thenReturn(40L);
-        when(repository.countByIsMutant(false)).thenReturn(100L);
+        when(store.count(true)).thenReturn(40L);
+        when(store.count(false)).thenReturn(100L);
 
-        StatsResponse response = service.getStats();
+        StatsResponse response = stats();
 
         assertEquals(40L, response.getCount_mutant_dna());
         assertEquals(100L, response.getCount_human_dna());
@@ -41,10 +61,10 @@ class StatsServiceTest {
 
     @Test
     void shouldHandleZeroHumans() {
-        when(repository.countByIsMutant(true)).thenReturn(10L);
-        when(repository.countByIsMutant(false)).thenReturn(0L);
+        when(store.count(true)).thenReturn(10L);
+        when(store.count(false)).thenReturn(0L);
 
-        StatsResponse response = service.getStats();
+        StatsResponse response = stats();
 
         assertEquals(10L, response.getCount_mutant_dna());
         assertEquals(0L, response.getCount_human_dna());
@@ -57,10 +77,10 @@ class StatsServiceTest {
 
     @Test
     void shouldHandleZeroMutants() {
-        when(repository.countByIsMutant(true)).thenReturn(0L);
-        when(repository.countByIsMutant(false)).thenReturn(20L);
+        when(store.count(true)).thenReturn(0L);
+        when(store.count(false)).thenReturn(20L);
 
-        StatsResponse response = service.getStats();
+        StatsResponse response = stats();
 
         assertEquals(0L, response.getCount_mutant_dna());
         assertEquals(20L, response.getCount_human_dna());
@@ -73,10 +93,10 @@ class StatsServiceTest {
 
     @Test
     void shouldHandleNoRecords() {
-        when(repository.countByIsMutant(true)).thenReturn(0L);
-        when(repository.countByIsMutant(false)).thenReturn(0L);
+        when(store.count(true)).thenReturn(0L);
+        when(store.count(false)).thenReturn(0L);
 
-        StatsResponse response = service.getStats();
+        StatsResponse response = stats();
 
         assertEquals(0L, response.getCount_mutant_dna());
         assertEquals(0L, response.getCount_human_dna());
@@ -89,10 +109,10 @@ class StatsServiceTest {
 
     @Test
     void shouldReturnDecimalRatio() {
-        when(repository.countByIsMutant(true)).thenReturn(3L);
-        when(repository.countByIsMutant(false)).thenReturn(7L);
+        when(store.count(true)).thenReturn(3L);
+        when(store.count(false)).thenReturn(7L);
 
-        StatsResponse response = service.getStats();
+        StatsResponse response = stats();
 
         assertEquals(3L, response.getCount_mutant_dna());
         assertEquals(7L, response.getCount_human_dna());
@@ -105,13 +125,233 @@ class StatsServiceTest {
 
     @Test
     void shouldHandleLargeNumbers() {
-        when(repository.countByIsMutant(true)).thenReturn(1_000_000L);
-        when(repository.countByIsMutant(false)).thenReturn(2_000_000L);
+        when(store.count(true)).thenReturn(1_000_000L);
+        when(store.count(false)).thenReturn(2_000_000L);
 
-        StatsResponse response = service.getStats();
+        StatsResponse response = stats();
 
         assertEquals(1_000_000L, response.getCount_mutant_dna());
         assertEquals(2_000_000L, response.getCount_human_dna());
         assertEquals(0.5, response.getRatio());
     }
+
+    // ============================================================
+    // 7. Contadores incrementales
+    // ============================================================
+
+    @Test
+    void shouldUpdateCountersWithoutQueryingDatabase() {
+        when(store.count(true)).thenReturn(1L);
+        when(store.count(false)).thenReturn(1L);
+        tracker.seed();
+
+        LocalDateTime now = LocalDateTime.now();
+        tracker.recordInserted(true, now);
+        tracker.recordInserted(true, now);
+        tracker.recordInserted(false, now);
+        tracker.recordDeleted(false, now);
+
+        StatsResponse response = service.getStats();
+
+        assertEquals(3L, response.getCount_mutant_dna());
+        assertEquals(1L, response.getCount_human_dna());
+        assertEquals(3.0, response.getRatio());
+
+        // Solo las dos consultas de la carga inicial
+        verify(store, times(1)).count(true);
+        verify(store, times(1)).count(false);
+    }
+
+    // ============================================================
+    // 8. Rango de fechas con rollup por minuto
+    // ============================================================
+
+    @Test
+    void shouldFlushRollupOncePerBucketWithCombinedChanges() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 1, 10, 15, 42);
+        LocalDateTime bucket = LocalDateTime.of(2025, 3, 1, 10, 15);
+
+        for (int i = 0; i < 100; i++) {
+            tracker.recordInserted(true, createdAt);
+        }
+        tracker.recordDeleted(false, createdAt);
+        tracker.recordInserted(false, createdAt.plusMinutes(1));
+
+        // Nada llega a dna_stats_rollup hasta el flush
+        verify(bucketRepository, never()).addToBucket(any(), anyLong(), anyLong());
+
+        tracker.flushRollup();
+
+        verify(bucketRepository).addToBucket(bucket, 100, -1);
+        verify(bucketRepository).addToBucket(bucket.plusMinutes(1), 0, 1);
+        verifyNoMoreInteractions(bucketRepository);
+
+        // Ya escrito: el próximo flush no repite nada
+        tracker.flushRollup();
+        verifyNoMoreInteractions(bucketRepository);
+    }
+
+    @Test
+    void shouldRetryRollupBucketsThatFailedToFlush() {
+        LocalDateTime bucket = LocalDateTime.of(2025, 3, 1, 10, 15);
+
+        when(bucketRepository.addToBucket(bucket, 2, 0))
+                .thenThrow(new IllegalStateException("base caída"))
+                .thenReturn(1);
+
+        tracker.recordInserted(true, bucket);
+        tracker.recordInserted(true, bucket.plusSeconds(30));
+
+        tracker.flushRollup();
+        assertArrayEquals(new long[]{2, 0}, tracker.pendingBetween(bucket, bucket.plusMinutes(1)));
+
+        tracker.flushRollup();
+        verify(bucketRepository, times(2)).addToBucket(bucket, 2, 0);
+        assertArrayEquals(new long[]{0, 0}, tracker.pendingBetween(bucket, bucket.plusMinutes(1)));
+    }
+
+    @Test
+    void shouldKeepBucketPendingUntilItsWriteCommits() {
+        LocalDateTime bucket = LocalDateTime.of(2025, 3, 1, 10, 15);
+
+        tracker.recordInserted(true, bucket);
+        tracker.recordInserted(true, bucket);
+
+        when(bucketRepository.addToBucket(bucket, 2, 0)).thenAnswer(invocation -> {
+            // Mientras se escribe, un /stats por rango lo sigue viendo en pendientes
+            assertArrayEquals(new long[]{2, 0}, tracker.pendingBetween(bucket, bucket.plusMinutes(1)));
+            // Y un alta que llega ahora queda para el próximo flush
+            tracker.recordInserted(true, bucket);
+            return 1;
+        });
+
+        tracker.flushRollup();
+
+        assertArrayEquals(new long[]{1, 0}, tracker.pendingBetween(bucket, bucket.plusMinutes(1)));
+    }
+
+    @Test
+    void shouldIncludeUnflushedBucketsInDateRange() {
+        LocalDateTime start = LocalDateTime.of(2025, 3, 1, 10, 0);
+        LocalDateTime end = LocalDateTime.of(2025, 3, 1, 10, 10);
+
+        when(bucketRepository.sumBetween(start, end)).thenReturn(totals(10, 20));
+        tracker.recordInserted(true, start.plusMinutes(3));
+        tracker.recordInserted(false, start.plusMinutes(9));
+        // Fuera de [start, end): lo cuenta el borde final sobre el store
+        tracker.recordInserted(false, end);
+
+        StatsResponse response = service.getStats(start, end);
+
+        assertEquals(11L, response.getCount_mutant_dna());
+        assertEquals(21L, response.getCount_human_dna());
+    }
+
+    @Test
+    void shouldSumBucketsAndCorrectEdgesForDateRange() {
+        LocalDateTime start = LocalDateTime.of(2025, 3, 1, 10, 0, 30);
+        LocalDateTime end = LocalDateTime.of(2025, 3, 1, 12, 5, 10);
+        LocalDateTime firstBucket = LocalDateTime.of(2025, 3, 1, 10, 1);
+        LocalDateTime lastBucket = LocalDateTime.of(2025, 3, 1, 12, 5);
+
+        when(bucketRepository.sumBetween(firstBucket, lastBucket)).thenReturn(totals(100, 200));
+        when(store.countInRange(true, start, firstBucket))
+                .thenReturn(1L);
+        when(store.countInRange(false, start, firstBucket))
+                .thenReturn(2L);
+        when(store.countBetween(true, lastBucket, end)).thenReturn(3L);
+        when(store.countBetween(false, lastBucket, end)).thenReturn(4L);
+
+        StatsResponse response = service.getStats(start, end);
+
+        assertEquals(104L, response.getCount_mutant_dna());
+        assertEquals(206L, response.getCount_human_dna());
+
+        // Nunca se cuenta el rango completo sobre el store
+        verify(store, never()).countBetween(anyBoolean(), eq(start), eq(end));
+    }
+
+    @Test
+    void shouldCountExactlyWhenRangeIsShorterThanOneBucket() {
+        LocalDateTime start = LocalDateTime.of(2025, 3, 1, 10, 0, 10);
+        LocalDateTime end = LocalDateTime.of(2025, 3, 1, 10, 0, 50);
+
+        when(store.countBetween(true, start, end)).thenReturn(2L);
+        when(store.countBetween(false, start, end)).thenReturn(4L);
+
+        StatsResponse response = service.getStats(start, end);
+
+        assertEquals(2L, response.getCount_mutant_dna());
+        assertEquals(4L, response.getCount_human_dna());
+        verifyNoInteractions(bucketRepository);
+    }
+
+    @Test
+    void shouldRebuildEmptyRollupFromStoreTotals() {
+        LocalDateTime minute = LocalDateTime.of(2025, 3, 1, 10, 15);
+        NavigableMap<LocalDateTime, long[]> totals = new TreeMap<>();
+        totals.put(minute, new long[]{2, 5});
+        totals.put(minute.plusMinutes(1), new long[]{1, 0});
+
+        when(store.count(true)).thenReturn(3L);
+        when(store.count(false)).thenReturn(5L);
+        when(store.countByMinute()).thenReturn(totals);
+        tracker.seed();
+
+        tracker.rebuildRollupIfEmpty();
+
+        verify(bucketRepository).addToBucket(minute, 2, 5);
+        verify(bucketRepository).addToBucket(minute.plusMinutes(1), 1, 0);
+    }
+
+    @Test
+    void shouldNotCountInsertCommittingDuringRebuildTwice() throws Exception {
+        LocalDateTime minute = LocalDateTime.of(2025, 3, 1, 10, 15);
+        NavigableMap<LocalDateTime, long[]> totals = new TreeMap<>();
+        totals.put(minute, new long[]{1, 0});
+
+        when(store.count(true)).thenReturn(1L);
+        when(store.countByMinute()).thenReturn(totals);
+        tracker.seed();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            tracker.recordInserted(true, minute);
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+
+            // El insert se está confirmando: la reconstrucción lo va a leer del store
+            synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+            CompletableFuture<Void> rebuild = CompletableFuture.runAsync(tracker::rebuildRollupIfEmpty);
+
+            Thread.sleep(100);
+            assertFalse(rebuild.isDone());
+
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+            synchronizations.forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            rebuild.get(5, TimeUnit.SECONDS);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        tracker.flushRollup();
+
+        // Solo la reconstrucción lo escribe
+        verify(bucketRepository, times(1)).addToBucket(any(), anyLong(), anyLong());
+        verify(bucketRepository).addToBucket(minute, 1, 0);
+    }
+
+    private static DnaStatsBucketRepository.BucketTotals totals(long mutants, long humans) {
+        return new DnaStatsBucketRepository.BucketTotals() {
+            @Override
+            public long getMutants() {
+                return mutants;
+            }
+
+            @Override
+            public long getHumans() {
+                return humans;
+            }
+        };
+    }
 }
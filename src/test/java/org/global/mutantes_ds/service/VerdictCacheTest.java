@@ -0,0 +1,65 @@
+package org.global.mutantes_ds.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerdictCacheTest {
+
+    // ============================================================
+    // 1. Hits, misses e invalidación
+    // ============================================================
+
+    @Test
+    void shouldCountHitsAndMisses() {
+        VerdictCache cache = new VerdictCache(100);
+        DnaHash hash = hash(1);
+
+        assertNull(cache.get(hash));
+        cache.put(hash, true);
+        assertEquals(Boolean.TRUE, cache.get(hash));
+
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+
+        cache.invalidate(hash);
+        assertNull(cache.get(hash));
+        assertEquals(2, cache.misses());
+    }
+
+    // ============================================================
+    // 2. Tamaño acotado
+    // ============================================================
+
+    @Test
+    void shouldEvictWhenFull() {
+        VerdictCache cache = new VerdictCache(160);
+
+        for (int i = 0; i < 10_000; i++) {
+            cache.put(hash(i), i % 2 == 0);
+        }
+
+        assertTrue(cache.size() <= 160);
+        assertTrue(cache.evictions() > 0);
+    }
+
+    // ============================================================
+    // 3. Clave binaria
+    // ============================================================
+
+    @Test
+    void shouldRoundTripHexAndBinaryHash() {
+        String hex = "00112233445566778899aabbccddeeff00112233445566778899aabbccddeeff";
+
+        DnaHash hash = DnaHash.fromHex(hex);
+
+        assertEquals(hex, hash.toHex());
+        assertEquals(hash, DnaHash.of(hash.toBytes()));
+        assertEquals(hash, DnaHash.fromHex(hex.toUpperCase()));
+        assertThrows(IllegalArgumentException.class, () -> DnaHash.fromHex("abc"));
+    }
+
+    private static DnaHash hash(long value) {
+        return new DnaHash(value * 31, value * 17, value * 13, value);
+    }
+}
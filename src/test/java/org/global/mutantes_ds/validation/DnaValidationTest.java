@@ -0,0 +1,72 @@
+package org.global.mutantes_ds.validation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DnaValidationTest {
+
+    // ============================================================
+    // 1. Tabla de bases
+    // ============================================================
+
+    @Test
+    void shouldMapBasesToTwoBitCodes() {
+        assertEquals(0, DnaValidation.code('A'));
+        assertEquals(1, DnaValidation.code('C'));
+        assertEquals(2, DnaValidation.code('G'));
+        assertEquals(3, DnaValidation.code('T'));
+
+        assertEquals(-1, DnaValidation.code('a'));
+        assertEquals(-1, DnaValidation.code('X'));
+        assertEquals(-1, DnaValidation.code('\0'));
+        // Fuera de Latin-1: no indexa la tabla
+        assertEquals(-1, DnaValidation.code('Ł'));
+    }
+
+    @Test
+    void shouldFindFirstInvalidBaseInRow() {
+        assertEquals(-1, DnaValidation.firstInvalidBase("ATGC"));
+        assertEquals(2, DnaValidation.firstInvalidBase("ATxCx"));
+    }
+
+    // ============================================================
+    // 2. Primer error de la matriz
+    // ============================================================
+
+    @Test
+    void shouldAcceptSquareMatrixOfValidBases() {
+        assertNull(DnaValidation.validate(new String[]{"ATGC", "CAGT", "TTAT", "AGAC"}));
+    }
+
+    @Test
+    void shouldReportEmptyDna() {
+        assertEquals(DnaViolation.Kind.EMPTY, DnaValidation.validate(null).kind());
+        assertEquals(DnaViolation.Kind.EMPTY, DnaValidation.validate(new String[]{}).kind());
+    }
+
+    @Test
+    void shouldReportDnaLargerThanMaxSizeBeforeReadingRows() {
+        assertEquals(new DnaViolation(DnaViolation.Kind.TOO_LARGE, -1, -1),
+                DnaValidation.validate(new String[]{"AT", null, "xx"}, 2));
+        assertNull(DnaValidation.validate(new String[]{"AT", "GC"}, 2));
+    }
+
+    @Test
+    void shouldReportRowThatBreaksSquareShape() {
+        assertEquals(new DnaViolation(DnaViolation.Kind.NOT_SQUARE, 1, -1),
+                DnaValidation.validate(new String[]{"ATG", "CA", "TTA"}));
+        assertEquals(new DnaViolation(DnaViolation.Kind.NOT_SQUARE, 2, -1),
+                DnaValidation.validate(new String[]{"ATG", "CAG", null}));
+        assertEquals(new DnaViolation(DnaViolation.Kind.NOT_SQUARE, 0, -1),
+                DnaValidation.validate(new String[]{"ATGC", "CAGT", "TTAT"}));
+    }
+
+    @Test
+    void shouldReportFirstInvalidBaseWithRowAndColumn() {
+        DnaViolation violation = DnaValidation.validate(new String[]{"ATGC", "CAGT", "TTxT", "AGAX"});
+
+        assertEquals(new DnaViolation(DnaViolation.Kind.INVALID_BASE, 2, 2), violation);
+        assertEquals("Base inválida en fila 2, columna 2", violation.message());
+    }
+}